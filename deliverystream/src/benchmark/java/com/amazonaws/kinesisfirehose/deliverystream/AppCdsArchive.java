@@ -0,0 +1,119 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import lombok.val;
+
+/**
+ * Builds an application class-data sharing (AppCDS) archive for the shaded handler jar, so a JVM that maps it skips
+ * parsing and verifying the JDK, SDK and handler classes a first invocation needs.
+ *
+ * Training drives the contract test inputs in {@code inputs/} through every action against a
+ * {@link StubFirehoseEndpoint}, one fresh JVM per action with {@code -XX:DumpLoadedClassList}. The class lists are
+ * merged and dumped with {@code -Xshare:dump} against the jar alone, next to it as {@code <jar name>.jsa}.
+ *
+ * Run by the {@code appcds} profile after packaging. AppCDS for application classes needs JDK 11 or later, and the
+ * archive only maps into the JDK build that dumped it with the jar at the same path and unchanged; otherwise
+ * {@code -Xshare:auto} falls back to loading classes normally. Optional system properties: {@code appcds.jar} (the
+ * handler jar), {@code appcds.archive} and {@code appcds.inputs} (the contract inputs directory).
+ */
+public class AppCdsArchive {
+    private static final String DEFAULT_JAR = "target/aws-kinesisfirehose-deliverystream-1.0-SNAPSHOT.jar";
+    private static final String DEFAULT_INPUTS = "inputs";
+    private static final String CREATE_INPUT = "inputs_1_create.json";
+    private static final String UPDATE_INPUT = "inputs_1_update.json";
+    private static final String INVALID_INPUT = "inputs_1_invalid.json";
+
+    public static void main(final String[] args) throws Exception {
+        if (System.getProperty("java.specification.version").startsWith("1.")) {
+            throw new IllegalStateException("AppCDS for application classes needs JDK 11 or later, this is "
+                + System.getProperty("java.version"));
+        }
+        val jar = new File(System.getProperty("appcds.jar", DEFAULT_JAR)).getAbsoluteFile();
+        if (!jar.isFile()) {
+            throw new IllegalStateException("Handler jar " + jar + " not found; run mvn package first");
+        }
+        val archive = new File(System.getProperty("appcds.archive", archiveFor(jar).getPath())).getAbsoluteFile();
+        val inputs = new File(System.getProperty("appcds.inputs", DEFAULT_INPUTS));
+        val workDirectory = new File(archive.getParentFile(), "appcds");
+        Files.createDirectories(workDirectory.toPath());
+
+        val classList = new File(workDirectory, "classes.lst");
+        val trainedClasses = train(jar, inputs, workDirectory);
+        Files.write(classList.toPath(), trainedClasses, StandardCharsets.UTF_8);
+        dump(jar, classList, archive, new File(workDirectory, "dump.log"));
+        System.out.println(String.format("Wrote %s (%d KB) from %d trained classes", archive,
+            archive.length() / 1024, trainedClasses.size()));
+    }
+
+    static File archiveFor(final File jar) {
+        val name = jar.getName();
+        return new File(jar.getParentFile(), (name.endsWith(".jar") ? name.substring(0, name.length() - 4) : name) + ".jsa");
+    }
+
+    /**
+     * Runs every training step in its own JVM and returns the union of the classes they loaded, in first-loaded order.
+     */
+    private static List<String> train(final File jar, final File inputs, final File workDirectory) throws Exception {
+        val create = new File(inputs, CREATE_INPUT).getPath();
+        val update = new File(inputs, UPDATE_INPUT).getPath();
+        val invalid = new File(inputs, INVALID_INPUT).getPath();
+        val steps = Arrays.asList(
+            new String[] {"CREATE", create},
+            new String[] {"CREATE", invalid},
+            new String[] {"READ", create},
+            new String[] {"UPDATE", update, create},
+            new String[] {"DELETE", update},
+            new String[] {"LIST", create});
+
+        val trainingClassPath = jar.getPath() + File.pathSeparator
+            + new File(AppCdsTraining.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        val classes = new LinkedHashSet<String>();
+        try (StubFirehoseEndpoint endpoint = StubFirehoseEndpoint.start()) {
+            val environment = new HashMap<String, String>();
+            environment.put("AWS_REGION", "us-east-1");
+            environment.put(FirehoseClientProvider.ENDPOINT_OVERRIDE_SETTING, endpoint.uri());
+            for (int i = 0; i < steps.size(); i++) {
+                val step = steps.get(i);
+                ColdStartHarness.script(endpoint, step[0]);
+                if (step[1].equals(invalid)) {
+                    // The contract test expects the service to reject this input.
+                    endpoint.enqueue("CreateDeliveryStream", 400,
+                        "{\"__type\":\"InvalidArgumentException\",\"message\":\"Invalid KMS key ARN.\"}");
+                }
+                val stepClassList = new File(workDirectory, "training-" + i + ".lst");
+                ForkedJvm.run(trainingClassPath, Collections.singletonList("-XX:DumpLoadedClassList=" + stepClassList),
+                    environment, AppCdsTraining.class.getName(), step);
+                classes.addAll(Files.readAllLines(stepClassList.toPath(), StandardCharsets.UTF_8));
+            }
+        }
+        return Arrays.asList(classes.toArray(new String[0]));
+    }
+
+    /**
+     * Dumps the archive against the jar alone. Classes in the list that came from elsewhere, such as the training code
+     * itself, are skipped by the JVM.
+     */
+    private static void dump(final File jar, final File classList, final File archive, final File log)
+        throws IOException, InterruptedException {
+        val process = new ProcessBuilder(
+            System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+            "-Xshare:dump",
+            "-XX:SharedClassListFile=" + classList,
+            "-XX:SharedArchiveFile=" + archive,
+            "-cp", jar.getPath())
+            .redirectErrorStream(true)
+            .redirectOutput(log)
+            .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.format("Archive dump exited with status %d, see %s", process.exitValue(), log));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.val;
+
+/**
+ * Compares the cold start of the handler jar with class-data sharing off, with only the JDK's default CDS archive, and
+ * with the AppCDS archive built by {@link AppCdsArchive}. Each sample is a fresh JVM running {@link ColdStartProbe}
+ * end to end against a {@link StubFirehoseEndpoint}, as in {@link ColdStartHarness}.
+ *
+ * The archive variant runs with {@code -Xshare:on}, so a stale or mismatched archive fails the run instead of silently
+ * measuring the fallback.
+ */
+public class AppCdsBenchmark {
+    private static final String DEFAULT_JAR = "target/aws-kinesisfirehose-deliverystream-1.0-SNAPSHOT.jar";
+    private static final List<String> ACTIONS = Arrays.asList("CREATE", "READ", "UPDATE", "DELETE", "LIST");
+
+    public static void main(final String[] args) throws Exception {
+        val jar = new File(System.getProperty("benchmark.jar", DEFAULT_JAR)).getAbsoluteFile();
+        val archive = new File(System.getProperty("appcds.archive", AppCdsArchive.archiveFor(jar).getPath())).getAbsoluteFile();
+        if (!archive.isFile()) {
+            throw new IllegalStateException("AppCDS archive " + archive + " not found; run mvn -Pappcds package first");
+        }
+        val probeClassPath = new File(ColdStartProbe.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        val classPath = jar.getPath() + File.pathSeparator + probeClassPath.getPath();
+
+        val variants = new LinkedHashMap<String, List<String>>();
+        variants.put("no CDS", Collections.singletonList("-Xshare:off"));
+        variants.put("JDK CDS", Collections.emptyList());
+        variants.put("AppCDS", Arrays.asList("-Xshare:on", "-XX:SharedArchiveFile=" + archive));
+
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        try (StubFirehoseEndpoint endpoint = StubFirehoseEndpoint.start()) {
+            val environment = new HashMap<String, String>();
+            environment.put("AWS_REGION", "us-east-1");
+            environment.put(FirehoseClientProvider.ENDPOINT_OVERRIDE_SETTING, endpoint.uri());
+            val actions = System.getProperty("benchmark.actions") == null
+                ? ACTIONS : Arrays.asList(System.getProperty("benchmark.actions").split(","));
+            for (val action : actions) {
+                for (val variant : variants.entrySet()) {
+                    val jvmArgs = new ArrayList<String>(variant.getValue());
+                    jvmArgs.add("-D" + ColdStartProbe.PHASES_PROPERTY + "=false");
+                    final Map<String, Double> metrics = ForkedJvm.median(ForkedJvm.forks(), () -> {
+                        ColdStartHarness.script(endpoint, action);
+                        return ForkedJvm.run(classPath, jvmArgs, environment, ColdStartProbe.class.getName(), action);
+                    });
+                    results.put(action + " / " + variant.getKey(), metrics);
+                }
+            }
+        }
+        ForkedJvm.printTable("Handler jar cold start by class-data sharing mode (median of " + ForkedJvm.forks()
+            + " fresh JVMs on " + System.getProperty("java.version") + ")", results);
+    }
+}
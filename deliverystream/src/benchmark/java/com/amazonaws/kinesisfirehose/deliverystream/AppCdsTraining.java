@@ -0,0 +1,63 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import lombok.val;
+
+/**
+ * Runs inside a training JVM forked by {@link AppCdsArchive} with {@code -XX:DumpLoadedClassList}, and invokes one
+ * action through {@code HandlerWrapper.handleRequest} the way Lambda does, so the JVM records every class a real first
+ * invocation loads.
+ *
+ * The models are the contract test inputs under {@code inputs/}. Their {@code {"Ref": ...}} placeholders, which the
+ * contract tests fill from stack outputs, are replaced with fixed ARNs.
+ */
+final class AppCdsTraining {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private AppCdsTraining() {
+    }
+
+    /**
+     * Arguments: the action, the contract input for the desired model and, optionally, the one for the previous model.
+     */
+    public static void main(final String[] args) throws Exception {
+        val action = args[0];
+        val model = readInput(new File(args[1]));
+        val previousModel = args.length > 2 ? readInput(new File(args[2])) : model;
+        val output = new ByteArrayOutputStream();
+        new HandlerWrapper().handleRequest(
+            new ByteArrayInputStream(ColdStartProbe.handlerRequest(action, model, previousModel)), output, new BenchmarkLambdaContext());
+    }
+
+    static String readInput(final File input) throws IOException {
+        return MAPPER.writeValueAsString(resolveRefs(MAPPER.readTree(input)));
+    }
+
+    private static JsonNode resolveRefs(final JsonNode node) {
+        if (node.isObject()) {
+            if (node.size() == 1 && node.has("Ref")) {
+                return MAPPER.getNodeFactory().textNode(resolveRef(node.get("Ref").asText()));
+            }
+            val object = (ObjectNode) node;
+            for (Iterator<Map.Entry<String, JsonNode>> fields = object.fields(); fields.hasNext(); ) {
+                val field = fields.next();
+                field.setValue(resolveRefs(field.getValue()));
+            }
+        }
+        return node;
+    }
+
+    private static String resolveRef(final String name) {
+        return name.endsWith("BucketArn")
+            ? "arn:aws:s3:::" + name.toLowerCase()
+            : "arn:aws:iam::123456789012:role/" + name;
+    }
+}
@@ -0,0 +1,81 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A Lambda context for driving the HandlerWrapper outside Lambda. Log lines go to stderr so they never mix with the
+ * metrics a forked probe prints on stdout.
+ */
+final class BenchmarkLambdaContext implements Context {
+    private static final int TIMEOUT_MILLIS = 900_000;
+    private final long start = System.currentTimeMillis();
+
+    @Override
+    public String getAwsRequestId() {
+        return "00000000-0000-0000-0000-000000000000";
+    }
+
+    @Override
+    public String getLogGroupName() {
+        return "/aws/lambda/benchmark";
+    }
+
+    @Override
+    public String getLogStreamName() {
+        return "benchmark";
+    }
+
+    @Override
+    public String getFunctionName() {
+        return "benchmark";
+    }
+
+    @Override
+    public String getFunctionVersion() {
+        return "$LATEST";
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return "arn:aws:lambda:us-east-1:123456789012:function:benchmark";
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        return (int) (TIMEOUT_MILLIS - (System.currentTimeMillis() - start));
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+        return 256;
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+        return new LambdaLogger() {
+            @Override
+            public void log(final String message) {
+                System.err.println(message);
+            }
+
+            @Override
+            public void log(final byte[] message) {
+                System.err.println(new String(message, StandardCharsets.UTF_8));
+            }
+        };
+    }
+}
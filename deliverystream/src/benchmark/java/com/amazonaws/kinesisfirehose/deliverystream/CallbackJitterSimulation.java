@@ -0,0 +1,70 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntBiFunction;
+import lombok.val;
+
+/**
+ * Simulates the DescribeDeliveryStream load of a stack that creates many delivery streams at once, with and without
+ * callback jitter. Every stream is created in the same second and then polled by callbacks until it is seen ACTIVE;
+ * two thirds of them are direct put streams that turn ACTIVE after 20 to 100 seconds, the rest Elasticsearch streams
+ * that take 5 to 15 minutes. Reported per variant are the most describe calls the callbacks make in any one second,
+ * how many seconds see more than {@link #DESCRIBE_TPS_LIMIT} of them, the callback describe calls in all, and the
+ * seconds until the last stream is seen ACTIVE.
+ *
+ * The describe calls of the first invocations are left out, as jitter cannot move them. Callbacks are assumed to run
+ * exactly when they are due, which is the worst case for lockstep polling. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec@benchmark -Dbenchmark.class=CallbackJitterSimulation}; the stack size
+ * is {@code -Dsimulation.streams} (default 60) and the jitter {@code -Dsimulation.jitterPercent} (default 20, as in the
+ * handlers).
+ */
+public class CallbackJitterSimulation {
+    private static final int FIXED_DELAY_SECONDS = 30;
+    private static final int DESCRIBE_TPS_LIMIT = 10;
+
+    public static void main(final String[] args) {
+        final int streams = Integer.getInteger("simulation.streams", 60);
+        final int jitterPercent = Integer.getInteger("simulation.jitterPercent", 20);
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        results.put("fixed30s", simulate(streams, (elapsed, poll) -> FIXED_DELAY_SECONDS, 0));
+        results.put("fixed30sJitter", simulate(streams, (elapsed, poll) -> FIXED_DELAY_SECONDS, jitterPercent));
+        results.put("profiled", simulate(streams, null, 0));
+        results.put("profiledJitter", simulate(streams, null, jitterPercent));
+        ForkedJvm.printTable(String.format("Callback describe load of %d delivery streams created together", streams), results);
+    }
+
+    // With no fixed schedule, each stream is polled on the schedule of its StabilizationProfile.
+    private static Map<String, Double> simulate(final int streams,
+                                                final ToIntBiFunction<Long, Integer> fixedSchedule,
+                                                final int jitterPercent) {
+        val describesBySecond = new TreeMap<Long, Integer>();
+        long callbackDescribes = 0;
+        long stackSeconds = 0;
+        for (int i = 0; i < streams; i++) {
+            // The names CloudFormation generates for the resources of one stack only differ in the logical ID.
+            val name = "LoadStack-DeliveryStream" + i + "-Q2ZK7F3N1XW8";
+            final boolean elasticsearch = i % 3 == 2;
+            final long readySeconds = elasticsearch ? 300 + (i * 97L) % 600 : 20 + (i * 37L) % 80;
+            final ToIntBiFunction<Long, Integer> schedule = fixedSchedule != null
+                ? fixedSchedule
+                : (elasticsearch ? StabilizationProfile.STANDARD : StabilizationProfile.FAST).schedule()::delaySeconds;
+            long elapsed = 0;
+            for (int poll = 0; elapsed < readySeconds; poll++) {
+                elapsed += StabilizationSchedule.withJitter(schedule.applyAsInt(elapsed, poll), name, poll, jitterPercent);
+                describesBySecond.merge(elapsed, 1, Integer::sum);
+                callbackDescribes++;
+            }
+            stackSeconds = Math.max(stackSeconds, elapsed);
+        }
+
+        val metrics = new LinkedHashMap<String, Double>();
+        metrics.put("peakDescribeTps", (double) describesBySecond.values().stream().mapToInt(Integer::intValue).max().orElse(0));
+        metrics.put("secondsOver" + DESCRIBE_TPS_LIMIT + "Tps",
+            (double) describesBySecond.values().stream().filter(count -> count > DESCRIBE_TPS_LIMIT).count());
+        metrics.put("callbackDescribes", (double) callbackDescribes);
+        metrics.put("stackSeconds", (double) stackSeconds);
+        return metrics;
+    }
+}
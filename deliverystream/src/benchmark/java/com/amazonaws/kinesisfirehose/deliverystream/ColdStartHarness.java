@@ -0,0 +1,180 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.val;
+
+/**
+ * Measures the cold start of the packaged handler: every sample launches the shaded jar in a fresh JVM and invokes one
+ * action through the HandlerWrapper against a {@link StubFirehoseEndpoint} running in this process, which is scripted
+ * so every action reaches its first ProgressEvent without failing. See {@link ColdStartProbe} for what is measured.
+ *
+ * Run after packaging with
+ * {@code mvn -Pbenchmark package exec:exec@benchmark -Dbenchmark.class=ColdStartHarness}. Optional system properties:
+ * <ul>
+ * <li>{@code benchmark.jar}: the handler jar, by default the one in target/.</li>
+ * <li>{@code benchmark.actions}: comma separated actions, by default all five.</li>
+ * <li>{@code benchmark.entrypoint}: handleRequest (default) or testEntrypoint.</li>
+ * <li>{@code benchmark.output}: writes the medians as {@code action<TAB>metric<TAB>value} lines, to keep one file per
+ * release.</li>
+ * <li>{@code benchmark.baseline}: a file written by an earlier run. The run fails if the time to the first
+ * ProgressEvent or the loaded class count of any action regresses by more than {@code benchmark.tolerance} (default
+ * 0.15, i.e. 15%).</li>
+ * <li>{@code benchmark.maxLoadedClasses}: fails the run if any action loads more classes than this. The {@code slim}
+ * profile uses it as the cold-start class budget.</li>
+ * </ul>
+ */
+public class ColdStartHarness {
+    private static final String DEFAULT_JAR = "target/aws-kinesisfirehose-deliverystream-1.0-SNAPSHOT.jar";
+    private static final List<String> ACTIONS = Arrays.asList("CREATE", "READ", "UPDATE", "DELETE", "LIST");
+    private static final List<String> GATED_METRICS = Arrays.asList("timeToFirstProgressEventMillis", "loadedClasses");
+    private static final double DEFAULT_TOLERANCE = 0.15;
+    private static final String END_TO_END_SUFFIX = "/end-to-end";
+
+    public static void main(final String[] args) throws Exception {
+        val jarProperty = property("benchmark.jar");
+        val jar = new File(jarProperty == null ? DEFAULT_JAR : jarProperty);
+        if (!jar.isFile()) {
+            throw new IllegalStateException("Handler jar " + jar + " not found; run mvn package first");
+        }
+        val actionsProperty = property("benchmark.actions");
+        val actions = actionsProperty == null ? ACTIONS : Arrays.asList(actionsProperty.split(","));
+        val entrypointProperty = property(ColdStartProbe.ENTRYPOINT_PROPERTY);
+        val entrypoint = entrypointProperty == null ? ColdStartProbe.HANDLE_REQUEST : entrypointProperty;
+        val probeClassPath = new File(ColdStartProbe.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        val classPath = jar.getAbsolutePath() + File.pathSeparator + probeClassPath.getAbsolutePath();
+
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        try (StubFirehoseEndpoint endpoint = StubFirehoseEndpoint.start()) {
+            val environment = new HashMap<String, String>();
+            environment.put("AWS_REGION", "us-east-1");
+            environment.put(FirehoseClientProvider.ENDPOINT_OVERRIDE_SETTING, endpoint.uri());
+            for (val action : actions) {
+                for (final boolean phases : new boolean[] {true, false}) {
+                    val jvmArgs = Arrays.asList("-D" + ColdStartProbe.ENTRYPOINT_PROPERTY + "=" + entrypoint,
+                        "-D" + ColdStartProbe.PHASES_PROPERTY + "=" + phases);
+                    final Map<String, Double> metrics = ForkedJvm.median(ForkedJvm.forks(), () -> {
+                        script(endpoint, action);
+                        final Map<String, Double> sample = ForkedJvm.run(classPath, jvmArgs, environment, ColdStartProbe.class.getName(), action);
+                        sample.put("apiCalls", (double) endpoint.calls().values().stream().mapToInt(Integer::intValue).sum());
+                        return sample;
+                    });
+                    results.put(phases ? action : action + END_TO_END_SUFFIX, metrics);
+                }
+            }
+        }
+        ForkedJvm.printTable("Handler jar cold start via " + entrypoint + " (median of " + ForkedJvm.forks() + " fresh JVMs)", results);
+
+        val output = property("benchmark.output");
+        if (output != null) {
+            write(output, results);
+        }
+        val baseline = property("benchmark.baseline");
+        if (baseline != null) {
+            val tolerance = property("benchmark.tolerance");
+            checkAgainstBaseline(read(baseline), results, tolerance == null ? DEFAULT_TOLERANCE : Double.parseDouble(tolerance));
+        }
+        val maxLoadedClasses = property("benchmark.maxLoadedClasses");
+        if (maxLoadedClasses != null) {
+            checkLoadedClassBudget(results, Integer.parseInt(maxLoadedClasses));
+        }
+    }
+
+    // The benchmark profile passes every property through, so an empty value means it was not set.
+    private static String property(final String name) {
+        val value = System.getProperty(name);
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    /**
+     * Scripts the stub so the action's first invocation gets the responses it needs to reach a ProgressEvent.
+     */
+    static void script(final StubFirehoseEndpoint endpoint, final String action) throws IOException {
+        endpoint.reset();
+        endpoint.respond("DescribeDeliveryStream",
+            new String(HandlerPrimer.loadDescribeResponses().get("ExtendedS3"), StandardCharsets.UTF_8));
+        endpoint.respond("CreateDeliveryStream",
+            "{\"DeliveryStreamARN\":\"arn:aws:firehose:us-east-1:123456789012:deliverystream/" + ColdStartProbe.DELIVERY_STREAM_NAME + "\"}");
+        switch (action) {
+            case "CREATE":
+                // The existence check must not find the stream.
+                endpoint.enqueueNotFound("DescribeDeliveryStream");
+                break;
+            case "DELETE":
+                // Exists before the delete call, gone after it.
+                endpoint.enqueue("DescribeDeliveryStream", 200, StubFirehoseEndpoint.ACTIVE_DELIVERY_STREAM);
+                endpoint.enqueueNotFound("DescribeDeliveryStream");
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void write(final String path, final Map<String, Map<String, Double>> results) throws IOException {
+        val file = Paths.get(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            results.forEach((action, metrics) ->
+                metrics.forEach((metric, value) -> writer.println(action + "\t" + metric + "\t" + value)));
+        }
+    }
+
+    private static void checkLoadedClassBudget(final Map<String, Map<String, Double>> results, final int maxLoadedClasses) {
+        val overBudget = new ArrayList<String>();
+        results.forEach((action, metrics) -> {
+            val loadedClasses = metrics.get("loadedClasses");
+            if (action.endsWith(END_TO_END_SUFFIX) && loadedClasses != null && loadedClasses > maxLoadedClasses) {
+                overBudget.add(String.format("%s: %.0f", action, loadedClasses));
+            }
+        });
+        if (!overBudget.isEmpty()) {
+            throw new IllegalStateException("Cold start loads more than the budget of " + maxLoadedClasses + " classes: " + overBudget);
+        }
+        System.out.println("Every action loads at most " + maxLoadedClasses + " classes on a cold start");
+    }
+
+    private static Map<String, Map<String, Double>> read(final String path) throws IOException {
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        for (val line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            val fields = line.split("\t");
+            if (fields.length == 3) {
+                results.computeIfAbsent(fields[0], k -> new LinkedHashMap<>()).put(fields[1], Double.parseDouble(fields[2]));
+            }
+        }
+        return results;
+    }
+
+    private static void checkAgainstBaseline(final Map<String, Map<String, Double>> baseline,
+                                             final Map<String, Map<String, Double>> results,
+                                             final double tolerance) {
+        val regressions = new ArrayList<String>();
+        results.forEach((action, metrics) -> {
+            if (!action.endsWith(END_TO_END_SUFFIX) || !baseline.containsKey(action)) {
+                return;
+            }
+            for (val metric : GATED_METRICS) {
+                val before = baseline.get(action).get(metric);
+                val after = metrics.get(metric);
+                if (before != null && after != null && after > before * (1 + tolerance)) {
+                    regressions.add(String.format("%s %s: %.1f -> %.1f", action, metric, before, after));
+                }
+            }
+        });
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("Cold start regressed beyond " + tolerance * 100 + "%: " + regressions);
+        }
+        System.out.println("No cold start regression against the baseline beyond " + tolerance * 100 + "%");
+    }
+}
@@ -0,0 +1,136 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import lombok.val;
+import software.amazon.cloudformation.resource.Serializer;
+
+/**
+ * Runs inside a JVM forked by {@link ColdStartHarness} with only the shaded handler jar and this probe on the class
+ * path, and invokes one action through the HandlerWrapper the way Lambda does.
+ *
+ * With phases enabled (the default) the work of a first invocation is split up and timed step by step before the
+ * entry point is called: HandlerWrapper construction, resource schema load, Firehose client construction and model
+ * translation. Each of those is a one-time cost, so whatever the entry point still takes afterwards is the API calls
+ * plus request and response handling. With {@code -Dbenchmark.phases=false} the entry point is called straight after
+ * construction, which gives the undisturbed time to the first ProgressEvent.
+ */
+final class ColdStartProbe {
+    static final String ENTRYPOINT_PROPERTY = "benchmark.entrypoint";
+    static final String PHASES_PROPERTY = "benchmark.phases";
+    static final String HANDLE_REQUEST = "handleRequest";
+    static final String TEST_ENTRYPOINT = "testEntrypoint";
+    static final String DELIVERY_STREAM_NAME = "stub-stream";
+    private static final String MODEL = "{"
+        + "\"DeliveryStreamName\":\"" + DELIVERY_STREAM_NAME + "\","
+        + "\"DeliveryStreamType\":\"DirectPut\","
+        + "\"ExtendedS3DestinationConfiguration\":{"
+        + "\"BucketARN\":\"arn:aws:s3:::stub\","
+        + "\"RoleARN\":\"arn:aws:iam::123456789012:role/stub\","
+        + "\"Prefix\":\"data/\","
+        + "\"ErrorOutputPrefix\":\"error_prefix\","
+        + "\"CompressionFormat\":\"UNCOMPRESSED\","
+        + "\"BufferingHints\":{\"IntervalInSeconds\":300,\"SizeInMBs\":5}}}";
+    private static final String CREDENTIALS = "{\"accessKeyId\":\"AKIDSTUB\",\"secretAccessKey\":\"stub-secret\","
+        + "\"sessionToken\":\"stub-token\"}";
+
+    private static long measurementNanos;
+
+    private ColdStartProbe() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        val action = args[0];
+        val phases = Boolean.parseBoolean(System.getProperty(PHASES_PROPERTY, "true"));
+        val entrypoint = System.getProperty(ENTRYPOINT_PROPERTY, HANDLE_REQUEST);
+        val jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        ForkedJvm.report("jvmStartToMainMillis", System.currentTimeMillis() - jvmStartMillis);
+
+        long start = System.nanoTime();
+        val wrapper = new HandlerWrapper();
+        ForkedJvm.report("wrapperInitMillis", millisSince(start));
+        ForkedJvm.report("heapAfterInitMb", heapAfterGcMb());
+
+        if (phases) {
+            start = System.nanoTime();
+            wrapper.provideResourceSchemaJSONObject();
+            ForkedJvm.report("schemaLoadMillis", millisSince(start));
+
+            start = System.nanoTime();
+            FirehoseClientProvider.getClient();
+            ForkedJvm.report("clientConstructionMillis", millisSince(start));
+
+            start = System.nanoTime();
+            val model = new Serializer().deserialize(MODEL, new TypeReference<ResourceModel>() {});
+            CreateHandler.buildCreateDeliveryStreamRequest(model);
+            ForkedJvm.report("translationMillis", millisSince(start));
+        }
+
+        val input = TEST_ENTRYPOINT.equals(entrypoint) ? testPayload(action) : handlerRequest(action, MODEL, MODEL);
+        val output = new ByteArrayOutputStream();
+        start = System.nanoTime();
+        if (TEST_ENTRYPOINT.equals(entrypoint)) {
+            wrapper.testEntrypoint(new ByteArrayInputStream(input), output, new BenchmarkLambdaContext());
+        } else {
+            wrapper.handleRequest(new ByteArrayInputStream(input), output, new BenchmarkLambdaContext());
+        }
+        val firstProgressEvent = System.currentTimeMillis();
+        ForkedJvm.report("invocationMillis", millisSince(start));
+        ForkedJvm.report("timeToFirstProgressEventMillis", firstProgressEvent - jvmStartMillis - measurementNanos / 1_000_000);
+        ForkedJvm.report("loadedClasses", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+        ForkedJvm.report("heapAfterInvocationMb", heapAfterGcMb());
+
+        val response = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        if (response.contains("\"FAILED\"")) {
+            throw new IllegalStateException(action + " returned a failure: " + response);
+        }
+    }
+
+    /**
+     * Builds the request CloudFormation sends to {@code handleRequest} for {@code action} on the given models.
+     */
+    static byte[] handlerRequest(final String action, final String model, final String previousModel) {
+        return ("{"
+            + "\"action\":\"" + action + "\","
+            + "\"awsAccountId\":\"123456789012\","
+            + "\"bearerToken\":\"stub-token\","
+            + "\"region\":\"us-east-1\","
+            + "\"resourceType\":\"AWS::KinesisFirehose::DeliveryStream\","
+            + "\"resourceTypeVersion\":\"00000001\","
+            + "\"stackId\":\"arn:aws:cloudformation:us-east-1:123456789012:stack/stub/00000000-0000-0000-0000-000000000000\","
+            + "\"requestData\":{"
+            + "\"callerCredentials\":" + CREDENTIALS + ","
+            + "\"logicalResourceId\":\"StubDeliveryStream\","
+            + "\"resourceProperties\":" + model + ","
+            + "\"previousResourceProperties\":" + previousModel + ","
+            + "\"systemTags\":{},\"stackTags\":{}},"
+            + "\"callbackContext\":null}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] testPayload(final String action) {
+        return ("{"
+            + "\"credentials\":" + CREDENTIALS + ","
+            + "\"action\":\"" + action + "\","
+            + "\"request\":{"
+            + "\"clientRequestToken\":\"00000000-0000-0000-0000-000000000000\","
+            + "\"logicalResourceIdentifier\":\"StubDeliveryStream\","
+            + "\"desiredResourceState\":" + MODEL + ","
+            + "\"previousResourceState\":" + MODEL + "},"
+            + "\"callbackContext\":null}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static double millisSince(final long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e6;
+    }
+
+    // The forced GC is measurement overhead, so it is left out of the time to the first ProgressEvent.
+    private static double heapAfterGcMb() {
+        val start = System.nanoTime();
+        val heap = SharedClientColdStartBenchmark.usedHeapAfterGc() / (1024.0 * 1024.0);
+        measurementNanos += System.nanoTime() - start;
+        return heap;
+    }
+}
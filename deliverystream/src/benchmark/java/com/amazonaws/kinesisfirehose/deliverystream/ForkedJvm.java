@@ -0,0 +1,104 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.val;
+
+/**
+ * Runs a benchmark probe in a brand new JVM so every sample is a real cold start, and collects the metrics the probe
+ * reports on stdout as {@code METRIC name=value} lines.
+ */
+final class ForkedJvm {
+    static final String METRIC_PREFIX = "METRIC ";
+
+    private ForkedJvm() {
+    }
+
+    static Map<String, Double> run(final String classPath,
+                                   final List<String> jvmArgs,
+                                   final Map<String, String> environment,
+                                   final String mainClass,
+                                   final String... args) throws IOException, InterruptedException {
+        val command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(mainClass);
+        command.addAll(Arrays.asList(args));
+
+        val processBuilder = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT);
+        processBuilder.environment().putAll(environment);
+        val process = processBuilder.start();
+        val metrics = new LinkedHashMap<String, Double>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(METRIC_PREFIX)) {
+                    val metric = line.substring(METRIC_PREFIX.length()).split("=", 2);
+                    metrics.put(metric[0], Double.parseDouble(metric[1]));
+                }
+            }
+        }
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.format("Forked JVM %s exited with status %d", mainClass, process.exitValue()));
+        }
+        return metrics;
+    }
+
+    static Map<String, Double> run(final Class<?> mainClass,
+                                   final Map<String, String> environment,
+                                   final String... args) throws IOException, InterruptedException {
+        return run(System.getProperty("java.class.path"), new ArrayList<>(), environment, mainClass.getName(), args);
+    }
+
+    /**
+     * Called from inside the forked JVM to hand a measurement back to the parent.
+     */
+    static void report(final String name, final double value) {
+        System.out.println(METRIC_PREFIX + name + "=" + value);
+    }
+
+    /**
+     * Runs the probe {@code forks} times and returns the median of every metric it reported.
+     */
+    static Map<String, Double> median(final int forks, final Forkable probe) throws IOException, InterruptedException {
+        val samples = new LinkedHashMap<String, List<Double>>();
+        for (int i = 0; i < forks; i++) {
+            for (val metric : probe.fork().entrySet()) {
+                samples.computeIfAbsent(metric.getKey(), k -> new ArrayList<>()).add(metric.getValue());
+            }
+        }
+        val medians = new LinkedHashMap<String, Double>();
+        samples.forEach((name, values) -> {
+            values.sort(Double::compare);
+            medians.put(name, values.get(values.size() / 2));
+        });
+        return medians;
+    }
+
+    static int forks() {
+        return Integer.getInteger("benchmark.forks", 5);
+    }
+
+    static void printTable(final String title, final Map<String, Map<String, Double>> resultsByVariant) {
+        System.out.println();
+        System.out.println(title);
+        resultsByVariant.forEach((variant, metrics) -> {
+            System.out.println("  " + variant);
+            metrics.forEach((name, value) -> System.out.println(String.format("    %-32s %12.2f", name, value)));
+        });
+    }
+
+    interface Forkable {
+        Map<String, Double> fork() throws IOException, InterruptedException;
+    }
+}
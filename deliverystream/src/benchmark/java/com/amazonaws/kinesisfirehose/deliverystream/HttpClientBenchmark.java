@@ -0,0 +1,86 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.amazonaws.kinesisfirehose.deliverystream.FirehoseClientProvider.HttpClientType;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.val;
+import software.amazon.awssdk.services.firehose.FirehoseClient;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamRequest;
+
+/**
+ * Compares the HTTP transports {@link FirehoseClientProvider} can build. Every sample starts a fresh JVM with a
+ * {@link StubFirehoseEndpoint} on loopback and measures the cold path (building the client and making the first
+ * DescribeDeliveryStream call) and then the warm per-call latency over a run of further calls on the same client.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@benchmark -Dbenchmark.class=HttpClientBenchmark}.
+ */
+public class HttpClientBenchmark {
+    // FirehoseClient.create() as the handlers used before the transport became configurable.
+    private static final String SDK_DEFAULT = "SDK_DEFAULT";
+    private static final int WARM_CALLS = 200;
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 1) {
+            probe(args[0]);
+            return;
+        }
+        val variants = new ArrayList<String>();
+        variants.add(SDK_DEFAULT);
+        for (val httpClientType : HttpClientType.values()) {
+            variants.add(httpClientType.name());
+        }
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        for (val variant : variants) {
+            try {
+                results.put(variant, ForkedJvm.median(ForkedJvm.forks(),
+                    () -> ForkedJvm.run(HttpClientBenchmark.class, Collections.emptyMap(), variant)));
+            } catch (IllegalStateException e) {
+                // e.g. a transport whose artifact is not on the classpath of this build.
+                System.err.println("Skipping " + variant + ": " + e.getMessage());
+            }
+        }
+        ForkedJvm.printTable("Firehose HTTP transports against a loopback endpoint (median of " + ForkedJvm.forks() + " fresh JVMs)", results);
+    }
+
+    private static void probe(final String variant) throws Exception {
+        try (StubFirehoseEndpoint endpoint = StubFirehoseEndpoint.start()) {
+            endpoint.configureSdk();
+            val request = DescribeDeliveryStreamRequest.builder().deliveryStreamName("stub-stream").build();
+
+            val start = System.nanoTime();
+            final FirehoseClient client;
+            if (SDK_DEFAULT.equals(variant)) {
+                client = FirehoseClient.builder().endpointOverride(URI.create(endpoint.uri())).build();
+            } else {
+                System.setProperty(FirehoseClientProvider.HTTP_CLIENT_SETTING, variant);
+                client = FirehoseClientProvider.getClient();
+            }
+            val clientBuilt = System.nanoTime();
+            client.describeDeliveryStream(request);
+            val firstCallDone = System.nanoTime();
+            val loadedClassesAfterFirstCall = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+
+            val latencies = new long[WARM_CALLS];
+            for (int i = 0; i < WARM_CALLS; i++) {
+                val callStart = System.nanoTime();
+                client.describeDeliveryStream(request);
+                latencies[i] = System.nanoTime() - callStart;
+            }
+            Arrays.sort(latencies);
+
+            ForkedJvm.report("clientBuildMillis", (clientBuilt - start) / 1e6);
+            ForkedJvm.report("firstCallMillis", (firstCallDone - clientBuilt) / 1e6);
+            ForkedJvm.report("coldPathMillis", (firstCallDone - start) / 1e6);
+            ForkedJvm.report("loadedClasses", loadedClassesAfterFirstCall);
+            ForkedJvm.report("warmCallP50Micros", latencies[WARM_CALLS / 2] / 1e3);
+            ForkedJvm.report("warmCallP99Micros", latencies[WARM_CALLS * 99 / 100] / 1e3);
+            ForkedJvm.report("connectionsOpened", endpoint.connectionsOpened());
+            ForkedJvm.report("heapUsedMb", SharedClientColdStartBenchmark.usedHeapAfterGc() / (1024.0 * 1024.0));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.val;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.resource.Serializer;
+
+/**
+ * Measures first-invocation latency with and without {@link HandlerPrimer}. Each sample is a fresh JVM talking to a
+ * {@link StubFirehoseEndpoint}; the primed variant pays for priming up front (what the Lambda init phase, or the
+ * SnapStart checkpoint, would absorb) and then both variants run the same Update and Read invocations.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@benchmark -Dbenchmark.class=PrimingBenchmark}.
+ */
+public class PrimingBenchmark {
+    private static final String UNPRIMED = "unprimed";
+    private static final String PRIMED = "primed";
+    private static final TypeReference<ResourceModel> MODEL_TYPE = new TypeReference<ResourceModel>() {};
+    private static final ResourceModel MODEL = ResourceModel.builder()
+        .deliveryStreamName(DeliveryStreamTestHelper.DELIVERY_STREAM_NAME)
+        .extendedS3DestinationConfiguration(DeliveryStreamTestHelper.EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+        .build();
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 1) {
+            probe(PRIMED.equals(args[0]));
+            return;
+        }
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        for (val variant : new String[] {UNPRIMED, PRIMED}) {
+            results.put(variant, ForkedJvm.median(ForkedJvm.forks(),
+                () -> ForkedJvm.run(PrimingBenchmark.class, Collections.emptyMap(), variant)));
+        }
+        ForkedJvm.printTable("First invocation latency (median of " + ForkedJvm.forks() + " fresh JVMs)", results);
+    }
+
+    private static void probe(final boolean primed) throws Exception {
+        try (StubFirehoseEndpoint endpoint = StubFirehoseEndpoint.start()) {
+            endpoint.configureSdk();
+            endpoint.respond("DescribeDeliveryStream",
+                new String(HandlerPrimer.loadDescribeResponses().get("ExtendedS3"), StandardCharsets.UTF_8));
+
+            val initStart = System.nanoTime();
+            if (primed) {
+                HandlerPrimer.prime();
+            }
+            val initDone = System.nanoTime();
+
+            val serializer = new Serializer();
+            val proxy = new AmazonWebServicesClientProxy(new LoggerProxy(),
+                new Credentials("AKIDSTUB", "stub-secret", "stub-token"), () -> 900_000L);
+            val update = time(() -> invoke(serializer, proxy, new UpdateHandler()));
+            val read = time(() -> invoke(serializer, proxy, new ReadHandler()));
+            val warmUpdate = time(() -> invoke(serializer, proxy, new UpdateHandler()));
+
+            ForkedJvm.report("primingMillis", (initDone - initStart) / 1e6);
+            ForkedJvm.report("firstInvocationMillis", update);
+            ForkedJvm.report("secondInvocationMillis", read);
+            ForkedJvm.report("warmInvocationMillis", warmUpdate);
+            ForkedJvm.report("primingPlusFirstInvocationMillis", (initDone - initStart) / 1e6 + update);
+        }
+    }
+
+    /**
+     * One handler invocation the way the wrapper runs it: the model arrives as JSON, and the progress event is
+     * serialized back.
+     */
+    private static void invoke(final Serializer serializer,
+                               final AmazonWebServicesClientProxy proxy,
+                               final BaseHandler<CallbackContext> handler) throws Exception {
+        val model = serializer.deserialize(serializer.serialize(MODEL), MODEL_TYPE);
+        val request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(model)
+            .build();
+        val event = handler.handleRequest(proxy, request, null, new LoggerProxy());
+        if (!event.isSuccess()) {
+            throw new IllegalStateException(handler.getClass().getSimpleName() + " failed: " + event.getMessage());
+        }
+        serializer.serialize(event);
+    }
+
+    private static double time(final Invocation invocation) throws Exception {
+        val start = System.nanoTime();
+        invocation.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private interface Invocation {
+        void run() throws Exception;
+    }
+}
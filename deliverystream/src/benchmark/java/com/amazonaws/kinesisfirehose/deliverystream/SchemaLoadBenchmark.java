@@ -0,0 +1,51 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.val;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Measures what the resource schema costs a cold start. The eager variant parses the complete schema file while the
+ * HandlerWrapper is constructed, and holds it from then on. The lazy variant is what {@link Configuration} does: init
+ * leaves the schema alone, and only an action that validates its model or returns a final model pays for parsing it.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@benchmark -Dbenchmark.class=SchemaLoadBenchmark}.
+ */
+public class SchemaLoadBenchmark {
+    private static final String EAGER = "eager";
+    private static final String LAZY = "lazy";
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 1) {
+            probe(EAGER.equals(args[0]));
+            return;
+        }
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        for (val variant : new String[] {EAGER, LAZY}) {
+            results.put(variant, ForkedJvm.median(ForkedJvm.forks(),
+                () -> ForkedJvm.run(SchemaLoadBenchmark.class, Collections.emptyMap(), variant)));
+        }
+        ForkedJvm.printTable("Resource schema on cold start (median of " + ForkedJvm.forks() + " fresh JVMs)", results);
+    }
+
+    private static void probe(final boolean eager) {
+        long start = System.nanoTime();
+        val wrapper = new HandlerWrapper();
+        final JSONObject eagerSchema = eager ? new JSONObject(new JSONTokener(
+            SchemaLoadBenchmark.class.getClassLoader().getResourceAsStream(Configuration.SCHEMA_FILENAME))) : null;
+        ForkedJvm.report("initMillis", (System.nanoTime() - start) / 1e6);
+        ForkedJvm.report("heapAfterInitMb", SharedClientColdStartBenchmark.usedHeapAfterGc() / (1024.0 * 1024.0));
+
+        // What the first Create or Update pays on top, when the wrapper validates the model. Read, Delete and List
+        // only get here if they return a model.
+        start = System.nanoTime();
+        val schema = eager ? eagerSchema : wrapper.provideResourceSchemaJSONObject();
+        ForkedJvm.report("firstSchemaUseMillis", (System.nanoTime() - start) / 1e6);
+        ForkedJvm.report("heapAfterFirstUseMb", SharedClientColdStartBenchmark.usedHeapAfterGc() / (1024.0 * 1024.0));
+        // Reported last so the schema stays reachable while the heap is measured.
+        ForkedJvm.report("schemaKeys", schema.length());
+    }
+}
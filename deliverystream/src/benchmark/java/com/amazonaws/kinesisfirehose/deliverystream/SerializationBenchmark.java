@@ -0,0 +1,156 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.BACKUP_MODE;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.BUCKET_ARN;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.BUFFERING_HINTS;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.CLOUD_WATCH_LOGGING_OPTIONS;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.COMPRESSION_FORMAT;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.DATA_FORMAT_CONVERSION_CONFIGURATION;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.DELIVERY_STREAM_KEY_ARN;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.DELIVERY_STREAM_KEY_TYPE;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.DELIVERY_STREAM_NAME;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.ELASTICSEARCH_DESTINATION_CONFIGURATION_VPC;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.ENCRYPTION_CONFIGURATION;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.ERROR_OUTPUT_PREFIX;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.HTTP_ENDPOINT_DESTINATION_CONFIGURATION;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.PREFIX;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.REDSHIFT_DESTINATION_CONFIGURATION;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.ROLE_ARN;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.S3_DESTINATION_CONFIG_FULL;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.SPLUNK_CONFIGURATION_FULL;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.val;
+import software.amazon.cloudformation.proxy.HandlerRequest;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.resource.Serializer;
+
+/**
+ * Measures the JSON work the HandlerWrapper does around every invocation, over representative models built from the
+ * {@link DeliveryStreamTestHelper} fixtures: deserializing the HandlerRequest with its ResourceModel and
+ * CallbackContext, the strict re-read of the model that schema validation and response sanitizing do, and serializing
+ * the ProgressEvent.
+ *
+ * Each sample is a fresh JVM. The first envelope is timed on its own, since that is where Jackson builds its
+ * (de)serializers, and then the per-envelope cost once they are cached. The primed variant runs
+ * {@link HandlerPrimer#prime()} first, as FIREHOSE_PRIMING does during init.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@benchmark -Dbenchmark.class=SerializationBenchmark}.
+ */
+public class SerializationBenchmark {
+    private static final String UNPRIMED = "unprimed";
+    private static final String PRIMED = "primed";
+    private static final int WARM_ITERATIONS = 2_000;
+    // The type references the generated HandlerWrapper hands to the Serializer.
+    private static final TypeReference<HandlerRequest<ResourceModel, CallbackContext>> REQUEST_TYPE =
+        new TypeReference<HandlerRequest<ResourceModel, CallbackContext>>() {};
+    private static final TypeReference<ResourceModel> MODEL_TYPE = new TypeReference<ResourceModel>() {};
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 1) {
+            probe(PRIMED.equals(args[0]));
+            return;
+        }
+        // Priming ends by building the shared client, which needs a region.
+        val environment = Collections.singletonMap("AWS_REGION", System.getenv().getOrDefault("AWS_REGION", "us-east-1"));
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        for (val variant : new String[] {UNPRIMED, PRIMED}) {
+            results.put(variant, ForkedJvm.median(ForkedJvm.forks(),
+                () -> ForkedJvm.run(SerializationBenchmark.class, environment, variant)));
+        }
+        ForkedJvm.printTable("Invocation envelope (de)serialization (median of " + ForkedJvm.forks() + " fresh JVMs)", results);
+    }
+
+    private static void probe(final boolean primed) throws Exception {
+        // Rendered with a mapper of its own so that building the inputs leaves the Serializer's caches cold.
+        val plainMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        val requests = new ArrayList<String>();
+        val modelsJson = new ArrayList<String>();
+        for (val model : models()) {
+            val modelJson = plainMapper.writeValueAsString(model);
+            modelsJson.add(modelJson);
+            requests.add(new String(ColdStartProbe.handlerRequest("UPDATE", modelJson, modelJson), StandardCharsets.UTF_8)
+                .replace("\"callbackContext\":null", "\"callbackContext\":" + plainMapper.writeValueAsString(callbackContext())));
+        }
+
+        if (primed) {
+            HandlerPrimer.prime();
+        }
+        val serializer = new Serializer();
+        long start = System.nanoTime();
+        val request = serializer.deserialize(requests.get(0), REQUEST_TYPE);
+        ForkedJvm.report("firstRequestDeserializeMillis", millisSince(start));
+        start = System.nanoTime();
+        serializer.deserializeStrict(modelsJson.get(0), MODEL_TYPE);
+        ForkedJvm.report("firstStrictModelDeserializeMillis", millisSince(start));
+        start = System.nanoTime();
+        serializer.serialize(progressEvent(request));
+        ForkedJvm.report("firstProgressEventSerializeMillis", millisSince(start));
+
+        start = System.nanoTime();
+        for (int i = 0; i < WARM_ITERATIONS; i++) {
+            val index = i % requests.size();
+            val warmRequest = serializer.deserialize(requests.get(index), REQUEST_TYPE);
+            serializer.deserializeStrict(modelsJson.get(index), MODEL_TYPE);
+            serializer.serialize(progressEvent(warmRequest));
+        }
+        ForkedJvm.report("warmEnvelopeMicros", (System.nanoTime() - start) / 1e3 / WARM_ITERATIONS);
+    }
+
+    private static ProgressEvent<ResourceModel, CallbackContext> progressEvent(final HandlerRequest<ResourceModel, CallbackContext> request) {
+        return ProgressEvent.defaultInProgressHandler(request.getCallbackContext(), 30, request.getRequestData().getResourceProperties());
+    }
+
+    private static CallbackContext callbackContext() {
+        return CallbackContext.builder()
+            .stabilizationRetriesRemaining(StabilizationProfile.STANDARD.schedule().pollBudget())
+            .deliveryStreamStatus("CREATING")
+            .deliveryStreamEncryptionStatus("ENABLING")
+            .build();
+    }
+
+    /**
+     * One model per destination type, the Extended S3 one with data format conversion and a Lambda processor.
+     */
+    static List<ResourceModel> models() {
+        val processors = new ProcessingConfiguration(true, Arrays.asList(Processor.builder()
+            .type("Lambda")
+            .parameters(Arrays.asList(
+                ProcessorParameter.builder().parameterName("LambdaArn").parameterValue("arn:aws:lambda:us-east-1:123456789012:function:f").build(),
+                ProcessorParameter.builder().parameterName("NumberOfRetries").parameterValue("3").build(),
+                ProcessorParameter.builder().parameterName("BufferSizeInMBs").parameterValue("3").build()))
+            .build()));
+        val extendedS3 = new ExtendedS3DestinationConfiguration(BUCKET_ARN, BUFFERING_HINTS, CLOUD_WATCH_LOGGING_OPTIONS,
+            COMPRESSION_FORMAT, DATA_FORMAT_CONVERSION_CONFIGURATION, ENCRYPTION_CONFIGURATION, ERROR_OUTPUT_PREFIX, PREFIX,
+            processors, ROLE_ARN, S3_DESTINATION_CONFIG_FULL, BACKUP_MODE);
+        val tags = Arrays.asList(Tag.builder().key("team").value("ingest").build(),
+            Tag.builder().key("stage").value("prod").build());
+        return Arrays.asList(
+            model().extendedS3DestinationConfiguration(extendedS3).tags(tags).build(),
+            model().elasticsearchDestinationConfiguration(ELASTICSEARCH_DESTINATION_CONFIGURATION_VPC).tags(tags).build(),
+            model().redshiftDestinationConfiguration(REDSHIFT_DESTINATION_CONFIGURATION).tags(tags).build(),
+            model().splunkDestinationConfiguration(SPLUNK_CONFIGURATION_FULL).tags(tags).build(),
+            model().httpEndpointDestinationConfiguration(HTTP_ENDPOINT_DESTINATION_CONFIGURATION).tags(tags).build());
+    }
+
+    private static ResourceModel.ResourceModelBuilder model() {
+        return ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .deliveryStreamType("DirectPut")
+            .deliveryStreamEncryptionConfigurationInput(new DeliveryStreamEncryptionConfigurationInput(
+                DELIVERY_STREAM_KEY_ARN, DELIVERY_STREAM_KEY_TYPE));
+    }
+
+    private static double millisSince(final long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e6;
+    }
+}
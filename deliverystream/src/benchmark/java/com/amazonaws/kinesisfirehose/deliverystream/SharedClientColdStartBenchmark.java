@@ -0,0 +1,74 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.val;
+import software.amazon.awssdk.services.firehose.FirehoseClient;
+
+/**
+ * Compares the cold start of building a FirehoseClient in every handler (what the HandlerWrapper used to pay for when
+ * each handler owned its client) against the shared, lazily built client from {@link FirehoseClientProvider}.
+ *
+ * Every sample runs in a fresh JVM. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec@benchmark -Dbenchmark.class=SharedClientColdStartBenchmark}.
+ */
+public class SharedClientColdStartBenchmark {
+    private static final String PER_HANDLER_CLIENTS = "per-handler-clients";
+    private static final String SHARED_LAZY_CLIENT = "shared-lazy-client";
+    private static final int NUMBER_OF_HANDLERS = 5;
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 1) {
+            probe(args[0]);
+            return;
+        }
+        val environment = Collections.singletonMap("AWS_REGION", System.getenv().getOrDefault("AWS_REGION", "us-east-1"));
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        for (val variant : new String[] {PER_HANDLER_CLIENTS, SHARED_LAZY_CLIENT}) {
+            results.put(variant, ForkedJvm.median(ForkedJvm.forks(),
+                () -> ForkedJvm.run(SharedClientColdStartBenchmark.class, environment, variant)));
+        }
+        ForkedJvm.printTable("FirehoseClient construction on cold start (median of " + ForkedJvm.forks() + " fresh JVMs)", results);
+    }
+
+    private static void probe(final String variant) {
+        val start = System.nanoTime();
+        val handlers = new ArrayList<BaseHandler<CallbackContext>>();
+        handlers.add(new CreateHandler());
+        handlers.add(new ReadHandler());
+        handlers.add(new UpdateHandler());
+        handlers.add(new DeleteHandler());
+        handlers.add(new ListHandler());
+
+        val clients = new ArrayList<FirehoseClient>();
+        if (PER_HANDLER_CLIENTS.equals(variant)) {
+            for (int i = 0; i < NUMBER_OF_HANDLERS; i++) {
+                clients.add(FirehoseClient.create());
+            }
+        }
+        val handlersInitialized = System.nanoTime();
+        if (SHARED_LAZY_CLIENT.equals(variant)) {
+            // What the first API call through FirehoseAPIWrapper triggers.
+            clients.add(FirehoseClientProvider.getClient());
+        }
+        val firstCallReady = System.nanoTime();
+
+        ForkedJvm.report("handlerInitMillis", (handlersInitialized - start) / 1e6);
+        ForkedJvm.report("readyForFirstCallMillis", (firstCallReady - start) / 1e6);
+        ForkedJvm.report("jvmUptimeMillis", ManagementFactory.getRuntimeMXBean().getUptime());
+        ForkedJvm.report("loadedClasses", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+        ForkedJvm.report("heapUsedMb", usedHeapAfterGc() / (1024.0 * 1024.0));
+        // Reported last so the handlers and clients stay reachable while the heap is measured.
+        ForkedJvm.report("handlers", handlers.size());
+        ForkedJvm.report("firehoseClients", clients.size());
+    }
+
+    static long usedHeapAfterGc() {
+        System.gc();
+        val runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
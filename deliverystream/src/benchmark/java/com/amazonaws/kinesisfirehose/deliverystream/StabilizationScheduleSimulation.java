@@ -0,0 +1,73 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+import lombok.val;
+
+/**
+ * Simulates how long a stack waits on a delivery stream create, with the fixed 30 second callback delay the handlers
+ * used first, with one adaptive schedule for every stream, and with the schedule of the {@link StabilizationProfile}
+ * each stream gets. For each destination type the stream is assumed to turn ACTIVE a fixed time after
+ * CreateDeliveryStream; the handler sees it on the first poll at or after that time. Reported per destination type are
+ * the seconds until CloudFormation sees the stream ACTIVE and the DescribeDeliveryStream calls it took, plus the totals
+ * for a stack with one stream of each type created one after the other.
+ *
+ * The ready times are typical figures rather than guarantees, and ignore the time each callback spends queued and
+ * running. Run with {@code mvn -Pbenchmark test-compile exec:exec@benchmark -Dbenchmark.class=StabilizationScheduleSimulation}.
+ */
+public class StabilizationScheduleSimulation {
+    private static final int FIXED_DELAY_SECONDS = 30;
+
+    public static void main(final String[] args) {
+        val readySeconds = new LinkedHashMap<String, Long>();
+        val profiles = new LinkedHashMap<String, StabilizationProfile>();
+        destination(readySeconds, profiles, "s3", 12L, StabilizationProfile.FAST);
+        destination(readySeconds, profiles, "extendedS3", 18L, StabilizationProfile.FAST);
+        destination(readySeconds, profiles, "kinesisSource", 37L, StabilizationProfile.STANDARD);
+        destination(readySeconds, profiles, "splunk", 48L, StabilizationProfile.FAST);
+        destination(readySeconds, profiles, "httpEndpoint", 52L, StabilizationProfile.FAST);
+        destination(readySeconds, profiles, "redshift", 64L, StabilizationProfile.FAST);
+        destination(readySeconds, profiles, "elasticsearch", 95L, StabilizationProfile.STANDARD);
+        destination(readySeconds, profiles, "elasticsearchVpc", 870L, StabilizationProfile.SLOW);
+
+        val results = new LinkedHashMap<String, Map<String, Double>>();
+        results.put("fixed30s", simulate(readySeconds, destination -> (elapsed, poll) -> FIXED_DELAY_SECONDS));
+        results.put("adaptive", simulate(readySeconds, destination -> StabilizationProfile.FAST.schedule()::delaySeconds));
+        results.put("profiled", simulate(readySeconds, destination -> profiles.get(destination).schedule()::delaySeconds));
+        ForkedJvm.printTable("Create stabilization, seconds until ACTIVE is seen and describe calls", results);
+    }
+
+    private static void destination(final Map<String, Long> readySeconds,
+                                    final Map<String, StabilizationProfile> profiles,
+                                    final String name,
+                                    final long ready,
+                                    final StabilizationProfile profile) {
+        readySeconds.put(name, ready);
+        profiles.put(name, profile);
+    }
+
+    private static Map<String, Double> simulate(final Map<String, Long> readySeconds,
+                                                final Function<String, ToIntBiFunction<Long, Integer>> schedules) {
+        val metrics = new LinkedHashMap<String, Double>();
+        long stackSeconds = 0;
+        long stackPolls = 0;
+        for (val destination : readySeconds.entrySet()) {
+            val schedule = schedules.apply(destination.getKey());
+            long elapsed = 0;
+            int polls = 0;
+            while (elapsed < destination.getValue()) {
+                elapsed += schedule.applyAsInt(elapsed, polls);
+                polls++;
+            }
+            metrics.put(destination.getKey() + "Seconds", (double) elapsed);
+            metrics.put(destination.getKey() + "Polls", (double) polls);
+            stackSeconds += elapsed;
+            stackPolls += polls;
+        }
+        metrics.put("stackSeconds", (double) stackSeconds);
+        metrics.put("stackPolls", (double) stackPolls);
+        return metrics;
+    }
+}
@@ -0,0 +1,177 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+
+/**
+ * A loopback Firehose endpoint for benchmarks. It answers the JSON 1.1 protocol the SDK speaks, dispatching on the
+ * {@code X-Amz-Target} header, with canned responses so the numbers measure the client side only. Every operation
+ * succeeds with an empty body unless a response has been registered for it, and DescribeDeliveryStream returns an
+ * ACTIVE stream by default. One-off responses, including service errors, can be queued ahead of the defaults to script
+ * a multi-call flow such as create or delete.
+ */
+final class StubFirehoseEndpoint implements AutoCloseable {
+    private static final String TARGET_HEADER = "X-Amz-Target";
+    private static final String TARGET_PREFIX = "Firehose_20150804.";
+    private static final String CONTENT_TYPE = "application/x-amz-json-1.1";
+    static final String ACTIVE_DELIVERY_STREAM = "{\"DeliveryStreamDescription\":{"
+        + "\"DeliveryStreamName\":\"stub-stream\","
+        + "\"DeliveryStreamARN\":\"arn:aws:firehose:us-east-1:123456789012:deliverystream/stub-stream\","
+        + "\"DeliveryStreamStatus\":\"ACTIVE\","
+        + "\"DeliveryStreamType\":\"DirectPut\","
+        + "\"VersionId\":\"1\","
+        + "\"Destinations\":[],"
+        + "\"HasMoreDestinations\":false}}";
+
+    private final HttpServer server;
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Response>> queued = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private StubFirehoseEndpoint(final HttpServer server) {
+        this.server = server;
+        reset();
+        server.createContext("/", this::handle);
+    }
+
+    static StubFirehoseEndpoint start() throws IOException {
+        // Without TCP_NODELAY the JDK server's separate header and body writes hit the delayed-ACK timer and every
+        // call measures ~40ms of loopback stall instead of the client.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        val server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            val thread = new Thread(runnable, "stub-firehose-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        val endpoint = new StubFirehoseEndpoint(server);
+        server.start();
+        return endpoint;
+    }
+
+    String uri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Replaces the canned JSON body returned for {@code operation}, e.g. {@code "DescribeDeliveryStream"}.
+     */
+    StubFirehoseEndpoint respond(final String operation, final String body) {
+        responses.put(operation, body);
+        return this;
+    }
+
+    /**
+     * Queues a one-off response for the next {@code operation} call, ahead of its canned response.
+     */
+    StubFirehoseEndpoint enqueue(final String operation, final int status, final String body) {
+        queued.computeIfAbsent(operation, k -> new ConcurrentLinkedQueue<>()).add(new Response(status, body));
+        return this;
+    }
+
+    /**
+     * Queues the error the service returns for a delivery stream that does not exist.
+     */
+    StubFirehoseEndpoint enqueueNotFound(final String operation) {
+        return enqueue(operation, 400,
+            "{\"__type\":\"ResourceNotFoundException\",\"message\":\"Firehose stub-stream not found.\"}");
+    }
+
+    /**
+     * Restores the default responses and clears queued responses and call counts.
+     */
+    void reset() {
+        responses.clear();
+        queued.clear();
+        calls.clear();
+        clientPorts.clear();
+        responses.put("DescribeDeliveryStream", ACTIVE_DELIVERY_STREAM);
+        responses.put("ListTagsForDeliveryStream", "{\"Tags\":[],\"HasMoreTags\":false}");
+        responses.put("ListDeliveryStreams", "{\"DeliveryStreamNames\":[],\"HasMoreDeliveryStreams\":false}");
+    }
+
+    int calls(final String operation) {
+        val count = calls.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Number of distinct TCP connections the clients opened, which shows whether connections are being reused.
+     */
+    int connectionsOpened() {
+        return clientPorts.size();
+    }
+
+    Map<String, Integer> calls() {
+        val snapshot = new HashMap<String, Integer>();
+        calls.forEach((operation, count) -> snapshot.put(operation, count.get()));
+        return snapshot;
+    }
+
+    /**
+     * Points the SDK at this endpoint with static dummy credentials. The settings are system properties so they only
+     * affect the current JVM.
+     */
+    void configureSdk() {
+        System.setProperty(FirehoseClientProvider.ENDPOINT_OVERRIDE_SETTING, uri());
+        System.setProperty("aws.region", "us-east-1");
+        System.setProperty("aws.accessKeyId", "AKIDSTUB");
+        System.setProperty("aws.secretAccessKey", "stub-secret");
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        drain(exchange.getRequestBody());
+        val target = exchange.getRequestHeaders().getFirst(TARGET_HEADER);
+        val operation = target != null && target.startsWith(TARGET_PREFIX) ? target.substring(TARGET_PREFIX.length()) : "";
+        calls.computeIfAbsent(operation, k -> new AtomicInteger()).incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        val next = queued.containsKey(operation) ? queued.get(operation).poll() : null;
+        val response = next != null ? next : new Response(200, responses.getOrDefault(operation, "{}"));
+        val body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.getResponseHeaders().set("x-amzn-RequestId", "stub-request");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void drain(final InputStream in) throws IOException {
+        val chunk = new byte[4096];
+        while (in.read(chunk) != -1) {
+            // Discard the request; the response only depends on the operation.
+        }
+        in.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static final class Response {
+        private final int status;
+        private final String body;
+
+        private Response(final int status, final String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.amazonaws.kinesisfirehose.deliverystream;
 
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,10 +9,21 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class CallbackContext {
 
     private Integer stabilizationRetriesRemaining;
+    // Epoch milliseconds. Unset in contexts written before timeouts were counted in time.
+    private Long stabilizationStartedAtMillis;
+    private Long stabilizationDeadlineMillis;
     private String deliveryStreamStatus;
     private String deliveryStreamEncryptionStatus;
+    // The versionId of the delivery stream before Update changed its destination.
+    private String previousDeliveryStreamVersionId;
+    // Unset in contexts written before stabilizations kept telemetry.
+    private StabilizationTelemetry stabilizationTelemetry;
+    // The UpdateHandler.UpdateStep names an Update has done, in order, each with the versionId the stream showed once it
+    // was done. A step that sent a call has no version until the next describe. Unset in contexts written before
+    // updates were checkpointed, and by the other handlers.
+    private Map<String, String> completedUpdateSteps;
 }
@@ -1,12 +1,33 @@
 package com.amazonaws.kinesisfirehose.deliverystream;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.stream.Collectors;
+import lombok.val;
+import org.json.JSONObject;
+import org.json.JSONTokener;
 
 class Configuration extends BaseConfiguration {
+    static final String SCHEMA_FILENAME = "aws-kinesisfirehose-deliverystream.json";
+    // The IAM permissions of each handler. Only the CloudFormation CLI reads them, when the type is registered.
+    static final String HANDLERS_KEY = "handlers";
 
     public Configuration() {
-        super("aws-kinesisfirehose-deliverystream.json");
+        super(SCHEMA_FILENAME);
+        // The generated HandlerWrapper builds its Configuration during the Lambda init phase.
+        HandlerPrimer.onInit();
+    }
+
+    /**
+     * The wrapper only needs the schema to validate the model of a Create or Update and to strip write-only properties
+     * from a final response, so it is parsed on first use instead of during init, and then once per container however
+     * many times it is asked for. The handler permissions are dropped from the copy kept in memory.
+     */
+    @Override
+    public JSONObject resourceSchemaJSONObject() {
+        return SchemaHolder.SCHEMA;
     }
 
     /**
@@ -22,4 +43,21 @@ class Configuration extends BaseConfiguration {
                 Collectors.toMap(tag -> tag.getKey(), tag -> tag.getValue()));
         }
     }
+
+    static JSONObject loadSchema() {
+        try (InputStream schema = Configuration.class.getClassLoader().getResourceAsStream(SCHEMA_FILENAME)) {
+            if (schema == null) {
+                throw new IOException("Missing resource schema " + SCHEMA_FILENAME);
+            }
+            val resourceSchema = new JSONObject(new JSONTokener(schema));
+            resourceSchema.remove(HANDLERS_KEY);
+            return resourceSchema;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class SchemaHolder {
+        static final JSONObject SCHEMA = loadSchema();
+    }
 }
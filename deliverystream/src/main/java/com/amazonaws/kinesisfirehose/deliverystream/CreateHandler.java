@@ -2,9 +2,7 @@ package com.amazonaws.kinesisfirehose.deliverystream;
 
 import com.amazonaws.kinesisfirehose.deliverystream.HandlerUtils.HandlerType;
 import com.amazonaws.util.StringUtils;
-import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
-import software.amazon.awssdk.services.firehose.FirehoseClient;
 import software.amazon.awssdk.services.firehose.model.CreateDeliveryStreamRequest;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
 import software.amazon.awssdk.services.firehose.model.InvalidArgumentException;
@@ -12,7 +10,6 @@ import software.amazon.awssdk.services.firehose.model.ResourceInUseException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
-import java.time.Duration;
 import lombok.val;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.cloudformation.resource.IdentifierUtils;
@@ -21,13 +18,9 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
     private static final String STACK_NAME_TAG_KEY = "aws:cloudformation:stack-name";
     private static final String DEFAULT_DELIVERY_STREAM_NAME_PREFIX = "deliverystream";
     private static final int MAX_LENGTH_DELIVERY_STREAM_NAME = 64;
-    static final int NUMBER_OF_STATUS_POLL_RETRIES = 130;
     static final String TIMED_OUT_MESSAGE = "Timed out waiting for the delivery stream to become ACTIVE.";
     static final String CREATE_DELIVERY_STREAM_ERROR_MSG_FORMAT = "Unable to Create Delivery Stream. Delivery stream status is %s";
 
-    private static final int CALLBACK_DELAY_IN_SECONDS = 30;
-    private final FirehoseClient firehoseClient = FirehoseClient.create();
-
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -36,24 +29,15 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
         final Logger logger) {
 
         final ResourceModel model = request.getDesiredResourceState();
-        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().firehoseClient(firehoseClient)
-            .clientProxy(proxy)
-            .build();
+        val invocationDeadline = InvocationDeadline.start();
+        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().clientProxy(proxy).invocationDeadline(invocationDeadline).build();
         logger.log(String.format("Create Handler called with deliveryStreamName %s", model.getDeliveryStreamName()));
         final CallbackContext currentContext = callbackContext == null
                 ? CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(schedule(model).pollBudget())
                 .build()
                 : callbackContext;
 
-        if (callbackContext == null && HandlerUtils.doesDeliveryStreamExistWithName(model.getDeliveryStreamName(),
-            firehoseAPIWrapper)) {
-            final Exception e = ResourceInUseException.builder()
-                    .message("Firehose already exists with the name: " + model.getDeliveryStreamName())
-                    .build();
-            return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e, HandlerType.CREATE));
-        }
-
         if (StringUtils.isNullOrEmpty(model.getDeliveryStreamName())) {
             model.setDeliveryStreamName(
                     generateName(request)
@@ -66,16 +50,18 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
             model.setTags(modelTags);
         }
         // This Lambda will continually be re-invoked with the current state of the instance, finally succeeding when state stabilizes.
-        return createDeliveryStreamAndUpdateProgress(firehoseAPIWrapper, model, currentContext, logger);
+        return createDeliveryStreamAndUpdateProgress(firehoseAPIWrapper, invocationDeadline, model, currentContext, logger);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> createDeliveryStreamAndUpdateProgress(final FirehoseAPIWrapper firehoseAPIWrapper,
+                                                                                                final InvocationDeadline invocationDeadline,
                                                                                                 final ResourceModel model,
                                                                                                 final CallbackContext callbackContext,
                                                                                                 final Logger logger) {
         val deliveryStreamStatus = callbackContext.getDeliveryStreamStatus();
 
-        if (callbackContext.getStabilizationRetriesRemaining() == 0) {
+        if (schedule(model).isTimedOut(callbackContext)) {
+            schedule(model).logTimedOut(logger, callbackContext);
             throw new RuntimeException(TIMED_OUT_MESSAGE);
         }
 
@@ -86,8 +72,16 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
             if (model.getDeliveryStreamEncryptionConfigurationInput() != null) {
                 logger.log(String.format("Delivery Stream Encryption would be enabled on the delivery stream name %s", model.getDeliveryStreamName()));
             }
+            // Nothing has been created yet, so an invocation without the time for the call can leave it to the next.
+            if (!invocationDeadline.hasTimeForCall()) {
+                return HandlerUtils.continueInNextInvocation(model, callbackContext, logger);
+            }
             try {
-                return createDeliveryStream(firehoseAPIWrapper, model);
+                return createDeliveryStream(firehoseAPIWrapper, ShortPoller.of(invocationDeadline), model, logger);
+            } catch (final ResourceInUseException e) {
+                // CreateDeliveryStream tells that the name is taken, so there is no need to describe it beforehand.
+                logger.log(String.format("createDeliveryStream failed with exception %s", e.getMessage()));
+                return alreadyExists(model);
             } catch (final Exception e) {
                 logger.log(String.format("createDeliveryStream failed with exception %s", e.getMessage()));
                 return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e, HandlerType.CREATE));
@@ -102,27 +96,74 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
                 logger.log(String.format("Error getting Delivery Stream Status. Exception %s", e.getMessage()));
             }
 
-            if (currentDeliveryStreamStatus.equals(DeliveryStreamStatus.ACTIVE.toString())) {
-                return ProgressEvent.defaultSuccessHandler(model);
-            } else if (currentDeliveryStreamStatus.equals(DeliveryStreamStatus.CREATING_FAILED.toString())) {
-                // Creating an InvalidArgumentException instead of InvalidKMSException since that would be too specific of a cause
-                // for CREATING_FAILED status.
-                Exception exp = InvalidArgumentException.builder()
-                    .message(String.format(CREATE_DELIVERY_STREAM_ERROR_MSG_FORMAT,currentDeliveryStreamStatus)).build();
-                return ProgressEvent.defaultFailureHandler(exp, ExceptionMapper.mapToHandlerErrorCode(exp, HandlerType.CREATE));
-            } else {
-                return ProgressEvent.defaultInProgressHandler(CallbackContext.builder()
-                                .deliveryStreamStatus(currentDeliveryStreamStatus)
-                                .stabilizationRetriesRemaining(callbackContext.getStabilizationRetriesRemaining() - 1)
-                                .build(),
-                        (int) Duration.ofSeconds(CALLBACK_DELAY_IN_SECONDS).getSeconds(),
-                        model);
-            }
+            return progressForStatus(model, currentDeliveryStreamStatus, schedule(model).nextPoll(callbackContext), logger);
         }
     }
 
-    private ProgressEvent<ResourceModel, CallbackContext> createDeliveryStream(final FirehoseAPIWrapper firehoseAPIWrapper, final ResourceModel model) {
-        val createDeliveryStreamRequest = CreateDeliveryStreamRequest.builder()
+    static ProgressEvent<ResourceModel, CallbackContext> alreadyExists(final ResourceModel model) {
+        final Exception alreadyExists = ResourceInUseException.builder()
+                .message("Firehose already exists with the name: " + model.getDeliveryStreamName())
+                .build();
+        return ProgressEvent.defaultFailureHandler(alreadyExists,
+                ExceptionMapper.mapToHandlerErrorCode(alreadyExists, HandlerType.CREATE));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> progressForStatus(final ResourceModel model,
+                                                                            final String currentDeliveryStreamStatus,
+                                                                            final CallbackContext.CallbackContextBuilder stabilization,
+                                                                            final Logger logger) {
+        if (currentDeliveryStreamStatus.equals(DeliveryStreamStatus.ACTIVE.toString())) {
+            schedule(model).logStabilized(logger, stabilization.deliveryStreamStatus(currentDeliveryStreamStatus).build());
+            return ProgressEvent.defaultSuccessHandler(model);
+        } else if (currentDeliveryStreamStatus.equals(DeliveryStreamStatus.CREATING_FAILED.toString())) {
+            schedule(model).logStabilized(logger, stabilization.deliveryStreamStatus(currentDeliveryStreamStatus).build());
+            // Creating an InvalidArgumentException instead of InvalidKMSException since that would be too specific of a cause
+            // for CREATING_FAILED status.
+            Exception exp = InvalidArgumentException.builder()
+                .message(String.format(CREATE_DELIVERY_STREAM_ERROR_MSG_FORMAT,currentDeliveryStreamStatus)).build();
+            return ProgressEvent.defaultFailureHandler(exp, ExceptionMapper.mapToHandlerErrorCode(exp, HandlerType.CREATE));
+        } else {
+            return waitForStabilization(model, stabilization
+                            .deliveryStreamStatus(currentDeliveryStreamStatus)
+                            .build());
+        }
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> createDeliveryStream(final FirehoseAPIWrapper firehoseAPIWrapper,
+                                                                               final ShortPoller shortPoller,
+                                                                               final ResourceModel model,
+                                                                               final Logger logger) {
+        //Firehose API returns an ARN on create, but does not accept ARN for any of its operations that
+        // act on a DeliveryStream. This is why DeliveryStream name is the physical resource ID and not the ARN
+        val response = firehoseAPIWrapper.createDeliveryStream(buildCreateDeliveryStreamRequest(model));
+        model.setArn(response.deliveryStreamARN());
+        val stabilization = schedule(model).newStabilization();
+        // A stream that was just created is CREATING, so the first describe is left to the first poll.
+        val deliveryStreamStatus = DeliveryStreamStatus.CREATING.toString();
+        if (!shortPoller.isEnabled()) {
+            return waitForStabilization(model, stabilization
+                    .deliveryStreamStatus(deliveryStreamStatus)
+                    .build());
+        }
+        val polledDeliveryStreamStatus = shortPoller.pollWhile(deliveryStreamStatus,
+            DeliveryStreamStatus.CREATING.toString()::equals,
+            () -> getDeliveryStreamStatus(firehoseAPIWrapper, model.getDeliveryStreamName()));
+        return progressForStatus(model, polledDeliveryStreamStatus, stabilization, logger);
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> waitForStabilization(final ResourceModel model,
+                                                                               final CallbackContext nextContext) {
+        return ProgressEvent.defaultInProgressHandler(nextContext,
+                schedule(model).nextDelaySeconds(nextContext, model.getDeliveryStreamName()),
+                model);
+    }
+
+    private static StabilizationSchedule schedule(final ResourceModel model) {
+        return StabilizationProfile.forModel(model).schedule();
+    }
+
+    static CreateDeliveryStreamRequest buildCreateDeliveryStreamRequest(final ResourceModel model) {
+        return CreateDeliveryStreamRequest.builder()
                 .deliveryStreamName(model.getDeliveryStreamName())
                 .deliveryStreamType(model.getDeliveryStreamType())
                 .s3DestinationConfiguration(HandlerUtils.translateS3DestinationConfiguration(model.getS3DestinationConfiguration()))
@@ -135,24 +176,13 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
                 .deliveryStreamEncryptionConfigurationInput(HandlerUtils.translateDeliveryStreamEncryptionConfigurationInput(model.getDeliveryStreamEncryptionConfigurationInput()))
                 .tags(HandlerUtils.translateCFNModelTagsToFirehoseSDKTags(model.getTags()))
                 .build();
-
-        //Firehose API returns an ARN on create, but does not accept ARN for any of its operations that
-        // act on a DeliveryStream. This is why DeliveryStream name is the physical resource ID and not the ARN
-        val response = firehoseAPIWrapper.createDeliveryStream(createDeliveryStreamRequest);
-        model.setArn(response.deliveryStreamARN());
-        return ProgressEvent.defaultInProgressHandler(CallbackContext.builder()
-                .deliveryStreamStatus(getDeliveryStreamStatus(firehoseAPIWrapper, model.getDeliveryStreamName()))
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
-                .build(),
-                (int) Duration.ofSeconds(CALLBACK_DELAY_IN_SECONDS).getSeconds(),
-                model);
     }
 
     private String getDeliveryStreamStatus(final FirehoseAPIWrapper firehoseAPIWrapper, final String deliveryStreamName) {
-        return firehoseAPIWrapper.describeDeliveryStream(deliveryStreamName).deliveryStreamDescription().deliveryStreamStatusAsString();
+        return firehoseAPIWrapper.redescribeDeliveryStream(deliveryStreamName).deliveryStreamDescription().deliveryStreamStatusAsString();
     }
 
-    @VisibleForTesting
+    // Visible for testing.
     protected static String generateName(ResourceHandlerRequest<ResourceModel> request) {
         StringBuffer identifierPrefix = new StringBuffer();
         // the prefix will be <stack-name>-<logical-name>
@@ -1,9 +1,8 @@
 package com.amazonaws.kinesisfirehose.deliverystream;
 
 import com.amazonaws.kinesisfirehose.deliverystream.HandlerUtils.HandlerType;
-import java.time.Duration;
 import lombok.val;
-import software.amazon.awssdk.services.firehose.FirehoseClient;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
 import software.amazon.awssdk.services.firehose.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
@@ -11,11 +10,8 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class DeleteHandler extends BaseHandler<CallbackContext> {
-    static final int NUMBER_OF_STATUS_POLL_RETRIES = 130;
     static final String DELIVERY_STREAM_DELETED = "Delivery Stream Deleted";
     static final String TIMED_OUT_MESSAGE = "Timed out waiting for the delivery stream to get DELETED.";
-    private static final int CALLBACK_DELAY_IN_SECONDS = 30;
-    private final FirehoseClient firehoseClient = FirehoseClient.create();
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -25,68 +21,98 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
         final Logger logger) {
 
         final ResourceModel model = request.getDesiredResourceState();
-        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().firehoseClient(firehoseClient).clientProxy(proxy).build();
+        val invocationDeadline = InvocationDeadline.start();
+        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().clientProxy(proxy).invocationDeadline(invocationDeadline).build();
 
         logger.log(String.format("Delete Handler called with deliveryStream PrimaryId %s", model.getDeliveryStreamName()));
 
         final CallbackContext currentContext = callbackContext == null
                 ? CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(StabilizationProfile.forModel(model).schedule().pollBudget())
                 .build()
                 : callbackContext;
 
-        if (callbackContext == null && !HandlerUtils.doesDeliveryStreamExistWithName(model.getDeliveryStreamName(),
-            firehoseAPIWrapper)) {
-            final Exception e = ResourceNotFoundException.builder()
-                    .message("Firehose doesn't exist with the name: " + model.getDeliveryStreamName())
-                    .build();
-            return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e, HandlerType.DELETE));
-        }
-
         // This Lambda will continually be re-invoked with the current state of the instance, finally succeeding when state stabilizes.
-        return deleteDeliveryStreamAndUpdateProgress(firehoseAPIWrapper, model, currentContext, logger);
+        return deleteDeliveryStreamAndUpdateProgress(firehoseAPIWrapper, invocationDeadline, model, currentContext, logger);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> deleteDeliveryStreamAndUpdateProgress(final FirehoseAPIWrapper firehoseAPIWrapper,
+                                                                                                final InvocationDeadline invocationDeadline,
                                                                                                 final ResourceModel model,
                                                                                                 final CallbackContext callbackContext,
                                                                                                 final Logger logger) {
         val deliveryStreamStatus = callbackContext.getDeliveryStreamStatus();
         logger.log("deliveryStreamStatus = " + deliveryStreamStatus);
 
-        if (callbackContext.getStabilizationRetriesRemaining() == 0) {
+        val schedule = StabilizationProfile.forModel(model).schedule();
+        if (schedule.isTimedOut(callbackContext)) {
+            schedule.logTimedOut(logger, callbackContext);
             throw new RuntimeException(TIMED_OUT_MESSAGE);
         }
 
-        int stabilizationRetriesRemaining = NUMBER_OF_STATUS_POLL_RETRIES;
+        final CallbackContext.CallbackContextBuilder stabilization;
         final boolean allowForceDelete = true;
-        if (deliveryStreamStatus == null) {
+        val shortPoller = ShortPoller.of(invocationDeadline);
+        final boolean deleteStartedNow = deliveryStreamStatus == null;
+        if (deleteStartedNow) {
+            // Nothing has been deleted yet, so an invocation without the time for the call can leave it to the next.
+            if (!invocationDeadline.hasTimeForCall()) {
+                return HandlerUtils.continueInNextInvocation(model, callbackContext, logger);
+            }
             try {
                 firehoseAPIWrapper.deleteDeliveryStream(model.getDeliveryStreamName(), allowForceDelete);
+            } catch (final ResourceNotFoundException e) {
+                // DeleteDeliveryStream tells that there is no such stream, so there is no need to describe it beforehand.
+                logger.log(String.format("deleteDeliveryStream failed with exception %s", e.getMessage()));
+                final Exception notFound = ResourceNotFoundException.builder()
+                        .message("Firehose doesn't exist with the name: " + model.getDeliveryStreamName())
+                        .build();
+                return ProgressEvent.defaultFailureHandler(notFound,
+                        ExceptionMapper.mapToHandlerErrorCode(notFound, HandlerType.DELETE));
             } catch (final Exception e) {
                 logger.log(String.format("deleteDeliveryStream failed with exception %s", e.getMessage()));
                 return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e, HandlerType.DELETE));
             }
+            stabilization = schedule.newStabilization();
         } else {
-            stabilizationRetriesRemaining = callbackContext.getStabilizationRetriesRemaining() - 1;
+            stabilization = schedule.nextPoll(callbackContext);
         }
 
-        val currentDeliveryStreamStatus = getDeliveryStreamStatus(firehoseAPIWrapper, model);
+        // Right after the delete call the stream is DELETING, so the first describe is left to the first poll.
+        final String currentDeliveryStreamStatus;
+        if (deleteStartedNow) {
+            currentDeliveryStreamStatus = shortPoller.pollWhile(DeliveryStreamStatus.DELETING.toString(),
+                status -> !DELIVERY_STREAM_DELETED.equals(status), () -> getDeliveryStreamStatus(firehoseAPIWrapper, model));
+        } else {
+            try {
+                currentDeliveryStreamStatus = getDeliveryStreamStatus(firehoseAPIWrapper, model);
+            } catch (final Exception e) {
+                // A throttled or otherwise failed describe is retried on the next callback, keeping the last status seen.
+                logger.log(String.format("DescribeDeliveryStream failed with exception %s", e.getMessage()));
+                val nextContext = stabilization
+                        .deliveryStreamStatus(deliveryStreamStatus)
+                        .build();
+                return ProgressEvent.defaultInProgressHandler(nextContext,
+                        schedule.nextDelayWithoutStatusSeconds(nextContext, model.getDeliveryStreamName()),
+                        model);
+            }
+        }
         if (currentDeliveryStreamStatus.equals(DELIVERY_STREAM_DELETED)) {
+            schedule.logStabilized(logger, stabilization.deliveryStreamStatus(currentDeliveryStreamStatus).build());
             return ProgressEvent.defaultSuccessHandler(null);
         } else {
-            return ProgressEvent.defaultInProgressHandler(CallbackContext.builder()
-                            .deliveryStreamStatus(currentDeliveryStreamStatus)
-                            .stabilizationRetriesRemaining(stabilizationRetriesRemaining)
-                            .build(),
-                    (int) Duration.ofSeconds(CALLBACK_DELAY_IN_SECONDS).getSeconds(),
+            val nextContext = stabilization
+                    .deliveryStreamStatus(currentDeliveryStreamStatus)
+                    .build();
+            return ProgressEvent.defaultInProgressHandler(nextContext,
+                    schedule.nextDelaySeconds(nextContext, model.getDeliveryStreamName()),
                     model);
         }
     }
 
     private String getDeliveryStreamStatus(final FirehoseAPIWrapper firehoseAPIWrapper, final ResourceModel model) {
         try {
-            return firehoseAPIWrapper.describeDeliveryStream(model.getDeliveryStreamName()).deliveryStreamDescription().deliveryStreamStatusAsString();
+            return firehoseAPIWrapper.redescribeDeliveryStream(model.getDeliveryStreamName()).deliveryStreamDescription().deliveryStreamStatusAsString();
         } catch (ResourceNotFoundException e) {
             //Delivery Stream got successfully deleted.
             return DELIVERY_STREAM_DELETED;
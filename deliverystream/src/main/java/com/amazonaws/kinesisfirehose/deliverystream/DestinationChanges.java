@@ -0,0 +1,203 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.util.Objects;
+import lombok.val;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
+
+/**
+ * The parts of a destination configuration that an Update changes, for an UpdateDestination that only sends those.
+ *
+ * UpdateDestination merges what it is sent into a destination of the same type and keeps the values it is not sent, so
+ * a property the stream already has as desired can be left out. The desired model is compared with the destination as
+ * DescribeDeliveryStream shows it rather than with the previous model, so a change made outside the stack is still
+ * put back. Each method returns the desired configuration with the properties the live one already has cleared,
+ * comparing nested S3 configurations the same way, and null when nothing is left to send; properties like
+ * BufferingHints or ProcessingConfiguration are sent whole when anything in them differs. Without a live configuration
+ * of the same type the desired one is returned as it is, since Firehose then replaces the destination.
+ */
+final class DestinationChanges {
+
+    private DestinationChanges() {
+    }
+
+    static S3DestinationConfiguration of(final S3DestinationConfiguration live, final S3DestinationConfiguration desired) {
+        if (live == null || desired == null) {
+            return desired;
+        }
+        if (live.equals(desired)) {
+            return null;
+        }
+        return nonEmpty(S3DestinationConfiguration.builder()
+            .bucketARN(changed(live.getBucketARN(), desired.getBucketARN()))
+            .bufferingHints(changed(live.getBufferingHints(), desired.getBufferingHints()))
+            .cloudWatchLoggingOptions(changed(live.getCloudWatchLoggingOptions(), desired.getCloudWatchLoggingOptions()))
+            .compressionFormat(changed(live.getCompressionFormat(), desired.getCompressionFormat()))
+            .encryptionConfiguration(changed(live.getEncryptionConfiguration(), desired.getEncryptionConfiguration()))
+            .errorOutputPrefix(changed(live.getErrorOutputPrefix(), desired.getErrorOutputPrefix()))
+            .prefix(changed(live.getPrefix(), desired.getPrefix()))
+            .roleARN(changed(live.getRoleARN(), desired.getRoleARN()))
+            .build(), S3DestinationConfiguration.builder().build());
+    }
+
+    static ExtendedS3DestinationConfiguration of(final ExtendedS3DestinationConfiguration live,
+                                                 final ExtendedS3DestinationConfiguration desired) {
+        if (live == null || desired == null) {
+            return desired;
+        }
+        if (live.equals(desired)) {
+            return null;
+        }
+        return nonEmpty(ExtendedS3DestinationConfiguration.builder()
+            .bucketARN(changed(live.getBucketARN(), desired.getBucketARN()))
+            .bufferingHints(changed(live.getBufferingHints(), desired.getBufferingHints()))
+            .cloudWatchLoggingOptions(changed(live.getCloudWatchLoggingOptions(), desired.getCloudWatchLoggingOptions()))
+            .compressionFormat(changed(live.getCompressionFormat(), desired.getCompressionFormat()))
+            .dataFormatConversionConfiguration(changed(live.getDataFormatConversionConfiguration(), desired.getDataFormatConversionConfiguration()))
+            .encryptionConfiguration(changed(live.getEncryptionConfiguration(), desired.getEncryptionConfiguration()))
+            .errorOutputPrefix(changed(live.getErrorOutputPrefix(), desired.getErrorOutputPrefix()))
+            .prefix(changed(live.getPrefix(), desired.getPrefix()))
+            .processingConfiguration(changed(live.getProcessingConfiguration(), desired.getProcessingConfiguration()))
+            .roleARN(changed(live.getRoleARN(), desired.getRoleARN()))
+            .s3BackupConfiguration(of(live.getS3BackupConfiguration(), desired.getS3BackupConfiguration()))
+            .s3BackupMode(changed(live.getS3BackupMode(), desired.getS3BackupMode()))
+            .build(), ExtendedS3DestinationConfiguration.builder().build());
+    }
+
+    static RedshiftDestinationConfiguration of(final RedshiftDestinationConfiguration live,
+                                               final RedshiftDestinationConfiguration desired) {
+        if (live == null || desired == null) {
+            return desired;
+        }
+        if (live.equals(desired)) {
+            return null;
+        }
+        return nonEmpty(RedshiftDestinationConfiguration.builder()
+            .cloudWatchLoggingOptions(changed(live.getCloudWatchLoggingOptions(), desired.getCloudWatchLoggingOptions()))
+            .clusterJDBCURL(changed(live.getClusterJDBCURL(), desired.getClusterJDBCURL()))
+            .copyCommand(changed(live.getCopyCommand(), desired.getCopyCommand()))
+            .password(changed(live.getPassword(), desired.getPassword()))
+            .processingConfiguration(changed(live.getProcessingConfiguration(), desired.getProcessingConfiguration()))
+            .retryOptions(changed(live.getRetryOptions(), desired.getRetryOptions()))
+            .roleARN(changed(live.getRoleARN(), desired.getRoleARN()))
+            .s3BackupConfiguration(of(live.getS3BackupConfiguration(), desired.getS3BackupConfiguration()))
+            .s3BackupMode(changed(live.getS3BackupMode(), desired.getS3BackupMode()))
+            .s3Configuration(of(live.getS3Configuration(), desired.getS3Configuration()))
+            .username(changed(live.getUsername(), desired.getUsername()))
+            .build(), RedshiftDestinationConfiguration.builder().build());
+    }
+
+    static ElasticsearchDestinationConfiguration of(final ElasticsearchDestinationConfiguration live,
+                                                    final ElasticsearchDestinationConfiguration desired) {
+        if (live == null || desired == null) {
+            return desired;
+        }
+        if (live.equals(desired)) {
+            return null;
+        }
+        return nonEmpty(ElasticsearchDestinationConfiguration.builder()
+            .bufferingHints(changed(live.getBufferingHints(), desired.getBufferingHints()))
+            .cloudWatchLoggingOptions(changed(live.getCloudWatchLoggingOptions(), desired.getCloudWatchLoggingOptions()))
+            .clusterEndpoint(changed(live.getClusterEndpoint(), desired.getClusterEndpoint()))
+            .domainARN(changed(live.getDomainARN(), desired.getDomainARN()))
+            .indexName(changed(live.getIndexName(), desired.getIndexName()))
+            .indexRotationPeriod(changed(live.getIndexRotationPeriod(), desired.getIndexRotationPeriod()))
+            .processingConfiguration(changed(live.getProcessingConfiguration(), desired.getProcessingConfiguration()))
+            .retryOptions(changed(live.getRetryOptions(), desired.getRetryOptions()))
+            .roleARN(changed(live.getRoleARN(), desired.getRoleARN()))
+            .s3BackupMode(changed(live.getS3BackupMode(), desired.getS3BackupMode()))
+            .s3Configuration(of(live.getS3Configuration(), desired.getS3Configuration()))
+            .typeName(changed(live.getTypeName(), desired.getTypeName()))
+            .vpcConfiguration(changed(live.getVpcConfiguration(), desired.getVpcConfiguration()))
+            .build(), ElasticsearchDestinationConfiguration.builder().build());
+    }
+
+    static SplunkDestinationConfiguration of(final SplunkDestinationConfiguration live,
+                                             final SplunkDestinationConfiguration desired) {
+        if (live == null || desired == null) {
+            return desired;
+        }
+        if (live.equals(desired)) {
+            return null;
+        }
+        return nonEmpty(SplunkDestinationConfiguration.builder()
+            .cloudWatchLoggingOptions(changed(live.getCloudWatchLoggingOptions(), desired.getCloudWatchLoggingOptions()))
+            .hECAcknowledgmentTimeoutInSeconds(changed(live.getHECAcknowledgmentTimeoutInSeconds(), desired.getHECAcknowledgmentTimeoutInSeconds()))
+            .hECEndpoint(changed(live.getHECEndpoint(), desired.getHECEndpoint()))
+            .hECEndpointType(changed(live.getHECEndpointType(), desired.getHECEndpointType()))
+            .hECToken(changed(live.getHECToken(), desired.getHECToken()))
+            .processingConfiguration(changed(live.getProcessingConfiguration(), desired.getProcessingConfiguration()))
+            .retryOptions(changed(live.getRetryOptions(), desired.getRetryOptions()))
+            .s3BackupMode(changed(live.getS3BackupMode(), desired.getS3BackupMode()))
+            .s3Configuration(of(live.getS3Configuration(), desired.getS3Configuration()))
+            .build(), SplunkDestinationConfiguration.builder().build());
+    }
+
+    static HttpEndpointDestinationConfiguration of(final HttpEndpointDestinationConfiguration live,
+                                                   final HttpEndpointDestinationConfiguration desired) {
+        if (live == null || desired == null) {
+            return desired;
+        }
+        if (live.equals(desired)) {
+            return null;
+        }
+        return nonEmpty(HttpEndpointDestinationConfiguration.builder()
+            .bufferingHints(changed(live.getBufferingHints(), desired.getBufferingHints()))
+            .cloudWatchLoggingOptions(changed(live.getCloudWatchLoggingOptions(), desired.getCloudWatchLoggingOptions()))
+            .endpointConfiguration(changed(live.getEndpointConfiguration(), desired.getEndpointConfiguration()))
+            .processingConfiguration(changed(live.getProcessingConfiguration(), desired.getProcessingConfiguration()))
+            .requestConfiguration(changed(live.getRequestConfiguration(), desired.getRequestConfiguration()))
+            .retryOptions(changed(live.getRetryOptions(), desired.getRetryOptions()))
+            .roleARN(changed(live.getRoleARN(), desired.getRoleARN()))
+            .s3BackupMode(changed(live.getS3BackupMode(), desired.getS3BackupMode()))
+            .s3Configuration(of(live.getS3Configuration(), desired.getS3Configuration()))
+            .build(), HttpEndpointDestinationConfiguration.builder().build());
+    }
+
+    /**
+     * The destinations of a described stream as a model to compare the desired one with. Describe returns neither the
+     * Redshift password nor the HTTP endpoint access key, so those are taken from the previous model when it has them,
+     * and otherwise always count as changed.
+     */
+    static ResourceModel described(final DeliveryStreamDescription description, final ResourceModel previousModel) {
+        val live = new ResourceModel();
+        if (description.destinations() == null || description.destinations().isEmpty()) {
+            return live;
+        }
+        val destination = description.destinations().get(0);
+        live.setS3DestinationConfiguration(
+            HandlerUtils.translateS3DestinationConfigurationToCfnModel(destination.s3DestinationDescription()));
+        live.setExtendedS3DestinationConfiguration(
+            HandlerUtils.translateExtendedS3DestinationConfigurationToCfnModel(destination.extendedS3DestinationDescription()));
+        live.setRedshiftDestinationConfiguration(
+            HandlerUtils.translateRedshiftDestinationToCfnModel(destination.redshiftDestinationDescription()));
+        live.setElasticsearchDestinationConfiguration(
+            HandlerUtils.translateElasticsearchDestinationConfigurationToCfnModel(destination.elasticsearchDestinationDescription()));
+        live.setSplunkDestinationConfiguration(
+            HandlerUtils.translateSplunkDestinationConfigurationToCfnModel(destination.splunkDestinationDescription()));
+        live.setHttpEndpointDestinationConfiguration(
+            HandlerUtils.translateHttpEndpointDestinationConfigurationToCfnModel(destination.httpEndpointDestinationDescription()));
+        if (previousModel == null) {
+            return live;
+        }
+        val previousRedshift = previousModel.getRedshiftDestinationConfiguration();
+        if (live.getRedshiftDestinationConfiguration() != null && previousRedshift != null) {
+            live.getRedshiftDestinationConfiguration().setPassword(previousRedshift.getPassword());
+        }
+        val previousHttpEndpoint = previousModel.getHttpEndpointDestinationConfiguration();
+        val liveHttpEndpoint = live.getHttpEndpointDestinationConfiguration();
+        if (liveHttpEndpoint != null && liveHttpEndpoint.getEndpointConfiguration() != null
+            && previousHttpEndpoint != null && previousHttpEndpoint.getEndpointConfiguration() != null) {
+            liveHttpEndpoint.getEndpointConfiguration().setAccessKey(previousHttpEndpoint.getEndpointConfiguration().getAccessKey());
+        }
+        return live;
+    }
+
+    // A desired value the stream does not have yet; one the desired model leaves out cannot be cleared by a merge.
+    private static <T> T changed(final T live, final T desired) {
+        return Objects.equals(live, desired) ? null : desired;
+    }
+
+    private static <T> T nonEmpty(final T changes, final T empty) {
+        return empty.equals(changes) ? null : changes;
+    }
+}
@@ -2,10 +2,14 @@ package com.amazonaws.kinesisfirehose.deliverystream;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.val;
+import software.amazon.awssdk.awscore.AwsRequest;
 import software.amazon.awssdk.services.firehose.FirehoseClient;
 import software.amazon.awssdk.services.firehose.model.CreateDeliveryStreamRequest;
 import software.amazon.awssdk.services.firehose.model.CreateDeliveryStreamResponse;
@@ -35,9 +39,19 @@ public class FirehoseAPIWrapper {
 
     @NonNull
     private AmazonWebServicesClientProxy clientProxy;
-    @NonNull
+
+    // Left unset by the handlers, which use the shared client. HandlerPrimer sets it to a client with no network access.
     private FirehoseClient firehoseClient;
 
+    // When set, each call is limited to the time left in the handler invocation.
+    private InvocationDeadline invocationDeadline;
+
+    // A wrapper lives for one handler invocation, so a stream described once is not described again until a call
+    // through the wrapper changes it. Polls that wait for the stream to change use redescribeDeliveryStream instead.
+    private final Map<String, DescribeDeliveryStreamResponse> describeResponses = new HashMap<>();
+    private final AtomicInteger describeCalls = new AtomicInteger();
+    private final AtomicInteger describeCacheHits = new AtomicInteger();
+
     public List<Tag> listAllTagsOnDeliveryStream(final String deliveryStreamName, final int resultLimit) {
         String startTagKey = null;
         Boolean hasMoreTags = false;
@@ -49,7 +63,7 @@ public class FirehoseAPIWrapper {
                 .limit(resultLimit)
                 .build();
             val resp = clientProxy.injectCredentialsAndInvokeV2(req,
-                firehoseClient::listTagsForDeliveryStream);
+                request -> firehoseClient().listTagsForDeliveryStream(withDeadline(request)));
             if (resp.tags() != null && resp.tags().size() > 0) {
                 tags.addAll(resp.tags());
                 startTagKey = tags.get(tags.size() - 1).key();
@@ -65,8 +79,9 @@ public class FirehoseAPIWrapper {
             .deliveryStreamName(deliveryStreamName)
             .tags(tags)
             .build();
+        describeResponses.remove(deliveryStreamName);
         return clientProxy.injectCredentialsAndInvokeV2(req,
-            firehoseClient::tagDeliveryStream);
+            request -> firehoseClient().tagDeliveryStream(withDeadline(request)));
     }
 
     public UntagDeliveryStreamResponse untagDeliveryStream(final String deliveryStreamName,
@@ -75,21 +90,49 @@ public class FirehoseAPIWrapper {
             .deliveryStreamName(deliveryStreamName)
             .tagKeys(tagKeys)
             .build();
+        describeResponses.remove(deliveryStreamName);
         return clientProxy.injectCredentialsAndInvokeV2(req,
-            firehoseClient::untagDeliveryStream);
+            request -> firehoseClient().untagDeliveryStream(withDeadline(request)));
     }
 
     public DescribeDeliveryStreamResponse describeDeliveryStream(final String deliveryStreamName) {
-        return clientProxy.injectCredentialsAndInvokeV2(DescribeDeliveryStreamRequest.builder()
+        val describeResponse = describeResponses.get(deliveryStreamName);
+        if (describeResponse != null) {
+            describeCacheHits.incrementAndGet();
+            return describeResponse;
+        }
+        return redescribeDeliveryStream(deliveryStreamName);
+    }
+
+    /**
+     * Describes the stream even when it was described before in this invocation, for a poll that waits on it to change.
+     */
+    public DescribeDeliveryStreamResponse redescribeDeliveryStream(final String deliveryStreamName) {
+        describeCalls.incrementAndGet();
+        val describeResponse = clientProxy.injectCredentialsAndInvokeV2(DescribeDeliveryStreamRequest.builder()
                 .deliveryStreamName(deliveryStreamName)
                 .build(),
-            firehoseClient::describeDeliveryStream);
+            request -> firehoseClient().describeDeliveryStream(withDeadline(request)));
+        if (describeResponse != null) {
+            describeResponses.put(deliveryStreamName, describeResponse);
+        }
+        return describeResponse;
+    }
+
+    // The DescribeDeliveryStream calls sent, and the describes answered from an earlier one.
+    int describeCalls() {
+        return describeCalls.get();
+    }
+
+    int describeCacheHits() {
+        return describeCacheHits.get();
     }
 
     public CreateDeliveryStreamResponse createDeliveryStream(
         final CreateDeliveryStreamRequest createDeliveryStreamRequest) {
+        describeResponses.remove(createDeliveryStreamRequest.deliveryStreamName());
         return clientProxy.injectCredentialsAndInvokeV2(createDeliveryStreamRequest,
-            firehoseClient::createDeliveryStream);
+            request -> firehoseClient().createDeliveryStream(withDeadline(request)));
     }
 
     public DeleteDeliveryStreamResponse deleteDeliveryStream(final String deliveryStreamName,
@@ -98,8 +141,9 @@ public class FirehoseAPIWrapper {
             .deliveryStreamName(deliveryStreamName)
             .allowForceDelete(allowForceDelete)
             .build();
+        describeResponses.remove(deliveryStreamName);
         return clientProxy.injectCredentialsAndInvokeV2(deleteDeliveryStreamRequest,
-            firehoseClient::deleteDeliveryStream);
+            request -> firehoseClient().deleteDeliveryStream(withDeadline(request)));
     }
 
     public StartDeliveryStreamEncryptionResponse startDeliveryStreamEncryption(
@@ -109,8 +153,9 @@ public class FirehoseAPIWrapper {
             .deliveryStreamName(deliveryStreamName)
             .deliveryStreamEncryptionConfigurationInput(deliveryStreamEncryptionConfigurationInput)
             .build();
+        describeResponses.remove(deliveryStreamName);
         return clientProxy.injectCredentialsAndInvokeV2(startEncryptionRequest,
-            firehoseClient::startDeliveryStreamEncryption);
+            request -> firehoseClient().startDeliveryStreamEncryption(withDeadline(request)));
     }
 
     public StopDeliveryStreamEncryptionResponse stopDeliveryStreamEncryption(
@@ -118,14 +163,16 @@ public class FirehoseAPIWrapper {
         val stopEncryptionRequest = StopDeliveryStreamEncryptionRequest.builder()
             .deliveryStreamName(deliveryStreamName)
             .build();
+        describeResponses.remove(deliveryStreamName);
         return clientProxy.injectCredentialsAndInvokeV2(stopEncryptionRequest,
-            firehoseClient::stopDeliveryStreamEncryption);
+            request -> firehoseClient().stopDeliveryStreamEncryption(withDeadline(request)));
     }
 
     public UpdateDestinationResponse updateDestination(
         final UpdateDestinationRequest updateDestinationRequest) {
+        describeResponses.remove(updateDestinationRequest.deliveryStreamName());
         return clientProxy.injectCredentialsAndInvokeV2(updateDestinationRequest,
-            firehoseClient::updateDestination);
+            request -> firehoseClient().updateDestination(withDeadline(request)));
     }
 
     public ListDeliveryStreamsResponse listDeliveryStreams(String startDeliveryStreamName, int resultLimit){
@@ -133,7 +180,16 @@ public class FirehoseAPIWrapper {
             .limit(resultLimit)
             .exclusiveStartDeliveryStreamName(startDeliveryStreamName)
             .build();
-        return clientProxy.injectCredentialsAndInvokeV2(req, firehoseClient::listDeliveryStreams);
+        return clientProxy.injectCredentialsAndInvokeV2(req, request -> firehoseClient().listDeliveryStreams(withDeadline(request)));
     }
 
+    // Both are called inside the request function, so the timeouts start when the call is sent and the shared client is
+    // only built for a real call.
+    private <T extends AwsRequest> T withDeadline(final T request) {
+        return invocationDeadline != null ? invocationDeadline.applyTo(request) : request;
+    }
+
+    private FirehoseClient firehoseClient() {
+        return firehoseClient != null ? firehoseClient : FirehoseClientProvider.getClient();
+    }
 }
@@ -0,0 +1,190 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.val;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.services.firehose.FirehoseAsyncClient;
+import software.amazon.awssdk.services.firehose.model.CreateDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.CreateDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.DeleteDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.DeleteDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionConfigurationInput;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.ListDeliveryStreamsRequest;
+import software.amazon.awssdk.services.firehose.model.ListDeliveryStreamsResponse;
+import software.amazon.awssdk.services.firehose.model.ListTagsForDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.StartDeliveryStreamEncryptionRequest;
+import software.amazon.awssdk.services.firehose.model.StartDeliveryStreamEncryptionResponse;
+import software.amazon.awssdk.services.firehose.model.StopDeliveryStreamEncryptionRequest;
+import software.amazon.awssdk.services.firehose.model.StopDeliveryStreamEncryptionResponse;
+import software.amazon.awssdk.services.firehose.model.Tag;
+import software.amazon.awssdk.services.firehose.model.TagDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.TagDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.UntagDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.UntagDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.UpdateDestinationRequest;
+import software.amazon.awssdk.services.firehose.model.UpdateDestinationResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+/**
+ * Non-blocking counterpart of {@link FirehoseAPIWrapper}. Each call returns as soon as the request is sent, so a
+ * handler can start calls that do not depend on each other and wait for them together. The proxy still injects the
+ * invocation's credentials into every request.
+ */
+@Builder
+public class FirehoseAsyncAPIWrapper {
+
+    @NonNull
+    private AmazonWebServicesClientProxy clientProxy;
+
+    // Left unset by the handlers, which use the shared async client.
+    private FirehoseAsyncClient firehoseAsyncClient;
+
+    // When set, each call is limited to the time left in the handler invocation.
+    private InvocationDeadline invocationDeadline;
+
+    public CompletableFuture<List<Tag>> listAllTagsOnDeliveryStream(final String deliveryStreamName, final int resultLimit) {
+        return listTagsOnDeliveryStream(deliveryStreamName, null, resultLimit, new ArrayList<>());
+    }
+
+    // Each page needs the last key of the page before it, so the pages are chained rather than sent together.
+    private CompletableFuture<List<Tag>> listTagsOnDeliveryStream(final String deliveryStreamName,
+        final String startTagKey,
+        final int resultLimit,
+        final List<Tag> tags) {
+        val req = ListTagsForDeliveryStreamRequest.builder()
+            .deliveryStreamName(deliveryStreamName)
+            .exclusiveStartTagKey(startTagKey)
+            .limit(resultLimit)
+            .build();
+        return clientProxy.injectCredentialsAndInvokeV2Async(req,
+            request -> firehoseAsyncClient().listTagsForDeliveryStream(withDeadline(request)))
+            .thenCompose(resp -> {
+                if (resp.tags() != null && resp.tags().size() > 0) {
+                    tags.addAll(resp.tags());
+                    if (resp.hasMoreTags() != null && resp.hasMoreTags()) {
+                        return listTagsOnDeliveryStream(deliveryStreamName, tags.get(tags.size() - 1).key(), resultLimit, tags);
+                    }
+                }
+                return CompletableFuture.completedFuture(tags);
+            });
+    }
+
+    public CompletableFuture<TagDeliveryStreamResponse> tagDeliveryStream(final String deliveryStreamName,
+        final Collection<Tag> tags) {
+        val req = TagDeliveryStreamRequest.builder()
+            .deliveryStreamName(deliveryStreamName)
+            .tags(tags)
+            .build();
+        return clientProxy.injectCredentialsAndInvokeV2Async(req,
+            request -> firehoseAsyncClient().tagDeliveryStream(withDeadline(request)));
+    }
+
+    public CompletableFuture<UntagDeliveryStreamResponse> untagDeliveryStream(final String deliveryStreamName,
+        final Collection<String> tagKeys) {
+        val req = UntagDeliveryStreamRequest.builder()
+            .deliveryStreamName(deliveryStreamName)
+            .tagKeys(tagKeys)
+            .build();
+        return clientProxy.injectCredentialsAndInvokeV2Async(req,
+            request -> firehoseAsyncClient().untagDeliveryStream(withDeadline(request)));
+    }
+
+    public CompletableFuture<DescribeDeliveryStreamResponse> describeDeliveryStream(final String deliveryStreamName) {
+        return clientProxy.injectCredentialsAndInvokeV2Async(DescribeDeliveryStreamRequest.builder()
+                .deliveryStreamName(deliveryStreamName)
+                .build(),
+            request -> firehoseAsyncClient().describeDeliveryStream(withDeadline(request)));
+    }
+
+    public CompletableFuture<CreateDeliveryStreamResponse> createDeliveryStream(
+        final CreateDeliveryStreamRequest createDeliveryStreamRequest) {
+        return clientProxy.injectCredentialsAndInvokeV2Async(createDeliveryStreamRequest,
+            request -> firehoseAsyncClient().createDeliveryStream(withDeadline(request)));
+    }
+
+    public CompletableFuture<DeleteDeliveryStreamResponse> deleteDeliveryStream(final String deliveryStreamName,
+        final boolean allowForceDelete) {
+        val deleteDeliveryStreamRequest = DeleteDeliveryStreamRequest.builder()
+            .deliveryStreamName(deliveryStreamName)
+            .allowForceDelete(allowForceDelete)
+            .build();
+        return clientProxy.injectCredentialsAndInvokeV2Async(deleteDeliveryStreamRequest,
+            request -> firehoseAsyncClient().deleteDeliveryStream(withDeadline(request)));
+    }
+
+    public CompletableFuture<StartDeliveryStreamEncryptionResponse> startDeliveryStreamEncryption(
+        final String deliveryStreamName,
+        final DeliveryStreamEncryptionConfigurationInput deliveryStreamEncryptionConfigurationInput) {
+        val startEncryptionRequest = StartDeliveryStreamEncryptionRequest.builder()
+            .deliveryStreamName(deliveryStreamName)
+            .deliveryStreamEncryptionConfigurationInput(deliveryStreamEncryptionConfigurationInput)
+            .build();
+        return clientProxy.injectCredentialsAndInvokeV2Async(startEncryptionRequest,
+            request -> firehoseAsyncClient().startDeliveryStreamEncryption(withDeadline(request)));
+    }
+
+    public CompletableFuture<StopDeliveryStreamEncryptionResponse> stopDeliveryStreamEncryption(
+        final String deliveryStreamName) {
+        val stopEncryptionRequest = StopDeliveryStreamEncryptionRequest.builder()
+            .deliveryStreamName(deliveryStreamName)
+            .build();
+        return clientProxy.injectCredentialsAndInvokeV2Async(stopEncryptionRequest,
+            request -> firehoseAsyncClient().stopDeliveryStreamEncryption(withDeadline(request)));
+    }
+
+    public CompletableFuture<UpdateDestinationResponse> updateDestination(
+        final UpdateDestinationRequest updateDestinationRequest) {
+        return clientProxy.injectCredentialsAndInvokeV2Async(updateDestinationRequest,
+            request -> firehoseAsyncClient().updateDestination(withDeadline(request)));
+    }
+
+    public CompletableFuture<ListDeliveryStreamsResponse> listDeliveryStreams(String startDeliveryStreamName, int resultLimit) {
+        val req = ListDeliveryStreamsRequest.builder()
+            .limit(resultLimit)
+            .exclusiveStartDeliveryStreamName(startDeliveryStreamName)
+            .build();
+        return clientProxy.injectCredentialsAndInvokeV2Async(req, request -> firehoseAsyncClient().listDeliveryStreams(withDeadline(request)));
+    }
+
+    /**
+     * Waits for the call and returns its response. A failed call rethrows the service exception itself rather than the
+     * CompletionException wrapping it, so handlers can keep mapping errors the same way as for the blocking wrapper.
+     */
+    static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private <T extends AwsRequest> T withDeadline(final T request) {
+        return invocationDeadline != null ? invocationDeadline.applyTo(request) : request;
+    }
+
+    private FirehoseAsyncClient firehoseAsyncClient() {
+        return firehoseAsyncClient != null ? firehoseAsyncClient : FirehoseClientProvider.getAsyncClient();
+    }
+}
@@ -0,0 +1,177 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.net.URI;
+import java.time.Duration;
+import lombok.val;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.firehose.FirehoseAsyncClient;
+import software.amazon.awssdk.services.firehose.FirehoseClient;
+
+/**
+ * Holds the one FirehoseClient shared by every handler in the process.
+ *
+ * The HandlerWrapper constructs all five handlers on a cold start even though only one action runs, so the client is
+ * not built until the first API call goes through {@link FirehoseAPIWrapper}. Credentials are injected per request by
+ * the proxy, which is why a single client can safely serve every invocation the container handles.
+ *
+ * The HTTP transport is picked with the FIREHOSE_HTTP_CLIENT setting (see {@link HandlerSettings}). APACHE is the
+ * default because the rpdk LambdaWrapper already loads the Apache client for its own calls, so reusing it costs no
+ * extra classes on a cold start; its pool is kept small and the idle reaper thread is disabled. URL_CONNECTION uses the
+ * JDK's HttpURLConnection instead, with no pool of its own, and relies on the JVM keep-alive cache to reuse
+ * connections across warm invocations.
+ *
+ * {@link FirehoseAsyncAPIWrapper} uses a separate FirehoseAsyncClient on the Netty transport. It is built the same lazy
+ * way, so a handler that never makes an asynchronous call does not start the Netty event loop. It shares the
+ * connection, timeout and endpoint settings of the blocking client. Netty is only packaged by the async-transport build
+ * profile, so callers check {@link #isAsyncClientAvailable()} first.
+ */
+final class FirehoseClientProvider {
+    static final String HTTP_CLIENT_SETTING = "FIREHOSE_HTTP_CLIENT";
+    static final String MAX_CONNECTIONS_SETTING = "FIREHOSE_HTTP_MAX_CONNECTIONS";
+    static final String CONNECTION_TTL_SECONDS_SETTING = "FIREHOSE_HTTP_CONNECTION_TTL_SECONDS";
+    static final String CONNECTION_TIMEOUT_MILLIS_SETTING = "FIREHOSE_HTTP_CONNECTION_TIMEOUT_MILLIS";
+    static final String SOCKET_TIMEOUT_MILLIS_SETTING = "FIREHOSE_HTTP_SOCKET_TIMEOUT_MILLIS";
+    static final String ENDPOINT_OVERRIDE_SETTING = "FIREHOSE_ENDPOINT_OVERRIDE";
+    static final String EVENT_LOOP_THREADS_SETTING = "FIREHOSE_HTTP_EVENT_LOOP_THREADS";
+
+    // A handler invocation makes its Firehose calls one at a time, so a small pool is plenty.
+    private static final int DEFAULT_MAX_CONNECTIONS = 4;
+    // Bounds how long a pooled connection is reused, so a long-lived warm container still picks up endpoint DNS changes.
+    private static final int DEFAULT_CONNECTION_TTL_SECONDS = 60;
+    private static final int DEFAULT_CONNECTION_TIMEOUT_MILLIS = 2_000;
+    private static final int DEFAULT_SOCKET_TIMEOUT_MILLIS = 30_000;
+    private static final String ASYNC_HTTP_CLIENT_CLASS = "software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient";
+    // A handler has at most a few calls in flight, and a Lambda function gets one or two vCPUs at handler memory sizes.
+    private static final int DEFAULT_EVENT_LOOP_THREADS = 2;
+
+    private FirehoseClientProvider() {
+    }
+
+    static FirehoseClient getClient() {
+        return LazyHolder.FIREHOSE_CLIENT;
+    }
+
+    static FirehoseAsyncClient getAsyncClient() {
+        return AsyncLazyHolder.FIREHOSE_ASYNC_CLIENT;
+    }
+
+    /**
+     * Whether the Netty transport behind {@link #getAsyncClient()} was packaged with the handlers. Looked up by name, so
+     * asking does not load it.
+     */
+    static boolean isAsyncClientAvailable() {
+        try {
+            Class.forName(ASYNC_HTTP_CLIENT_CLASS, false, FirehoseClientProvider.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static FirehoseClient buildClient() {
+        val builder = FirehoseClient.builder()
+            .httpClient(buildHttpClient(httpClientType()));
+        val endpointOverride = HandlerSettings.getString(ENDPOINT_OVERRIDE_SETTING, null);
+        if (endpointOverride != null) {
+            builder.endpointOverride(URI.create(endpointOverride));
+        }
+        return builder.build();
+    }
+
+    static FirehoseAsyncClient buildAsyncClient() {
+        val builder = FirehoseAsyncClient.builder()
+            .httpClient(buildAsyncHttpClient());
+        val endpointOverride = HandlerSettings.getString(ENDPOINT_OVERRIDE_SETTING, null);
+        if (endpointOverride != null) {
+            builder.endpointOverride(URI.create(endpointOverride));
+        }
+        return builder.build();
+    }
+
+    static SdkAsyncHttpClient buildAsyncHttpClient() {
+        return NettyNioAsyncHttpClient.builder()
+            .maxConcurrency(HandlerSettings.getInt(MAX_CONNECTIONS_SETTING, DEFAULT_MAX_CONNECTIONS))
+            .connectionTimeToLive(Duration.ofSeconds(HandlerSettings.getInt(CONNECTION_TTL_SECONDS_SETTING, DEFAULT_CONNECTION_TTL_SECONDS)))
+            // Same reasoning as for the Apache pool: the reaper cannot run while the container is frozen.
+            .useIdleConnectionReaper(false)
+            .connectionTimeout(Duration.ofMillis(HandlerSettings.getInt(CONNECTION_TIMEOUT_MILLIS_SETTING, DEFAULT_CONNECTION_TIMEOUT_MILLIS)))
+            .readTimeout(Duration.ofMillis(HandlerSettings.getInt(SOCKET_TIMEOUT_MILLIS_SETTING, DEFAULT_SOCKET_TIMEOUT_MILLIS)))
+            .eventLoopGroupBuilder(SdkEventLoopGroup.builder()
+                .numberOfThreads(HandlerSettings.getInt(EVENT_LOOP_THREADS_SETTING, DEFAULT_EVENT_LOOP_THREADS)))
+            .build();
+    }
+
+    static HttpClientType httpClientType() {
+        try {
+            return HttpClientType.fromSetting(HandlerSettings.getString(HTTP_CLIENT_SETTING, null));
+        } catch (IllegalArgumentException e) {
+            HandlerSettings.logIgnored(e.getMessage(), HttpClientType.APACHE);
+            return HttpClientType.APACHE;
+        }
+    }
+
+    static SdkHttpClient buildHttpClient(final HttpClientType httpClientType) {
+        val connectionTimeout = Duration.ofMillis(HandlerSettings.getInt(CONNECTION_TIMEOUT_MILLIS_SETTING, DEFAULT_CONNECTION_TIMEOUT_MILLIS));
+        val socketTimeout = Duration.ofMillis(HandlerSettings.getInt(SOCKET_TIMEOUT_MILLIS_SETTING, DEFAULT_SOCKET_TIMEOUT_MILLIS));
+        switch (httpClientType) {
+            case URL_CONNECTION:
+                return UrlConnectionHttpClient.builder()
+                    .connectionTimeout(connectionTimeout)
+                    .socketTimeout(socketTimeout)
+                    .build();
+            case APACHE:
+            default:
+                return ApacheHttpClient.builder()
+                    .maxConnections(HandlerSettings.getInt(MAX_CONNECTIONS_SETTING, DEFAULT_MAX_CONNECTIONS))
+                    .connectionTimeToLive(Duration.ofSeconds(HandlerSettings.getInt(CONNECTION_TTL_SECONDS_SETTING, DEFAULT_CONNECTION_TTL_SECONDS)))
+                    // The reaper thread cannot run while the Lambda container is frozen. The pool re-validates a
+                    // connection that has sat idle before leasing it, which covers the same case on thaw.
+                    .useIdleConnectionReaper(false)
+                    .connectionTimeout(connectionTimeout)
+                    .socketTimeout(socketTimeout)
+                    .build();
+        }
+    }
+
+    public enum HttpClientType {
+        APACHE("APACHE"),
+        URL_CONNECTION("URL_CONNECTION");
+        private final String value;
+
+        private HttpClientType(String value) {
+            this.value = value;
+        }
+
+        static HttpClientType fromSetting(final String setting) {
+            if (setting == null) {
+                return APACHE;
+            }
+            for (HttpClientType type : values()) {
+                if (type.value.equalsIgnoreCase(setting)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException(String.format("Unsupported %s '%s'", HTTP_CLIENT_SETTING, setting));
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    // Initialization-on-demand holder: the JVM builds the client exactly once, the first time getClient() is called.
+    private static final class LazyHolder {
+        private static final FirehoseClient FIREHOSE_CLIENT = buildClient();
+    }
+
+    // Kept apart from LazyHolder so that the blocking client never builds the Netty event loop.
+    private static final class AsyncLazyHolder {
+        private static final FirehoseAsyncClient FIREHOSE_ASYNC_CLIENT = buildAsyncClient();
+    }
+}
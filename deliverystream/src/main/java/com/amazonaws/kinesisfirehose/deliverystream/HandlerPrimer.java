@@ -0,0 +1,374 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.val;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.firehose.FirehoseClient;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
+import software.amazon.awssdk.services.firehose.model.ResourceInUseException;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.loggers.LambdaLogPublisher;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.HandlerRequest;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.RequestData;
+import software.amazon.cloudformation.resource.Serializer;
+
+/**
+ * Warms the code a first invocation would otherwise pay for: SDK request marshalling, response unmarshalling and
+ * signing, Jackson (de)serialization of ResourceModel and CallbackContext inside the HandlerRequest and ProgressEvent
+ * the wrapper reads and writes, and the HandlerUtils translators in both directions. A representative delivery stream for every destination type is read from
+ * {@code priming-describe-responses.json}, translated into a ResourceModel as the ReadHandler does, and then into the
+ * Create and UpdateDestination requests the other handlers send.
+ *
+ * Every call goes through a FirehoseAPIWrapper backed by a client whose transport answers from memory, so priming never
+ * touches the network. Priming is off by default and is enabled with the FIREHOSE_PRIMING setting:
+ * <ul>
+ * <li>INIT primes synchronously while the HandlerWrapper is being constructed, i.e. during the Lambda init phase.</li>
+ * <li>CHECKPOINT primes in a CRaC beforeCheckpoint hook, so the warm state is captured in a SnapStart snapshot and
+ * costs nothing on restore. On a JVM without CRaC support the hook never fires.</li>
+ * </ul>
+ * Both modes finish by building the shared client from {@link FirehoseClientProvider}, which opens no connections.
+ */
+final class HandlerPrimer {
+    static final String PRIMING_SETTING = "FIREHOSE_PRIMING";
+    static final String PRIMING_ITERATIONS_SETTING = "FIREHOSE_PRIMING_ITERATIONS";
+    static final String DESCRIBE_RESPONSES_RESOURCE = "priming-describe-responses.json";
+    private static final int DEFAULT_PRIMING_ITERATIONS = 3;
+    private static final String TAKEN_DELIVERY_STREAM_NAME = "priming-taken";
+    private static final String TARGET_HEADER = "X-Amz-Target";
+    private static final String TARGET_PREFIX = "Firehose_20150804.";
+    private static final TypeReference<ResourceModel> RESOURCE_MODEL_TYPE = new TypeReference<ResourceModel>() {};
+    private static final TypeReference<CallbackContext> CALLBACK_CONTEXT_TYPE = new TypeReference<CallbackContext>() {};
+    // Equal to the type the generated HandlerWrapper reads its request as, so the deserializer built here is reused.
+    private static final TypeReference<HandlerRequest<ResourceModel, CallbackContext>> HANDLER_REQUEST_TYPE =
+        new TypeReference<HandlerRequest<ResourceModel, CallbackContext>>() {};
+    private static final AtomicBoolean PRIMED = new AtomicBoolean();
+    // org.crac only keeps weak references to registered resources.
+    private static Resource checkpointHook;
+
+    private HandlerPrimer() {
+    }
+
+    /**
+     * Called once while the HandlerWrapper is constructed. Priming failures, including an unrecognised
+     * FIREHOSE_PRIMING value, are logged and swallowed: a cold invocation is always preferable to a failed init.
+     */
+    static synchronized void onInit() {
+        onInit(initLogger());
+    }
+
+    static synchronized void onInit(final Logger logger) {
+        switch (primingMode(logger)) {
+            case INIT:
+                primeQuietly(logger);
+                break;
+            case CHECKPOINT:
+                if (checkpointHook == null) {
+                    checkpointHook = new CheckpointHook(logger);
+                    Core.getGlobalContext().register(checkpointHook);
+                }
+                break;
+            case NONE:
+            default:
+                break;
+        }
+    }
+
+    private static PrimingMode primingMode(final Logger logger) {
+        try {
+            return PrimingMode.fromSetting(HandlerSettings.getString(PRIMING_SETTING, null));
+        } catch (IllegalArgumentException e) {
+            logger.log(String.format("%s, priming is off", e.getMessage()));
+            return PrimingMode.NONE;
+        }
+    }
+
+    /**
+     * There is no request yet during init, so this logs the way the HandlerWrapper does for an invocation, through a
+     * LoggerProxy publishing to the Lambda runtime's logger.
+     */
+    private static Logger initLogger() {
+        val logger = new LoggerProxy();
+        logger.addLogPublisher(new LambdaLogPublisher(LambdaRuntime.getLogger()));
+        return logger;
+    }
+
+    /**
+     * Runs the priming pass once per JVM. Returns false if it had already run.
+     */
+    static boolean prime() throws IOException {
+        if (!PRIMED.compareAndSet(false, true)) {
+            return false;
+        }
+        runPrimingPass(HandlerSettings.getInt(PRIMING_ITERATIONS_SETTING, DEFAULT_PRIMING_ITERATIONS));
+        FirehoseClientProvider.getClient();
+        return true;
+    }
+
+    /**
+     * Pushes every representative delivery stream through the handlers' translation and request paths
+     * {@code iterations} times, and returns the ResourceModels built on the last pass.
+     */
+    static List<ResourceModel> runPrimingPass(final int iterations) throws IOException {
+        val describeResponses = loadDescribeResponses();
+        val httpClient = new CannedResponseHttpClient();
+        val models = new ArrayList<ResourceModel>();
+        try (FirehoseClient primingClient = FirehoseClient.builder()
+            .httpClient(httpClient)
+            .region(Region.US_EAST_1)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("priming", "priming")))
+            .build()) {
+            val proxy = new AmazonWebServicesClientProxy(new LoggerProxy(),
+                new Credentials("priming", "priming", "priming"), () -> Long.MAX_VALUE);
+            val firehoseAPIWrapper = FirehoseAPIWrapper.builder().clientProxy(proxy).firehoseClient(primingClient).build();
+            val serializer = new Serializer();
+            for (int i = 0; i < iterations; i++) {
+                models.clear();
+                for (val describeResponse : describeResponses.values()) {
+                    httpClient.respond("DescribeDeliveryStream", describeResponse);
+                    models.add(primeDeliveryStream(firehoseAPIWrapper, serializer));
+                }
+                primeNameTaken(firehoseAPIWrapper, serializer, models.get(0));
+            }
+        }
+        return models;
+    }
+
+    private static ResourceModel primeDeliveryStream(final FirehoseAPIWrapper firehoseAPIWrapper, final Serializer serializer) throws IOException {
+        // Each pass answers with another canned response, so the memoized describe of the last one won't do.
+        val describeResponse = firehoseAPIWrapper.redescribeDeliveryStream("priming");
+        val deliveryStreamName = describeResponse.deliveryStreamDescription().deliveryStreamName();
+        val tags = firehoseAPIWrapper.listAllTagsOnDeliveryStream(deliveryStreamName, HandlerUtils.LIST_TAGS_RESULT_LIMIT);
+
+        val readModel = new ResourceModel();
+        readModel.setDeliveryStreamName(deliveryStreamName);
+        ReadHandler.hydrateDeliveryStreamResource(readModel, describeResponse.deliveryStreamDescription(), tags);
+        val model = serializer.deserialize(serializer.serialize(readModel), RESOURCE_MODEL_TYPE);
+
+        firehoseAPIWrapper.createDeliveryStream(CreateHandler.buildCreateDeliveryStreamRequest(model));
+        firehoseAPIWrapper.updateDestination(UpdateHandler.buildUpdateDestinationRequest(model, describeResponse));
+        firehoseAPIWrapper.tagDeliveryStream(deliveryStreamName, HandlerUtils.translateCFNModelTagsToFirehoseSDKTags(model.getTags()));
+
+        val callbackContext = CallbackContext.builder()
+            .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
+            .stabilizationRetriesRemaining(StabilizationProfile.forModel(model).schedule().pollBudget())
+            .build();
+        serializer.deserialize(serializer.serialize(callbackContext), CALLBACK_CONTEXT_TYPE);
+        return primeInvocationEnvelope(serializer, model, callbackContext);
+    }
+
+    /**
+     * CreateHandler learns that the name is taken from CreateDeliveryStream itself, which fails with a
+     * ResourceInUseException that the handler reports as AlreadyExists.
+     */
+    private static void primeNameTaken(final FirehoseAPIWrapper firehoseAPIWrapper,
+                                       final Serializer serializer,
+                                       final ResourceModel model) throws IOException {
+        val takenModel = serializer.deserialize(serializer.serialize(model), RESOURCE_MODEL_TYPE);
+        takenModel.setDeliveryStreamName(TAKEN_DELIVERY_STREAM_NAME);
+        try {
+            firehoseAPIWrapper.createDeliveryStream(CreateHandler.buildCreateDeliveryStreamRequest(takenModel));
+        } catch (ResourceInUseException e) {
+            serializer.serialize(CreateHandler.alreadyExists(takenModel));
+        }
+    }
+
+    /**
+     * Runs the model through the JSON the HandlerWrapper handles on every invocation: the HandlerRequest it reads, the
+     * strict re-read of the model when it validates the model or strips write-only properties from a response, and the
+     * ProgressEvent it writes. Jackson builds a (de)serializer once per type and per mapper, and the strict read uses a
+     * mapper of its own, so each path is run here with the wrapper's own type references. Returns the model as the
+     * handler would receive it.
+     */
+    static ResourceModel primeInvocationEnvelope(final Serializer serializer,
+                                                 final ResourceModel model,
+                                                 final CallbackContext callbackContext) throws IOException {
+        val requestData = new RequestData<ResourceModel>();
+        requestData.setCallerCredentials(new Credentials("priming", "priming", "priming"));
+        requestData.setLogicalResourceId("priming");
+        requestData.setResourceProperties(model);
+        requestData.setPreviousResourceProperties(model);
+        requestData.setSystemTags(Collections.singletonMap("priming", "priming"));
+        requestData.setStackTags(Collections.singletonMap("priming", "priming"));
+        val request = new HandlerRequest<ResourceModel, CallbackContext>();
+        request.setAction(Action.UPDATE);
+        request.setRequestData(requestData);
+        request.setCallbackContext(callbackContext);
+
+        val received = serializer.deserialize(serializer.serialize(request), HANDLER_REQUEST_TYPE);
+        val desiredModel = received.getRequestData().getResourceProperties();
+        serializer.deserializeStrict(serializer.serialize(desiredModel), RESOURCE_MODEL_TYPE);
+        serializer.serialize(ProgressEvent.progress(desiredModel, received.getCallbackContext()));
+        serializer.serialize(ProgressEvent.defaultSuccessHandler(desiredModel));
+        return desiredModel;
+    }
+
+    static Map<String, byte[]> loadDescribeResponses() throws IOException {
+        try (InputStream in = HandlerPrimer.class.getClassLoader().getResourceAsStream(DESCRIBE_RESPONSES_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing priming resource " + DESCRIBE_RESPONSES_RESOURCE);
+            }
+            val mapper = new ObjectMapper();
+            val responses = new LinkedHashMap<String, byte[]>();
+            val fields = mapper.readTree(in).fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                responses.put(field.getKey(), mapper.writeValueAsBytes(field.getValue()));
+            }
+            return responses;
+        }
+    }
+
+    private static void primeQuietly(final Logger logger) {
+        val start = System.currentTimeMillis();
+        try {
+            if (prime()) {
+                logger.log(String.format("Primed handlers in %d ms", System.currentTimeMillis() - start));
+            }
+        } catch (Exception e) {
+            logger.log(String.format("Handler priming failed, continuing without it: %s", e));
+        }
+    }
+
+    public enum PrimingMode {
+        NONE("NONE"),
+        INIT("INIT"),
+        CHECKPOINT("CHECKPOINT");
+        private final String value;
+
+        private PrimingMode(String value) {
+            this.value = value;
+        }
+
+        static PrimingMode fromSetting(final String setting) {
+            if (setting == null) {
+                return NONE;
+            }
+            for (PrimingMode mode : values()) {
+                if (mode.value.equalsIgnoreCase(setting)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException(String.format("Unsupported %s '%s'", PRIMING_SETTING, setting));
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    private static final class CheckpointHook implements Resource {
+        private final Logger logger;
+
+        CheckpointHook(final Logger logger) {
+            this.logger = logger;
+        }
+
+        @Override
+        public void beforeCheckpoint(final Context<? extends Resource> context) {
+            primeQuietly(logger);
+        }
+
+        @Override
+        public void afterRestore(final Context<? extends Resource> context) {
+        }
+    }
+
+    /**
+     * Answers every Firehose operation from memory. Operations without a registered response succeed with an empty
+     * body, except a CreateDeliveryStream for {@link #TAKEN_DELIVERY_STREAM_NAME}, which fails the way the service does
+     * for a name that is already in use.
+     */
+    private static final class CannedResponseHttpClient implements SdkHttpClient {
+        private static final byte[] EMPTY_RESPONSE = "{}".getBytes(StandardCharsets.UTF_8);
+        private static final byte[] IN_USE_RESPONSE = ("{\"__type\":\"ResourceInUseException\","
+            + "\"message\":\"Firehose " + TAKEN_DELIVERY_STREAM_NAME + " is already in use.\"}").getBytes(StandardCharsets.UTF_8);
+        private final Map<String, byte[]> responses = new HashMap<>();
+
+        CannedResponseHttpClient() {
+            responses.put("ListTagsForDeliveryStream", ("{\"Tags\":[{\"Key\":\"priming\",\"Value\":\"priming\"}],"
+                + "\"HasMoreTags\":false}").getBytes(StandardCharsets.UTF_8));
+            responses.put("CreateDeliveryStream", ("{\"DeliveryStreamARN\":"
+                + "\"arn:aws:firehose:us-east-1:123456789012:deliverystream/priming\"}").getBytes(StandardCharsets.UTF_8));
+        }
+
+        void respond(final String operation, final byte[] body) {
+            responses.put(operation, body);
+        }
+
+        @Override
+        public ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+            return new ExecutableHttpRequest() {
+                @Override
+                public HttpExecuteResponse call() throws IOException {
+                    val target = request.httpRequest().firstMatchingHeader(TARGET_HEADER).orElse("");
+                    val operation = target.startsWith(TARGET_PREFIX) ? target.substring(TARGET_PREFIX.length()) : target;
+                    val requestBody = request.contentStreamProvider().isPresent()
+                        ? readFully(request.contentStreamProvider().get().newStream()) : new byte[0];
+                    val inUse = "CreateDeliveryStream".equals(operation)
+                        && new String(requestBody, StandardCharsets.UTF_8).contains(TAKEN_DELIVERY_STREAM_NAME);
+                    val body = inUse ? IN_USE_RESPONSE : responses.getOrDefault(operation, EMPTY_RESPONSE);
+                    return HttpExecuteResponse.builder()
+                        .response(SdkHttpResponse.builder()
+                            .statusCode(inUse ? 400 : 200)
+                            .putHeader("Content-Type", "application/x-amz-json-1.1")
+                            .putHeader("Content-Length", String.valueOf(body.length))
+                            .build())
+                        .responseBody(AbortableInputStream.create(new ByteArrayInputStream(body)))
+                        .build();
+                }
+
+                @Override
+                public void abort() {
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static byte[] readFully(final InputStream in) throws IOException {
+            try (InputStream stream = in) {
+                val buffer = new ByteArrayOutputStream();
+                val chunk = new byte[4096];
+                int read;
+                while ((read = stream.read(chunk)) != -1) {
+                    buffer.write(chunk, 0, read);
+                }
+                return buffer.toByteArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Runtime tunables for the handlers. Each setting is read from the Lambda environment variable of the given name, and
+ * falls back to a JVM system property of the same name so benchmarks and tests can set it without a new process
+ * environment. A malformed value is logged and the default used instead, since settings are also read while the
+ * shared client is built, where an exception would break every later invocation in the container.
+ */
+final class HandlerSettings {
+    private HandlerSettings() {
+    }
+
+    static String getString(final String name, final String defaultValue) {
+        String value = System.getenv(name);
+        if (StringUtils.isNullOrEmpty(value)) {
+            value = System.getProperty(name);
+        }
+        return StringUtils.isNullOrEmpty(value) ? defaultValue : value.trim();
+    }
+
+    static int getInt(final String name, final int defaultValue) {
+        final String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logIgnored(String.format("Setting %s must be an integer but was '%s'", name, value), defaultValue);
+            return defaultValue;
+        }
+    }
+
+    static boolean getBoolean(final String name, final boolean defaultValue) {
+        final String value = getString(name, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    // There may be no request to log through yet, so this goes to the Lambda runtime's logger.
+    static void logIgnored(final String problem, final Object defaultValue) {
+        LambdaRuntime.getLogger().log(String.format("%s, using %s%n", problem, defaultValue));
+    }
+}
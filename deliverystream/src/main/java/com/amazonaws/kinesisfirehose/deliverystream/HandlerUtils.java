@@ -1,9 +1,5 @@
 package com.amazonaws.kinesisfirehose.deliverystream;
 
-import com.amazonaws.util.StringUtils;
-import com.google.common.base.Function;
-import com.google.common.collect.Collections2;
-import com.google.common.collect.Sets;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -15,6 +11,7 @@ import java.util.Collection;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
 
 class HandlerUtils {
 
@@ -36,12 +33,7 @@ class HandlerUtils {
 		if (kinesisStreamSourceConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(kinesisStreamSourceConfigurationCollection, new Function<KinesisStreamSourceConfiguration, software.amazon.awssdk.services.firehose.model.KinesisStreamSourceConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.KinesisStreamSourceConfiguration apply(final KinesisStreamSourceConfiguration input) {
-				return translateKinesisStreamSourceConfiguration(input);
-			}
-		});
+		return kinesisStreamSourceConfigurationCollection.stream().map(HandlerUtils::translateKinesisStreamSourceConfiguration).collect(Collectors.toList());
 	}
 
 	public static software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionConfigurationInput translateDeliveryStreamEncryptionConfigurationInput(final DeliveryStreamEncryptionConfigurationInput deliveryStreamEncryptionConfigurationInput) {
@@ -85,12 +77,7 @@ class HandlerUtils {
 		if (s3DestinationConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(s3DestinationConfigurationCollection, new Function<S3DestinationConfiguration, software.amazon.awssdk.services.firehose.model.S3DestinationConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.S3DestinationConfiguration apply(final S3DestinationConfiguration input) {
-				return translateS3DestinationConfiguration(input);
-			}
-		});
+		return s3DestinationConfigurationCollection.stream().map(HandlerUtils::translateS3DestinationConfiguration).collect(Collectors.toList());
 	}
 
 	static software.amazon.awssdk.services.firehose.model.ExtendedS3DestinationConfiguration translateExtendedS3DestinationConfiguration(final ExtendedS3DestinationConfiguration extendedS3DestinationConfiguration) {
@@ -117,12 +104,7 @@ class HandlerUtils {
 		if (extendedS3DestinationConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(extendedS3DestinationConfigurationCollection, new Function<ExtendedS3DestinationConfiguration, software.amazon.awssdk.services.firehose.model.ExtendedS3DestinationConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.ExtendedS3DestinationConfiguration apply(final ExtendedS3DestinationConfiguration input) {
-				return translateExtendedS3DestinationConfiguration(input);
-			}
-		});
+		return extendedS3DestinationConfigurationCollection.stream().map(HandlerUtils::translateExtendedS3DestinationConfiguration).collect(Collectors.toList());
 	}
 
 	static software.amazon.awssdk.services.firehose.model.BufferingHints translateBufferingHints(final BufferingHints bufferingHints) {
@@ -159,12 +141,7 @@ class HandlerUtils {
 		if (bufferingHintsCollection == null) {
 			return null;
 		}
-		return Collections2.transform(bufferingHintsCollection, new Function<BufferingHints, software.amazon.awssdk.services.firehose.model.BufferingHints>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.BufferingHints apply(final BufferingHints input) {
-				return translateBufferingHints(input);
-			}
-		});
+		return bufferingHintsCollection.stream().map(HandlerUtils::translateBufferingHints).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.EncryptionConfiguration translateEncryptionConfiguration(final EncryptionConfiguration encryptionConfiguration) {
@@ -181,12 +158,7 @@ class HandlerUtils {
 		if (encryptionConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(encryptionConfigurationCollection, new Function<EncryptionConfiguration, software.amazon.awssdk.services.firehose.model.EncryptionConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.EncryptionConfiguration apply(final EncryptionConfiguration input) {
-				return translateEncryptionConfiguration(input);
-			}
-		});
+		return encryptionConfigurationCollection.stream().map(HandlerUtils::translateEncryptionConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.KMSEncryptionConfig translateKMSEncryptionConfig(final KMSEncryptionConfig kMSEncryptionConfig) {
@@ -202,12 +174,7 @@ class HandlerUtils {
 		if (kMSEncryptionConfigCollection == null) {
 			return null;
 		}
-		return Collections2.transform(kMSEncryptionConfigCollection, new Function<KMSEncryptionConfig, software.amazon.awssdk.services.firehose.model.KMSEncryptionConfig>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.KMSEncryptionConfig apply(final KMSEncryptionConfig input) {
-				return translateKMSEncryptionConfig(input);
-			}
-		});
+		return kMSEncryptionConfigCollection.stream().map(HandlerUtils::translateKMSEncryptionConfig).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.CloudWatchLoggingOptions translateCloudWatchLoggingOptions(final CloudWatchLoggingOptions cloudWatchLoggingOptions) {
@@ -225,12 +192,7 @@ class HandlerUtils {
 		if (cloudWatchLoggingOptionsCollection == null) {
 			return null;
 		}
-		return Collections2.transform(cloudWatchLoggingOptionsCollection, new Function<CloudWatchLoggingOptions, software.amazon.awssdk.services.firehose.model.CloudWatchLoggingOptions>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.CloudWatchLoggingOptions apply(final CloudWatchLoggingOptions input) {
-				return translateCloudWatchLoggingOptions(input);
-			}
-		});
+		return cloudWatchLoggingOptionsCollection.stream().map(HandlerUtils::translateCloudWatchLoggingOptions).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.RedshiftDestinationConfiguration translateRedshiftDestinationConfiguration(final RedshiftDestinationConfiguration redshiftDestinationConfiguration) {
@@ -256,12 +218,7 @@ class HandlerUtils {
 		if (redshiftDestinationConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(redshiftDestinationConfigurationCollection, new Function<RedshiftDestinationConfiguration, software.amazon.awssdk.services.firehose.model.RedshiftDestinationConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.RedshiftDestinationConfiguration apply(final RedshiftDestinationConfiguration input) {
-				return translateRedshiftDestinationConfiguration(input);
-			}
-		});
+		return redshiftDestinationConfigurationCollection.stream().map(HandlerUtils::translateRedshiftDestinationConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.CopyCommand translateCopyCommand(final CopyCommand copyCommand) {
@@ -279,12 +236,7 @@ class HandlerUtils {
 		if (copyCommandCollection == null) {
 			return null;
 		}
-		return Collections2.transform(copyCommandCollection, new Function<CopyCommand, software.amazon.awssdk.services.firehose.model.CopyCommand>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.CopyCommand apply(final CopyCommand input) {
-				return translateCopyCommand(input);
-			}
-		});
+		return copyCommandCollection.stream().map(HandlerUtils::translateCopyCommand).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.ElasticsearchDestinationConfiguration translateElasticsearchDestinationConfiguration(final ElasticsearchDestinationConfiguration elasticsearchDestinationConfiguration) {
@@ -363,12 +315,7 @@ class HandlerUtils {
 		if (elasticsearchDestinationConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(elasticsearchDestinationConfigurationCollection, new Function<ElasticsearchDestinationConfiguration, software.amazon.awssdk.services.firehose.model.ElasticsearchDestinationConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.ElasticsearchDestinationConfiguration apply(final ElasticsearchDestinationConfiguration input) {
-				return translateElasticsearchDestinationConfiguration(input);
-			}
-		});
+		return elasticsearchDestinationConfigurationCollection.stream().map(HandlerUtils::translateElasticsearchDestinationConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.ElasticsearchBufferingHints translateElasticsearchBufferingHints(final ElasticsearchBufferingHints elasticsearchBufferingHints) {
@@ -385,12 +332,7 @@ class HandlerUtils {
 		if (elasticsearchBufferingHintsCollection == null) {
 			return null;
 		}
-		return Collections2.transform(elasticsearchBufferingHintsCollection, new Function<ElasticsearchBufferingHints, software.amazon.awssdk.services.firehose.model.ElasticsearchBufferingHints>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.ElasticsearchBufferingHints apply(final ElasticsearchBufferingHints input) {
-				return translateElasticsearchBufferingHints(input);
-			}
-		});
+		return elasticsearchBufferingHintsCollection.stream().map(HandlerUtils::translateElasticsearchBufferingHints).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.ElasticsearchRetryOptions translateElasticsearchRetryOptions(final ElasticsearchRetryOptions elasticsearchRetryOptions) {
@@ -406,12 +348,7 @@ class HandlerUtils {
 		if (elasticsearchRetryOptionsCollection == null) {
 			return null;
 		}
-		return Collections2.transform(elasticsearchRetryOptionsCollection, new Function<ElasticsearchRetryOptions, software.amazon.awssdk.services.firehose.model.ElasticsearchRetryOptions>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.ElasticsearchRetryOptions apply(final ElasticsearchRetryOptions input) {
-				return translateElasticsearchRetryOptions(input);
-			}
-		});
+		return elasticsearchRetryOptionsCollection.stream().map(HandlerUtils::translateElasticsearchRetryOptions).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.ProcessingConfiguration translateProcessingConfiguration(final ProcessingConfiguration processingConfiguration) {
@@ -428,12 +365,7 @@ class HandlerUtils {
 		if (processingConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(processingConfigurationCollection, new Function<ProcessingConfiguration, software.amazon.awssdk.services.firehose.model.ProcessingConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.ProcessingConfiguration apply(final ProcessingConfiguration input) {
-				return translateProcessingConfiguration(input);
-			}
-		});
+		return processingConfigurationCollection.stream().map(HandlerUtils::translateProcessingConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.Processor translateProcessor(final Processor processor) {
@@ -450,12 +382,7 @@ class HandlerUtils {
 		if (processorCollection == null) {
 			return null;
 		}
-		return Collections2.transform(processorCollection, new Function<Processor, software.amazon.awssdk.services.firehose.model.Processor>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.Processor apply(final Processor input) {
-				return translateProcessor(input);
-			}
-		});
+		return processorCollection.stream().map(HandlerUtils::translateProcessor).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.ProcessorParameter translateProcessorParameter(final ProcessorParameter processorParameter) {
@@ -472,12 +399,7 @@ class HandlerUtils {
 		if (processorParameterCollection == null) {
 			return null;
 		}
-		return Collections2.transform(processorParameterCollection, new Function<ProcessorParameter, software.amazon.awssdk.services.firehose.model.ProcessorParameter>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.ProcessorParameter apply(final ProcessorParameter input) {
-				return translateProcessorParameter(input);
-			}
-		});
+		return processorParameterCollection.stream().map(HandlerUtils::translateProcessorParameter).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.DataFormatConversionConfiguration translateDataFormatConversionConfiguration(final DataFormatConversionConfiguration dataFormatConversionConfiguration) {
@@ -496,12 +418,7 @@ class HandlerUtils {
 		if (dataFormatConversionConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(dataFormatConversionConfigurationCollection, new Function<DataFormatConversionConfiguration, software.amazon.awssdk.services.firehose.model.DataFormatConversionConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.DataFormatConversionConfiguration apply(final DataFormatConversionConfiguration input) {
-				return translateDataFormatConversionConfiguration(input);
-			}
-		});
+		return dataFormatConversionConfigurationCollection.stream().map(HandlerUtils::translateDataFormatConversionConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.SchemaConfiguration translateSchemaConfiguration(final SchemaConfiguration schemaConfiguration) {
@@ -522,12 +439,7 @@ class HandlerUtils {
 		if (schemaConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(schemaConfigurationCollection, new Function<SchemaConfiguration, software.amazon.awssdk.services.firehose.model.SchemaConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.SchemaConfiguration apply(final SchemaConfiguration input) {
-				return translateSchemaConfiguration(input);
-			}
-		});
+		return schemaConfigurationCollection.stream().map(HandlerUtils::translateSchemaConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.InputFormatConfiguration translateInputFormatConfiguration(final InputFormatConfiguration inputFormatConfiguration) {
@@ -543,12 +455,7 @@ class HandlerUtils {
 		if (inputFormatConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(inputFormatConfigurationCollection, new Function<InputFormatConfiguration, software.amazon.awssdk.services.firehose.model.InputFormatConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.InputFormatConfiguration apply(final InputFormatConfiguration input) {
-				return translateInputFormatConfiguration(input);
-			}
-		});
+		return inputFormatConfigurationCollection.stream().map(HandlerUtils::translateInputFormatConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.Deserializer translateDeserializer(final Deserializer deserializer) {
@@ -565,12 +472,7 @@ class HandlerUtils {
 		if (deserializerCollection == null) {
 			return null;
 		}
-		return Collections2.transform(deserializerCollection, new Function<Deserializer, software.amazon.awssdk.services.firehose.model.Deserializer>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.Deserializer apply(final Deserializer input) {
-				return translateDeserializer(input);
-			}
-		});
+		return deserializerCollection.stream().map(HandlerUtils::translateDeserializer).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.OutputFormatConfiguration translateOutputFormatConfiguration(final OutputFormatConfiguration outputFormatConfiguration) {
@@ -586,12 +488,7 @@ class HandlerUtils {
 		if (outputFormatConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(outputFormatConfigurationCollection, new Function<OutputFormatConfiguration, software.amazon.awssdk.services.firehose.model.OutputFormatConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.OutputFormatConfiguration apply(final OutputFormatConfiguration input) {
-				return translateOutputFormatConfiguration(input);
-			}
-		});
+		return outputFormatConfigurationCollection.stream().map(HandlerUtils::translateOutputFormatConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.Serializer translateSerializer(final Serializer serializer) {
@@ -608,12 +505,7 @@ class HandlerUtils {
 		if (serializerCollection == null) {
 			return null;
 		}
-		return Collections2.transform(serializerCollection, new Function<Serializer, software.amazon.awssdk.services.firehose.model.Serializer>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.Serializer apply(final Serializer input) {
-				return translateSerializer(input);
-			}
-		});
+		return serializerCollection.stream().map(HandlerUtils::translateSerializer).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.OpenXJsonSerDe translateOpenXJsonSerDe(final OpenXJsonSerDe openXJsonSerDe) {
@@ -631,12 +523,7 @@ class HandlerUtils {
 		if (openXJsonSerDeCollection == null) {
 			return null;
 		}
-		return Collections2.transform(openXJsonSerDeCollection, new Function<OpenXJsonSerDe, software.amazon.awssdk.services.firehose.model.OpenXJsonSerDe>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.OpenXJsonSerDe apply(final OpenXJsonSerDe input) {
-				return translateOpenXJsonSerDe(input);
-			}
-		});
+		return openXJsonSerDeCollection.stream().map(HandlerUtils::translateOpenXJsonSerDe).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.HiveJsonSerDe translateHiveJsonSerDe(final HiveJsonSerDe hiveJsonSerDe) {
@@ -652,12 +539,7 @@ class HandlerUtils {
 		if (hiveJsonSerDeCollection == null) {
 			return null;
 		}
-		return Collections2.transform(hiveJsonSerDeCollection, new Function<HiveJsonSerDe, software.amazon.awssdk.services.firehose.model.HiveJsonSerDe>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.HiveJsonSerDe apply(final HiveJsonSerDe input) {
-				return translateHiveJsonSerDe(input);
-			}
-		});
+		return hiveJsonSerDeCollection.stream().map(HandlerUtils::translateHiveJsonSerDe).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.ParquetSerDe translateParquetSerDe(final ParquetSerDe parquetSerDe) {
@@ -678,12 +560,7 @@ class HandlerUtils {
 		if (parquetSerDeCollection == null) {
 			return null;
 		}
-		return Collections2.transform(parquetSerDeCollection, new Function<ParquetSerDe, software.amazon.awssdk.services.firehose.model.ParquetSerDe>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.ParquetSerDe apply(final ParquetSerDe input) {
-				return translateParquetSerDe(input);
-			}
-		});
+		return parquetSerDeCollection.stream().map(HandlerUtils::translateParquetSerDe).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.OrcSerDe translateOrcSerDe(final OrcSerDe orcSerDe) {
@@ -708,12 +585,7 @@ class HandlerUtils {
 		if (orcSerDeCollection == null) {
 			return null;
 		}
-		return Collections2.transform(orcSerDeCollection, new Function<OrcSerDe, software.amazon.awssdk.services.firehose.model.OrcSerDe>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.OrcSerDe apply(final OrcSerDe input) {
-				return translateOrcSerDe(input);
-			}
-		});
+		return orcSerDeCollection.stream().map(HandlerUtils::translateOrcSerDe).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.SplunkDestinationConfiguration translateSplunkDestinationConfiguration(final SplunkDestinationConfiguration splunkDestinationConfiguration) {
@@ -737,12 +609,7 @@ class HandlerUtils {
 		if (splunkDestinationConfigurationCollection == null) {
 			return null;
 		}
-		return Collections2.transform(splunkDestinationConfigurationCollection, new Function<SplunkDestinationConfiguration, software.amazon.awssdk.services.firehose.model.SplunkDestinationConfiguration>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.SplunkDestinationConfiguration apply(final SplunkDestinationConfiguration input) {
-				return translateSplunkDestinationConfiguration(input);
-			}
-		});
+		return splunkDestinationConfigurationCollection.stream().map(HandlerUtils::translateSplunkDestinationConfiguration).collect(Collectors.toList());
 	}
 
 	 static software.amazon.awssdk.services.firehose.model.SplunkRetryOptions translateSplunkRetryOptions(final SplunkRetryOptions splunkRetryOptions) {
@@ -758,12 +625,7 @@ class HandlerUtils {
 		if (splunkRetryOptionsCollection == null) {
 			return null;
 		}
-		return Collections2.transform(splunkRetryOptionsCollection, new Function<SplunkRetryOptions, software.amazon.awssdk.services.firehose.model.SplunkRetryOptions>() {
-			@Override
-			public software.amazon.awssdk.services.firehose.model.SplunkRetryOptions apply(final SplunkRetryOptions input) {
-				return translateSplunkRetryOptions(input);
-			}
-		});
+		return splunkRetryOptionsCollection.stream().map(HandlerUtils::translateSplunkRetryOptions).collect(Collectors.toList());
 	}
 
 	static S3DestinationUpdate translateS3DestinationUpdate(final S3DestinationConfiguration s3DestinationConfiguration) {
@@ -1187,17 +1049,16 @@ class HandlerUtils {
 				.build();
 	}
 
-	static boolean doesDeliveryStreamExistWithName(final String deliveryStreamName,
-												   final FirehoseAPIWrapper firehoseAPIWrapper) {
-		if (StringUtils.isNullOrEmpty(deliveryStreamName)) {
-			return false;
-		}
-		try {
-			firehoseAPIWrapper.describeDeliveryStream(deliveryStreamName);
-			return true;
-		} catch (ResourceNotFoundException e) {
-			return false;
-		}
+	// The handler stopped because its invocation ran out of time, not because the stream is still changing, so the next
+	// invocation can start right away.
+	static final int OUT_OF_TIME_CALLBACK_DELAY_SECONDS = 1;
+
+	static ProgressEvent<ResourceModel, CallbackContext> continueInNextInvocation(final ResourceModel model,
+																				  final CallbackContext callbackContext,
+																				  final Logger logger) {
+		logger.log(String.format("Not enough invocation time left for another call on the delivery stream name %s. Continuing in the next invocation.",
+			model.getDeliveryStreamName()));
+		return ProgressEvent.defaultInProgressHandler(callbackContext, OUT_OF_TIME_CALLBACK_DELAY_SECONDS, model);
 	}
 
 	public static final List<Tag> translateFirehoseSDKTagsToCfnModelTags(final List<software.amazon.awssdk.services.firehose.model.Tag> tags) {
@@ -1248,7 +1109,7 @@ class HandlerUtils {
 		} else {
 			Set<Tag> firstTagSet = new HashSet<>(first);
 			Set<Tag> secondTagSet = new HashSet<>(second);
-			return Sets.difference(firstTagSet, secondTagSet).stream().map(Tag::getKey).collect(Collectors.toList());
+			return firstTagSet.stream().filter(tag -> !secondTagSet.contains(tag)).map(Tag::getKey).collect(Collectors.toList());
 		}
 	}
 
@@ -0,0 +1,88 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+
+/**
+ * The time budget of one handler invocation: FIREHOSE_INVOCATION_BUDGET_MILLIS from when the handler was called, since
+ * the rpdk LambdaWrapper does not pass on the Lambda context's remaining time. Firehose calls get timeouts that end
+ * before it, and a handler without {@link #hasTimeForCall()} returns IN_PROGRESS to go on in the next invocation.
+ */
+final class InvocationDeadline {
+    static final String INVOCATION_BUDGET_MILLIS_SETTING = "FIREHOSE_INVOCATION_BUDGET_MILLIS";
+    static final String RESERVE_MILLIS_SETTING = "FIREHOSE_INVOCATION_RESERVE_MILLIS";
+    static final String MIN_CALL_BUDGET_MILLIS_SETTING = "FIREHOSE_MIN_CALL_BUDGET_MILLIS";
+    static final String ATTEMPT_TIMEOUT_MILLIS_SETTING = "FIREHOSE_API_CALL_ATTEMPT_TIMEOUT_MILLIS";
+
+    // CloudFormation expects a resource handler to answer each invocation within a minute.
+    private static final int DEFAULT_INVOCATION_BUDGET_MILLIS = 60_000;
+    // Kept back after the last call so the handler can still build its ProgressEvent and the wrapper can send it.
+    private static final int DEFAULT_RESERVE_MILLIS = 3_000;
+    // With less time than this a Firehose call is unlikely to complete, so the handler checkpoints instead.
+    private static final int DEFAULT_MIN_CALL_BUDGET_MILLIS = 2_000;
+    private static final int DEFAULT_ATTEMPT_TIMEOUT_MILLIS = 10_000;
+
+    private final LongSupplier clockMillis;
+    private final long deadlineMillis;
+    private final long reserveMillis;
+    private final long minCallBudgetMillis;
+    private final long attemptTimeoutMillis;
+
+    private InvocationDeadline(final LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
+        this.deadlineMillis = clockMillis.getAsLong()
+            + HandlerSettings.getInt(INVOCATION_BUDGET_MILLIS_SETTING, DEFAULT_INVOCATION_BUDGET_MILLIS);
+        this.reserveMillis = HandlerSettings.getInt(RESERVE_MILLIS_SETTING, DEFAULT_RESERVE_MILLIS);
+        this.minCallBudgetMillis = HandlerSettings.getInt(MIN_CALL_BUDGET_MILLIS_SETTING, DEFAULT_MIN_CALL_BUDGET_MILLIS);
+        this.attemptTimeoutMillis = HandlerSettings.getInt(ATTEMPT_TIMEOUT_MILLIS_SETTING, DEFAULT_ATTEMPT_TIMEOUT_MILLIS);
+    }
+
+    static InvocationDeadline start() {
+        // Monotonic, so a wall clock adjustment during the invocation cannot stretch or cut the budget.
+        return start(() -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    static InvocationDeadline start(final LongSupplier clockMillis) {
+        return new InvocationDeadline(clockMillis);
+    }
+
+    long remainingMillis() {
+        return Math.max(0, deadlineMillis - clockMillis.getAsLong());
+    }
+
+    boolean hasTimeForCall() {
+        return callBudgetMillis() >= minCallBudgetMillis;
+    }
+
+    // A call started without checking hasTimeForCall() still gets the minimum, rather than a timeout that has
+    // already passed.
+    Duration apiCallTimeout() {
+        return Duration.ofMillis(Math.max(callBudgetMillis(), minCallBudgetMillis));
+    }
+
+    Duration apiCallAttemptTimeout() {
+        return Duration.ofMillis(Math.min(attemptTimeoutMillis, apiCallTimeout().toMillis()));
+    }
+
+    /**
+     * Returns a copy of the request carrying the current call and attempt timeouts. Any existing override
+     * configuration, such as the credentials injected by the proxy, is kept.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends AwsRequest> T applyTo(final T request) {
+        final AwsRequestOverrideConfiguration overrideConfiguration = request.overrideConfiguration()
+            .map(AwsRequestOverrideConfiguration::toBuilder)
+            .orElseGet(AwsRequestOverrideConfiguration::builder)
+            .apiCallTimeout(apiCallTimeout())
+            .apiCallAttemptTimeout(apiCallAttemptTimeout())
+            .build();
+        return (T) request.toBuilder().overrideConfiguration(overrideConfiguration).build();
+    }
+
+    private long callBudgetMillis() {
+        return remainingMillis() - reserveMillis;
+    }
+}
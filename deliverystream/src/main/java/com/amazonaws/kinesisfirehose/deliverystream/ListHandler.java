@@ -1,7 +1,6 @@
 package com.amazonaws.kinesisfirehose.deliverystream;
 
 import com.amazonaws.kinesisfirehose.deliverystream.HandlerUtils.HandlerType;
-import software.amazon.awssdk.services.firehose.FirehoseClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -16,7 +15,6 @@ import lombok.val;
 
 public class ListHandler extends BaseHandler<CallbackContext> {
     static final int LIST_RESULT_LIMIT = 50;
-    private final FirehoseClient firehoseClient = FirehoseClient.create();
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -25,9 +23,8 @@ public class ListHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
-        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().firehoseClient(firehoseClient)
-            .clientProxy(proxy)
-            .build();
+        // List has to answer in one invocation, so the deadline only bounds its call.
+        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().clientProxy(proxy).invocationDeadline(InvocationDeadline.start()).build();
         List<ResourceModel> models = new ArrayList<>();
         try {
             val response = firehoseAPIWrapper.listDeliveryStreams(request.getNextToken(), LIST_RESULT_LIMIT);
@@ -3,7 +3,7 @@ package com.amazonaws.kinesisfirehose.deliverystream;
 import com.amazonaws.kinesisfirehose.deliverystream.HandlerUtils.HandlerType;
 import java.util.Collections;
 import java.util.List;
-import software.amazon.awssdk.services.firehose.FirehoseClient;
+import java.util.concurrent.CompletableFuture;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
 import software.amazon.awssdk.services.firehose.model.DestinationDescription;
 import software.amazon.awssdk.services.firehose.model.FirehoseException;
@@ -15,8 +15,8 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import lombok.val;
 
 public class ReadHandler extends BaseHandler<CallbackContext> {
-
-    private final FirehoseClient firehoseClient = FirehoseClient.create();
+    // When true, the tags are listed while DescribeDeliveryStream is still in flight instead of after it returns.
+    static final String CONCURRENT_CALLS_SETTING = "FIREHOSE_READ_CONCURRENT_CALLS";
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -24,13 +24,29 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
             final ResourceHandlerRequest<ResourceModel> request,
             final CallbackContext callbackContext,
             final Logger logger) {
-        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().firehoseClient(firehoseClient).clientProxy(proxy).build();
+        // Read has to answer in one invocation, so the deadline only bounds its calls.
+        val invocationDeadline = InvocationDeadline.start();
+        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().clientProxy(proxy).invocationDeadline(invocationDeadline).build();
         final ResourceModel model = request.getDesiredResourceState();
         logger.log(String.format("Read Handler called with id %s.", model.getDeliveryStreamName()));
+        val firehoseAsyncAPIWrapper = concurrentCalls(logger)
+            ? FirehoseAsyncAPIWrapper.builder().clientProxy(proxy).invocationDeadline(invocationDeadline).build() : null;
         DeliveryStreamDescription deliveryStreamDescription = null;
+        CompletableFuture<List<Tag>> pendingTags = null;
         try {
-            deliveryStreamDescription = firehoseAPIWrapper.describeDeliveryStream(model.getDeliveryStreamName()).deliveryStreamDescription();
+            if (firehoseAsyncAPIWrapper != null) {
+                // Neither call needs the other's result, so both are sent before waiting on either.
+                pendingTags = firehoseAsyncAPIWrapper
+                    .listAllTagsOnDeliveryStream(model.getDeliveryStreamName(), HandlerUtils.LIST_TAGS_RESULT_LIMIT);
+                deliveryStreamDescription = FirehoseAsyncAPIWrapper.join(
+                    firehoseAsyncAPIWrapper.describeDeliveryStream(model.getDeliveryStreamName())).deliveryStreamDescription();
+            } else {
+                deliveryStreamDescription = firehoseAPIWrapper.describeDeliveryStream(model.getDeliveryStreamName()).deliveryStreamDescription();
+            }
         } catch (Exception e) {
+            if (pendingTags != null) {
+                pendingTags.cancel(true);
+            }
             logger.log(String.format("DescribeDeliveryStream failed for the delivery stream name %s. Error message: %s",
                 model.getDeliveryStreamName(),
                 e.getMessage()));
@@ -38,8 +54,9 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
         }
         List<Tag> tags = Collections.emptyList();
         try {
-            tags = firehoseAPIWrapper
-                .listAllTagsOnDeliveryStream(model.getDeliveryStreamName(), HandlerUtils.LIST_TAGS_RESULT_LIMIT);
+            tags = pendingTags != null
+                ? FirehoseAsyncAPIWrapper.join(pendingTags)
+                : firehoseAPIWrapper.listAllTagsOnDeliveryStream(model.getDeliveryStreamName(), HandlerUtils.LIST_TAGS_RESULT_LIMIT);
         } catch (Exception e) {
             // Basically for newer APIs being added, it is possible that some of the customers have scoped down permissions, and the API might fail. We need to make sure that we handle those failures and
             // do not introduce a breaking change. Discussion https://t.corp.amazon.com/P40581493/communication and https://t.corp.amazon.com/issues/P40588329/communication.
@@ -59,7 +76,19 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
         return ProgressEvent.defaultSuccessHandler(model);
     }
 
-    private void hydrateDeliveryStreamResource(ResourceModel model, DeliveryStreamDescription deliveryStreamDescription, List<Tag> tags) {
+    private static boolean concurrentCalls(final Logger logger) {
+        if (!HandlerSettings.getBoolean(CONCURRENT_CALLS_SETTING, false)) {
+            return false;
+        }
+        if (!FirehoseClientProvider.isAsyncClientAvailable()) {
+            logger.log(String.format("%s is set, but the handlers were packaged without the asynchronous transport. "
+                + "Reading sequentially.", CONCURRENT_CALLS_SETTING));
+            return false;
+        }
+        return true;
+    }
+
+    static void hydrateDeliveryStreamResource(ResourceModel model, DeliveryStreamDescription deliveryStreamDescription, List<Tag> tags) {
         model.setArn(deliveryStreamDescription.deliveryStreamARN());
         model.setKinesisStreamSourceConfiguration(HandlerUtils.translateKinesisStreamSourceConfigurationToCfnModel(deliveryStreamDescription.source()));
         model.setDeliveryStreamType(deliveryStreamDescription.deliveryStreamTypeAsString());
@@ -68,7 +97,7 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
         model.setTags(HandlerUtils.translateFirehoseSDKTagsToCfnModelTags(tags.isEmpty() ? null : tags));
     }
 
-    private void setDestinationDescription(final ResourceModel model, final List<DestinationDescription> descriptions) {
+    private static void setDestinationDescription(final ResourceModel model, final List<DestinationDescription> descriptions) {
         descriptions.stream().forEach(destination -> {
             // If the delivery stream is created with extendedS3Destinations, when you query firehose to populate the state of the model, firehose populates both the
             // s3destination and extendedS3Destination. We need our model to truly reflect the state of the structure with which it was created which was only with extendedS3Destination.
@@ -0,0 +1,83 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Optional polling inside the handler invocation, right after a call that starts a status change.
+ *
+ * A stream that settles within seconds would otherwise wait for a full CloudFormation callback before the handler sees
+ * it. With FIREHOSE_SHORT_POLL_BUDGET_MILLIS set, the handler instead describes the stream every
+ * FIREHOSE_SHORT_POLL_INTERVAL_MILLIS for up to that budget, and answers SUCCESS or FAILED itself when the status
+ * settles. When the budget or the {@link InvocationDeadline} runs out first, or a describe fails, the handler returns
+ * IN_PROGRESS with the last status seen and the callback loop carries on as before. The budget defaults to 0, which
+ * turns the polling off.
+ */
+final class ShortPoller {
+    static final String BUDGET_MILLIS_SETTING = "FIREHOSE_SHORT_POLL_BUDGET_MILLIS";
+    static final String INTERVAL_MILLIS_SETTING = "FIREHOSE_SHORT_POLL_INTERVAL_MILLIS";
+
+    private static final int DEFAULT_BUDGET_MILLIS = 0;
+    // DescribeDeliveryStream is limited to a few calls per second per account, shared with every other caller.
+    private static final int DEFAULT_INTERVAL_MILLIS = 2_000;
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final InvocationDeadline invocationDeadline;
+    private final Sleeper sleeper;
+    private final long budgetMillis;
+    private final long intervalMillis;
+
+    private ShortPoller(final InvocationDeadline invocationDeadline, final Sleeper sleeper) {
+        this.invocationDeadline = invocationDeadline;
+        this.sleeper = sleeper;
+        this.budgetMillis = HandlerSettings.getInt(BUDGET_MILLIS_SETTING, DEFAULT_BUDGET_MILLIS);
+        this.intervalMillis = Math.max(1, HandlerSettings.getInt(INTERVAL_MILLIS_SETTING, DEFAULT_INTERVAL_MILLIS));
+    }
+
+    static ShortPoller of(final InvocationDeadline invocationDeadline) {
+        return of(invocationDeadline, Thread::sleep);
+    }
+
+    static ShortPoller of(final InvocationDeadline invocationDeadline, final Sleeper sleeper) {
+        return new ShortPoller(invocationDeadline, sleeper);
+    }
+
+    boolean isEnabled() {
+        return budgetMillis > 0;
+    }
+
+    /**
+     * Describes again while {@code stabilizing} holds for the last result, and returns the last result. The budget is
+     * counted from this call.
+     */
+    <T> T pollWhile(final T current, final Predicate<T> stabilizing, final Supplier<T> describe) {
+        if (!isEnabled()) {
+            return current;
+        }
+        // Polling stops once the time left in the invocation drops to this.
+        final long stopAtRemainingMillis = invocationDeadline.remainingMillis() - budgetMillis;
+        T last = current;
+        while (stabilizing.test(last) && invocationDeadline.remainingMillis() - intervalMillis >= stopAtRemainingMillis) {
+            try {
+                sleeper.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return last;
+            }
+            if (!invocationDeadline.hasTimeForCall()) {
+                return last;
+            }
+            try {
+                last = describe.get();
+            } catch (final RuntimeException e) {
+                // The callback loop retries a failed describe with its own backoff.
+                return last;
+            }
+        }
+        return last;
+    }
+}
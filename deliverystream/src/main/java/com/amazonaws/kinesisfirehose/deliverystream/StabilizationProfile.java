@@ -0,0 +1,48 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.time.Duration;
+import lombok.val;
+import software.amazon.awssdk.services.firehose.model.KeyType;
+
+/**
+ * How long a delivery stream is expected to take to stabilize, and so how it is polled. Create and delete pick a
+ * profile with {@link #forModel(ResourceModel)}; Update waits with {@link #UPDATE}.
+ */
+enum StabilizationProfile {
+    // Create and delete keep the 65 minute timeout they always had until measured times show a shorter one is safe.
+    //                 first  cadence                                       then  timeout
+    FAST(                 5, new int[][] {{20, 5}, {90, 15}, {600, 30}},   60, Duration.ofMinutes(65)),
+    STANDARD(            10, new int[][] {{180, 10}, {600, 30}},           60, Duration.ofMinutes(65)),
+    SLOW(                60, new int[][] {{900, 30}},                      60, Duration.ofMinutes(90)),
+    UPDATE(               5, new int[][] {{20, 5}, {90, 15}, {600, 30}},   60, Duration.ofMinutes(10));
+
+    private final StabilizationSchedule schedule;
+
+    StabilizationProfile(final int firstDelaySeconds,
+                         final int[][] cadence,
+                         final int maxDelaySeconds,
+                         final Duration timeout) {
+        this.schedule = new StabilizationSchedule(firstDelaySeconds, cadence, maxDelaySeconds, timeout);
+    }
+
+    StabilizationSchedule schedule() {
+        return schedule;
+    }
+
+    // Elasticsearch in a VPC sets up network interfaces and is the slowest; most other streams are ACTIVE in a minute.
+    static StabilizationProfile forModel(final ResourceModel model) {
+        val elasticsearch = model.getElasticsearchDestinationConfiguration();
+        if (elasticsearch != null && elasticsearch.getVpcConfiguration() != null) {
+            return SLOW;
+        }
+        if (elasticsearch != null || model.getKinesisStreamSourceConfiguration() != null || usesCustomerManagedKey(model)) {
+            return STANDARD;
+        }
+        return FAST;
+    }
+
+    private static boolean usesCustomerManagedKey(final ResourceModel model) {
+        val encryption = model.getDeliveryStreamEncryptionConfigurationInput();
+        return encryption != null && KeyType.CUSTOMER_MANAGED_CMK.toString().equals(encryption.getKeyType());
+    }
+}
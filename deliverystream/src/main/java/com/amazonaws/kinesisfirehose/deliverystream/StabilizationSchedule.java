@@ -0,0 +1,257 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionStatus;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
+
+/**
+ * Chooses how long CloudFormation waits before calling a handler back to poll a delivery stream that is still
+ * stabilizing. The delay grows with the time spent stabilizing, following the cadence of a
+ * {@link StabilizationProfile}, and the stabilization times out at the deadline recorded when it started.
+ */
+final class StabilizationSchedule {
+    static final int MIN_DELAY_WITHOUT_STATUS_SECONDS = 30;
+    // After this many polls no delay is shorter than BACKED_OFF_DELAY_SECONDS, to ration the describes.
+    static final int SHORT_POLLS = 8;
+    static final int BACKED_OFF_DELAY_SECONDS = 30;
+    static final String JITTER_PERCENT_SETTING = "FIREHOSE_CALLBACK_JITTER_PERCENT";
+
+    private static final int DEFAULT_JITTER_PERCENT = 20;
+
+    private final int firstDelaySeconds;
+    private final long[] elapsedLimitsSeconds;
+    private final int[] delaysSeconds;
+    private final int maxDelaySeconds;
+    private final Duration timeout;
+    private final int pollBudget;
+    private final LongSupplier clockMillis;
+
+    /**
+     * @param cadence rows of {elapsed seconds, delay seconds}: the delay used until the elapsed time reaches the limit.
+     *                The limits must be increasing.
+     */
+    StabilizationSchedule(final int firstDelaySeconds,
+                          final int[][] cadence,
+                          final int maxDelaySeconds,
+                          final Duration timeout) {
+        this(firstDelaySeconds, cadence, maxDelaySeconds, timeout, System::currentTimeMillis);
+    }
+
+    // The wall clock, since a stabilization spans invocations that may run in different execution environments.
+    StabilizationSchedule(final int firstDelaySeconds,
+                          final int[][] cadence,
+                          final int maxDelaySeconds,
+                          final Duration timeout,
+                          final LongSupplier clockMillis) {
+        this.firstDelaySeconds = firstDelaySeconds;
+        this.elapsedLimitsSeconds = new long[cadence.length];
+        this.delaysSeconds = new int[cadence.length];
+        for (int i = 0; i < cadence.length; i++) {
+            elapsedLimitsSeconds[i] = cadence[i][0];
+            delaysSeconds[i] = cadence[i][1];
+        }
+        this.maxDelaySeconds = maxDelaySeconds;
+        this.timeout = timeout;
+        this.pollBudget = pollsWithin(timeout);
+        this.clockMillis = clockMillis;
+    }
+
+    int pollBudget() {
+        return pollBudget;
+    }
+
+    /**
+     * A context for a stabilization that starts now.
+     */
+    CallbackContext.CallbackContextBuilder newStabilization() {
+        final long nowMillis = clockMillis.getAsLong();
+        return CallbackContext.builder()
+            .stabilizationRetriesRemaining(pollBudget)
+            .stabilizationStartedAtMillis(nowMillis)
+            .stabilizationDeadlineMillis(nowMillis + timeout.toMillis())
+            .stabilizationTelemetry(StabilizationTelemetry.start(nowMillis));
+    }
+
+    /**
+     * A context for the poll after {@code context}, in the same stabilization.
+     */
+    CallbackContext.CallbackContextBuilder nextPoll(final CallbackContext context) {
+        final StabilizationTelemetry telemetry = context.getStabilizationTelemetry();
+        return CallbackContext.builder()
+            .stabilizationRetriesRemaining(context.getStabilizationRetriesRemaining() - 1)
+            .stabilizationStartedAtMillis(context.getStabilizationStartedAtMillis())
+            .stabilizationDeadlineMillis(context.getStabilizationDeadlineMillis())
+            .stabilizationTelemetry(telemetry == null ? null : telemetry.nextCallback(clockMillis.getAsLong()))
+            .completedUpdateSteps(context.getCompletedUpdateSteps());
+    }
+
+    boolean isTimedOut(final CallbackContext context) {
+        if (context.getStabilizationDeadlineMillis() != null) {
+            return clockMillis.getAsLong() >= context.getStabilizationDeadlineMillis();
+        }
+        return context.getStabilizationRetriesRemaining() <= 0;
+    }
+
+    /**
+     * The delay before the next poll, for a callback context whose poll budget started at {@link #pollBudget()}.
+     */
+    int nextDelaySeconds(final CallbackContext nextContext) {
+        return isStabilizing(nextContext)
+            ? scheduledDelaySeconds(nextContext)
+            : nextDelayWithoutStatusSeconds(nextContext);
+    }
+
+    /**
+     * The delay before the next poll when the last describe failed, whatever status the context still carries.
+     */
+    int nextDelayWithoutStatusSeconds(final CallbackContext nextContext) {
+        return Math.max(scheduledDelaySeconds(nextContext), MIN_DELAY_WITHOUT_STATUS_SECONDS);
+    }
+
+    /**
+     * {@link #nextDelaySeconds(CallbackContext)} with the jitter for the delivery stream named {@code jitterSeed}. The
+     * poll and its status, none meaning the describe failed, are recorded in the telemetry of {@code nextContext}.
+     */
+    int nextDelaySeconds(final CallbackContext nextContext, final String jitterSeed) {
+        final int delaySeconds = withJitter(nextDelaySeconds(nextContext), jitterSeed, nextContext.getStabilizationRetriesRemaining());
+        recordPoll(nextContext, nextContext.getDeliveryStreamStatus(), nextContext.getDeliveryStreamEncryptionStatus(), delaySeconds);
+        return delaySeconds;
+    }
+
+    /**
+     * {@link #nextDelayWithoutStatusSeconds(CallbackContext)} with the jitter for the delivery stream named
+     * {@code jitterSeed}. The failed describe is recorded in the telemetry of {@code nextContext}.
+     */
+    int nextDelayWithoutStatusSeconds(final CallbackContext nextContext, final String jitterSeed) {
+        final int delaySeconds = withJitter(nextDelayWithoutStatusSeconds(nextContext), jitterSeed, nextContext.getStabilizationRetriesRemaining());
+        recordPoll(nextContext, null, null, delaySeconds);
+        return delaySeconds;
+    }
+
+    private void recordPoll(final CallbackContext nextContext,
+                            final String deliveryStreamStatus,
+                            final String deliveryStreamEncryptionStatus,
+                            final int delaySeconds) {
+        final StabilizationTelemetry telemetry = nextContext.getStabilizationTelemetry();
+        if (telemetry != null) {
+            final long nowMillis = clockMillis.getAsLong();
+            telemetry.observed(nowMillis, deliveryStreamStatus, deliveryStreamEncryptionStatus);
+            telemetry.pollScheduled(nowMillis, delaySeconds);
+        }
+    }
+
+    /**
+     * Logs the telemetry of a stabilization that ended with the statuses in {@code finalContext}.
+     */
+    void logStabilized(final Logger logger, final CallbackContext finalContext) {
+        final StabilizationTelemetry telemetry = finalContext.getStabilizationTelemetry();
+        if (telemetry == null) {
+            return;
+        }
+        final long nowMillis = clockMillis.getAsLong();
+        telemetry.observed(nowMillis, finalContext.getDeliveryStreamStatus(), finalContext.getDeliveryStreamEncryptionStatus());
+        final String outcome = finalContext.getDeliveryStreamEncryptionStatus() == null
+            ? finalContext.getDeliveryStreamStatus()
+            : finalContext.getDeliveryStreamStatus() + "/" + finalContext.getDeliveryStreamEncryptionStatus();
+        logger.log(telemetry.summary(nowMillis, outcome));
+    }
+
+    /**
+     * Logs the telemetry of a stabilization that timed out while waiting on {@code context}.
+     */
+    void logTimedOut(final Logger logger, final CallbackContext context) {
+        final StabilizationTelemetry telemetry = context.getStabilizationTelemetry();
+        if (telemetry != null) {
+            final long nowMillis = clockMillis.getAsLong();
+            logger.log(telemetry.nextCallback(nowMillis).summary(nowMillis, "TIMED_OUT"));
+        }
+    }
+
+    private static int withJitter(final int delaySeconds, final String jitterSeed, final Integer poll) {
+        return withJitter(delaySeconds, jitterSeed, poll == null ? 0 : poll,
+            HandlerSettings.getInt(JITTER_PERCENT_SETTING, DEFAULT_JITTER_PERCENT));
+    }
+
+    /**
+     * Lengthens {@code delaySeconds} by up to {@code jitterPercent} of it, so that streams created together do not poll
+     * in step. The same seed and poll always get the same delay.
+     */
+    static int withJitter(final int delaySeconds, final String jitterSeed, final int poll, final int jitterPercent) {
+        if (jitterPercent <= 0 || jitterSeed == null) {
+            return delaySeconds;
+        }
+        final int maxJitterSeconds = (delaySeconds * jitterPercent + 99) / 100;
+        return delaySeconds + (int) (spread(jitterSeed, poll) * (maxJitterSeconds + 1));
+    }
+
+    // A fraction in [0, 1), mixed so that names differing in one character still land far apart.
+    private static double spread(final String jitterSeed, final int poll) {
+        int hash = 31 * jitterSeed.hashCode() + poll;
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (hash & 0xffffffffL) / (double) (1L << 32);
+    }
+
+    private int scheduledDelaySeconds(final CallbackContext nextContext) {
+        final int pollsUsed = Math.max(0, pollBudget - nextContext.getStabilizationRetriesRemaining());
+        if (nextContext.getStabilizationStartedAtMillis() != null) {
+            final long elapsedMillis = clockMillis.getAsLong() - nextContext.getStabilizationStartedAtMillis();
+            return delaySeconds(Math.max(0, elapsedMillis / 1000), pollsUsed);
+        }
+        return delaySeconds(elapsedSeconds(pollsUsed), pollsUsed);
+    }
+
+    /**
+     * The delay before the next poll, {@code elapsedSeconds} into a stabilization that has made {@code pollsUsed} polls.
+     */
+    int delaySeconds(final long elapsedSeconds, final int pollsUsed) {
+        final int delaySeconds = delaySeconds(elapsedSeconds);
+        return pollsUsed < SHORT_POLLS ? delaySeconds : Math.max(delaySeconds, BACKED_OFF_DELAY_SECONDS);
+    }
+
+    // The cadence alone, before the short polls are rationed.
+    int delaySeconds(final long elapsedSeconds) {
+        if (elapsedSeconds == 0) {
+            return firstDelaySeconds;
+        }
+        for (int i = 0; i < elapsedLimitsSeconds.length; i++) {
+            if (elapsedSeconds < elapsedLimitsSeconds[i]) {
+                return delaysSeconds[i];
+            }
+        }
+        return maxDelaySeconds;
+    }
+
+    long elapsedSeconds(final int pollsUsed) {
+        long elapsedSeconds = 0;
+        for (int i = 0; i < pollsUsed; i++) {
+            elapsedSeconds += delaySeconds(elapsedSeconds, i);
+        }
+        return elapsedSeconds;
+    }
+
+    private int pollsWithin(final Duration timeout) {
+        int polls = 0;
+        for (long elapsedSeconds = 0; elapsedSeconds < timeout.getSeconds(); polls++) {
+            elapsedSeconds += delaySeconds(elapsedSeconds, polls);
+        }
+        return polls;
+    }
+
+    // True when the last describe returned one of the statuses a stream passes through on its way to being stable, or
+    // when Update is waiting for its destination change to show up.
+    private static boolean isStabilizing(final CallbackContext context) {
+        final String status = context.getDeliveryStreamStatus();
+        final String encryptionStatus = context.getDeliveryStreamEncryptionStatus();
+        return context.getPreviousDeliveryStreamVersionId() != null
+            || DeliveryStreamStatus.CREATING.toString().equals(status)
+            || DeliveryStreamStatus.DELETING.toString().equals(status)
+            || DeliveryStreamEncryptionStatus.ENABLING.toString().equals(encryptionStatus)
+            || DeliveryStreamEncryptionStatus.DISABLING.toString().equals(encryptionStatus);
+    }
+}
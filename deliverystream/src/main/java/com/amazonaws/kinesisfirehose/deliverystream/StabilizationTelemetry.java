@@ -0,0 +1,109 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.amazonaws.util.StringUtils;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a stabilization spent its time on, carried in the CallbackContext from one callback to the next and logged by
+ * {@link StabilizationSchedule} once the stabilization ends.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class StabilizationTelemetry {
+
+    // Epoch milliseconds.
+    private Long startedAtMillis;
+    private Long lastPollAtMillis;
+    private Long nextPollDueAtMillis;
+    private String lastDeliveryStreamStatus;
+    private String lastDeliveryStreamEncryptionStatus;
+    private int polls;
+    private int describeErrors;
+    private long callbackOverheadMillis;
+    private Map<String, Long> millisByDeliveryStreamStatus;
+    private Map<String, Long> millisByDeliveryStreamEncryptionStatus;
+
+    static StabilizationTelemetry start(final long nowMillis) {
+        return StabilizationTelemetry.builder()
+            .startedAtMillis(nowMillis)
+            .lastPollAtMillis(nowMillis)
+            .millisByDeliveryStreamStatus(new TreeMap<>())
+            .millisByDeliveryStreamEncryptionStatus(new TreeMap<>())
+            .build();
+    }
+
+    /**
+     * A copy for the callback poll that starts at {@code nowMillis}, with the time it came later than scheduled added.
+     */
+    StabilizationTelemetry nextCallback(final long nowMillis) {
+        final StabilizationTelemetry next = toBuilder()
+            .nextPollDueAtMillis(null)
+            .polls(polls + 1)
+            .millisByDeliveryStreamStatus(copy(millisByDeliveryStreamStatus))
+            .millisByDeliveryStreamEncryptionStatus(copy(millisByDeliveryStreamEncryptionStatus))
+            .build();
+        if (nextPollDueAtMillis != null) {
+            next.callbackOverheadMillis += Math.max(0, nowMillis - nextPollDueAtMillis);
+        }
+        return next;
+    }
+
+    /**
+     * Records that the stream was seen in {@code deliveryStreamStatus}, or a failed describe when there is no status.
+     */
+    void observed(final long nowMillis, final String deliveryStreamStatus, final String deliveryStreamEncryptionStatus) {
+        charge(nowMillis);
+        if (StringUtils.isNullOrEmpty(deliveryStreamStatus)) {
+            describeErrors++;
+            return;
+        }
+        lastDeliveryStreamStatus = deliveryStreamStatus;
+        if (deliveryStreamEncryptionStatus != null) {
+            lastDeliveryStreamEncryptionStatus = deliveryStreamEncryptionStatus;
+        }
+    }
+
+    void pollScheduled(final long nowMillis, final int delaySeconds) {
+        nextPollDueAtMillis = nowMillis + delaySeconds * 1000L;
+    }
+
+    /**
+     * One log line on the stabilization, which ended at {@code nowMillis} with {@code outcome}.
+     */
+    String summary(final long nowMillis, final String outcome) {
+        charge(nowMillis);
+        return String.format("Stabilization summary: outcome=%s elapsedSeconds=%d polls=%d describeErrors=%d "
+                + "callbackOverheadSeconds=%d secondsByDeliveryStreamStatus=%s secondsByDeliveryStreamEncryptionStatus=%s",
+            outcome, (nowMillis - startedAtMillis) / 1000, polls, describeErrors, callbackOverheadMillis / 1000,
+            inSeconds(millisByDeliveryStreamStatus), inSeconds(millisByDeliveryStreamEncryptionStatus));
+    }
+
+    // The last status seen is charged until the next one is seen, across any failed describes in between.
+    private void charge(final long nowMillis) {
+        final long elapsedMillis = Math.max(0, nowMillis - lastPollAtMillis);
+        if (lastDeliveryStreamStatus != null) {
+            millisByDeliveryStreamStatus.merge(lastDeliveryStreamStatus, elapsedMillis, Long::sum);
+        }
+        if (lastDeliveryStreamEncryptionStatus != null) {
+            millisByDeliveryStreamEncryptionStatus.merge(lastDeliveryStreamEncryptionStatus, elapsedMillis, Long::sum);
+        }
+        lastPollAtMillis = nowMillis;
+    }
+
+    private static Map<String, Long> copy(final Map<String, Long> millisByStatus) {
+        return millisByStatus == null ? new TreeMap<>() : new TreeMap<>(millisByStatus);
+    }
+
+    private static Map<String, Long> inSeconds(final Map<String, Long> millisByStatus) {
+        final Map<String, Long> secondsByStatus = new TreeMap<>();
+        millisByStatus.forEach((status, millis) -> secondsByStatus.put(status, millis / 1000));
+        return secondsByStatus;
+    }
+}
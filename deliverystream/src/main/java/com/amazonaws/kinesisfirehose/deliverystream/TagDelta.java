@@ -0,0 +1,83 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.val;
+
+/**
+ * The tag calls an Update needs to bring the tags on a delivery stream from what they are to the desired resource and
+ * stack tags.
+ *
+ * A desired tag is only sent when the stream does not already have it with the same value, so a changed value is a
+ * single TagDeliveryStream rather than an untag and a tag. A key is only removed when it was one of the previous resource
+ * and stack tags and the stream still has it, which leaves alone the tags that were put on the stream outside of the
+ * stack. Both lists are sent in chunks of at most {@link #MAX_TAGS_PER_CALL}, the most a single call accepts.
+ */
+final class TagDelta {
+    static final int MAX_TAGS_PER_CALL = 50;
+
+    private final List<Tag> tagsToAdd;
+    private final List<String> tagKeysToRemove;
+
+    private TagDelta(final List<Tag> tagsToAdd, final List<String> tagKeysToRemove) {
+        this.tagsToAdd = tagsToAdd;
+        this.tagKeysToRemove = tagKeysToRemove;
+    }
+
+    static TagDelta of(final List<Tag> liveTags, final List<Tag> previousTags, final List<Tag> desiredTags) {
+        val liveValuesByKey = new HashMap<String, String>();
+        liveTags.forEach(tag -> liveValuesByKey.put(tag.getKey(), tag.getValue()));
+        val desiredKeys = new HashSet<String>();
+        val tagsToAdd = new ArrayList<Tag>();
+        for (val tag : desiredTags) {
+            desiredKeys.add(tag.getKey());
+            if (!liveValuesByKey.containsKey(tag.getKey()) || !Objects.equals(liveValuesByKey.get(tag.getKey()), tag.getValue())) {
+                tagsToAdd.add(tag);
+            }
+        }
+        val tagKeysToRemove = new ArrayList<String>();
+        for (val tag : previousTags) {
+            if (!desiredKeys.contains(tag.getKey()) && liveValuesByKey.containsKey(tag.getKey())
+                && !tagKeysToRemove.contains(tag.getKey())) {
+                tagKeysToRemove.add(tag.getKey());
+            }
+        }
+        return new TagDelta(tagsToAdd, tagKeysToRemove);
+    }
+
+    List<List<Tag>> tagsToAddInChunks() {
+        return chunks(tagsToAdd);
+    }
+
+    List<List<String>> tagKeysToRemoveInChunks() {
+        return chunks(tagKeysToRemove);
+    }
+
+    int tagsToAddCount() {
+        return tagsToAdd.size();
+    }
+
+    int tagKeysToRemoveCount() {
+        return tagKeysToRemove.size();
+    }
+
+    boolean isEmpty() {
+        return tagsToAdd.isEmpty() && tagKeysToRemove.isEmpty();
+    }
+
+    private static <T> List<List<T>> chunks(final List<T> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        val chunks = new ArrayList<List<T>>();
+        for (int from = 0; from < items.size(); from += MAX_TAGS_PER_CALL) {
+            chunks.add(items.subList(from, Math.min(from + MAX_TAGS_PER_CALL, items.size())));
+        }
+        return chunks;
+    }
+}
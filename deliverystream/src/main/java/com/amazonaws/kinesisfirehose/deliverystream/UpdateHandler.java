@@ -1,17 +1,15 @@
 package com.amazonaws.kinesisfirehose.deliverystream;
 
 import com.amazonaws.kinesisfirehose.deliverystream.HandlerUtils.HandlerType;
-import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import lombok.val;
-import software.amazon.awssdk.services.firehose.FirehoseClient;
-import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionConfiguration;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionStatus;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
 import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamResponse;
 import software.amazon.awssdk.services.firehose.model.FirehoseException;
 import software.amazon.awssdk.services.firehose.model.InvalidArgumentException;
-import software.amazon.awssdk.services.firehose.model.KeyType;
 import software.amazon.awssdk.services.firehose.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.firehose.model.UpdateDestinationRequest;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -21,11 +19,12 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class UpdateHandler extends BaseHandler<CallbackContext> {
 
-    private final FirehoseClient firehoseClient = FirehoseClient.create();
-    static final int NUMBER_OF_STATUS_POLL_RETRIES = 20;
+    private static final StabilizationSchedule STABILIZATION_SCHEDULE = StabilizationProfile.UPDATE.schedule();
+    static final int NUMBER_OF_STATUS_POLL_RETRIES = STABILIZATION_SCHEDULE.pollBudget();
     static final String TIMED_OUT_MESSAGE = "Timed out waiting for the delivery stream Update handler to stabilize";
+    static final String MINIMAL_DESTINATION_UPDATES_SETTING = "FIREHOSE_MINIMAL_DESTINATION_UPDATES";
+    static final int STEP_CALLBACK_DELAY_SECONDS = 1;
     static final String ERROR_DELIVERY_STREAM_ENCRYPTION_FORMAT = "Unable to %s delivery stream encryption";
-    private static final int CALLBACK_DELAY_IN_SECONDS = 30;
     static final String ACCESS_DENIED_FOR_SPECIFIED_API_FORMAT= "Got Access denied exception from backend service for %s API for delivery stream name: %s."
         + " Going to do a soft fail(Will not mark the handler as failure).";
 
@@ -38,7 +37,8 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
 
         final ResourceModel model = request.getDesiredResourceState();
         final ResourceModel previousModel = request.getPreviousResourceState();
-        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().firehoseClient(firehoseClient).clientProxy(proxy).build();
+        val invocationDeadline = InvocationDeadline.start();
+        val firehoseAPIWrapper = FirehoseAPIWrapper.builder().clientProxy(proxy).invocationDeadline(invocationDeadline).build();
         logger.log(String.format("Update Handler called with deliveryStream PrimaryId %s", model.getDeliveryStreamName()));
         val currentContext = callbackContext != null
             ? callbackContext : CallbackContext.builder()
@@ -54,12 +54,13 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
         val currentResourceAndStackTags = new ArrayList<Tag>();
         if (request.getDesiredResourceTags() != null && !request.getDesiredResourceTags().isEmpty()) {
             request.getDesiredResourceTags().forEach((k,v) -> currentResourceAndStackTags.add(new Tag(k, v)));
-            logger.log(String.format("Received %d current Resource tags on update for delivery stream name %s", previousResourceAndStackTags.size(), model.getDeliveryStreamName()));
+            logger.log(String.format("Received %d current Resource tags on update for delivery stream name %s", currentResourceAndStackTags.size(), model.getDeliveryStreamName()));
         }
-        return updateDeliveryStreamAndUpdateProgress(firehoseAPIWrapper, model, previousModel, currentContext, logger, previousResourceAndStackTags, currentResourceAndStackTags);
+        return updateDeliveryStreamAndUpdateProgress(firehoseAPIWrapper, invocationDeadline, model, previousModel, currentContext, logger, previousResourceAndStackTags, currentResourceAndStackTags);
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> updateDeliveryStreamAndUpdateProgress(final FirehoseAPIWrapper firehoseAPIWrapper,
+                                                                                                final InvocationDeadline invocationDeadline,
                                                                                                 final ResourceModel model,
                                                                                                 final ResourceModel previousModel,
                                                                                                 final CallbackContext callbackContext,
@@ -67,7 +68,8 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                                                                                                 final List<Tag> previousResourceAndStackTags,
                                                                                                 final List<Tag> currentResourceAndStackTags) {
         val deliveryStreamEncryptionStatus = callbackContext.getDeliveryStreamEncryptionStatus();
-        if (callbackContext.getStabilizationRetriesRemaining() == 0) {
+        if (STABILIZATION_SCHEDULE.isTimedOut(callbackContext)) {
+            STABILIZATION_SCHEDULE.logTimedOut(logger, callbackContext);
             throw new RuntimeException(TIMED_OUT_MESSAGE);
         }
         DescribeDeliveryStreamResponse describeDeliveryStreamResp;
@@ -80,118 +82,303 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
             logger.log(String.format("DescribeDeliveryStream failed with exception %s", e.getMessage()));
             // In case describe fails(either on the first call or on the callbacks) we would set the
             // previous values of callbackContext, return and mark handler status as in-progress for cfn to retry.
-            return ProgressEvent.defaultInProgressHandler(CallbackContext.builder()
-                    .deliveryStreamStatus(callbackContext.getDeliveryStreamStatus())
-                    .deliveryStreamEncryptionStatus(callbackContext.getDeliveryStreamEncryptionStatus())
-                    .stabilizationRetriesRemaining(callbackContext.getStabilizationRetriesRemaining() - 1)
-                    .build(),
-                (int) Duration.ofSeconds(CALLBACK_DELAY_IN_SECONDS).getSeconds(),
+            val nextContext = STABILIZATION_SCHEDULE.nextPoll(callbackContext)
+                .deliveryStreamStatus(callbackContext.getDeliveryStreamStatus())
+                .deliveryStreamEncryptionStatus(callbackContext.getDeliveryStreamEncryptionStatus())
+                .previousDeliveryStreamVersionId(callbackContext.getPreviousDeliveryStreamVersionId())
+                .build();
+            return ProgressEvent.defaultInProgressHandler(nextContext,
+                STABILIZATION_SCHEDULE.nextDelayWithoutStatusSeconds(nextContext, model.getDeliveryStreamName()),
                 model);
         }
 
-        // In case of callbacks.
-        if (deliveryStreamEncryptionStatus != null) {
-            val currentDSEncryptionStatus = describeDeliveryStreamResp.deliveryStreamDescription().deliveryStreamEncryptionConfiguration().statusAsString();
-            if (currentDSEncryptionStatus.equals(DeliveryStreamEncryptionStatus.ENABLED.toString())
-                || currentDSEncryptionStatus.equals(DeliveryStreamEncryptionStatus.DISABLED.toString())) {
-                return ProgressEvent.defaultSuccessHandler(model);
+        val currentVersionId = describeDeliveryStreamResp.deliveryStreamDescription().versionId();
+        val resumedContext = withVersionsShown(callbackContext, currentVersionId);
+        // In case of callbacks once every step is done.
+        if (isWaitingForUpdate(resumedContext)) {
+            return progressForUpdate(model, describeDeliveryStreamResp, STABILIZATION_SCHEDULE.nextPoll(resumedContext),
+                deliveryStreamEncryptionStatus != null, resumedContext.getPreviousDeliveryStreamVersionId(), logger);
+        }
+
+        val plan = UpdatePlan.of(previousModel, model, describeDeliveryStreamResp, previousResourceAndStackTags, currentResourceAndStackTags);
+        logger.log(String.format("Update plan for the delivery stream name %s: %s", model.getDeliveryStreamName(), plan));
+        if (resumedContext.getCompletedUpdateSteps() != null) {
+            logger.log(String.format("Resuming the update of the delivery stream name %s after the steps %s",
+                model.getDeliveryStreamName(), resumedContext.getCompletedUpdateSteps()));
+        } else if (plan.isEmpty()) {
+            return ProgressEvent.defaultSuccessHandler(model);
+        }
+
+        // Each step is recorded in the context once it is done, and the handler returns that context right after a step
+        // that sent a call. An invocation that fails or is cut off in a later step is then retried from that context,
+        // and carries on after the last step done instead of repeating it.
+        CallbackContext checkpoint = resumedContext;
+        if (!isCompleted(checkpoint, UpdateStep.UPDATE_DESTINATION)) {
+            if (!invocationDeadline.hasTimeForCall()) {
+                return HandlerUtils.continueInNextInvocation(model, checkpoint, logger);
             }
-            else if (currentDSEncryptionStatus.equals(DeliveryStreamEncryptionStatus.ENABLING_FAILED.toString())
-                || currentDSEncryptionStatus.equals(DeliveryStreamEncryptionStatus.DISABLING_FAILED.toString())) {
-                val errMsg = getErrorMessageFromEncryptionStatus(currentDSEncryptionStatus);
-                Exception exp = InvalidArgumentException.builder()
-                    .message(errMsg).build();
-                return ProgressEvent.defaultFailureHandler(exp, ExceptionMapper.mapToHandlerErrorCode(exp, HandlerType.UPDATE));
+            if (!plan.updatesDestination()) {
+                checkpoint = completed(checkpoint, UpdateStep.UPDATE_DESTINATION, currentVersionId);
             } else {
-                return ProgressEvent.defaultInProgressHandler(CallbackContext.builder()
-                        .deliveryStreamStatus(describeDeliveryStreamResp.deliveryStreamDescription().deliveryStreamStatusAsString())
-                        .deliveryStreamEncryptionStatus(currentDSEncryptionStatus)
-                        .stabilizationRetriesRemaining(callbackContext.getStabilizationRetriesRemaining() - 1)
-                        .build(),
-                    (int) Duration.ofSeconds(CALLBACK_DELAY_IN_SECONDS).getSeconds(),
-                    model);
+                try {
+                    describeDeliveryStreamResp = updateDestination(firehoseAPIWrapper, invocationDeadline, previousModel, model, describeDeliveryStreamResp, logger);
+                } catch (final Exception e) {
+                    logger.log(String.format("UpdateDeliveryStream failed with exception %s", e.getMessage()));
+                    // Nothing has changed yet, so a conflict that ran out of invocation time is retried from the describe.
+                    if (VersionConflictRetry.isVersionConflict(e) && !invocationDeadline.hasTimeForCall()) {
+                        return HandlerUtils.continueInNextInvocation(model, checkpoint, logger);
+                    }
+                    return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e, HandlerType.UPDATE));
+                }
+                // The version the update made is recorded once a describe shows it; until then the update is done once
+                // the stream shows a newer version than the one it replaced.
+                checkpoint = completed(checkpoint, UpdateStep.UPDATE_DESTINATION, null);
+                checkpoint.setPreviousDeliveryStreamVersionId(describeDeliveryStreamResp.deliveryStreamDescription().versionId());
+                return continueAfterStep(model, checkpoint, UpdateStep.UPDATE_DESTINATION, logger);
             }
         }
 
-        try {
-            updateDestination(firehoseAPIWrapper, model, describeDeliveryStreamResp);
-        }catch (final Exception e) {
-            logger.log(String.format("UpdateDeliveryStream failed with exception %s", e.getMessage()));
-            return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e, HandlerType.UPDATE));
+        if (!isCompleted(checkpoint, UpdateStep.ENCRYPTION)) {
+            if (!invocationDeadline.hasTimeForCall()) {
+                return HandlerUtils.continueInNextInvocation(model, checkpoint, logger);
+            }
+            val encryptionAction = plan.encryptionAction();
+            try {
+                updateEncryptionOnDeliveryStream(firehoseAPIWrapper,model, encryptionAction, logger);
+            }catch (final Exception e) {
+                logger.log(String.format("updateEncryptionOnDeliveryStream failed with exception %s", e.getMessage()));
+                return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e, HandlerType.UPDATE));
+            }
+            val encryptionChanged = encryptionAction != EncryptionAction.DO_NOTHING;
+            checkpoint = completed(checkpoint, UpdateStep.ENCRYPTION, encryptionChanged ? null : currentVersionId);
+            checkpoint.setDeliveryStreamEncryptionStatus(encryptionStatusAfter(encryptionAction));
+            if (encryptionChanged) {
+                return continueAfterStep(model, checkpoint, UpdateStep.ENCRYPTION, logger);
+            }
         }
 
-        EncryptionAction encryptionAction = getEncryptionActionToPerform(
-            model, describeDeliveryStreamResp);
-        try {
-            updateEncryptionOnDeliveryStream(firehoseAPIWrapper,model, encryptionAction, logger);
-        }catch (final Exception e) {
-            logger.log(String.format("updateEncryptionOnDeliveryStream failed with exception %s", e.getMessage()));
-            return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e, HandlerType.UPDATE));
+        // The delta is taken against the live tags, so a resumed update works out what is still left to do.
+        TagDelta tagDelta = null;
+        if (!isCompleted(checkpoint, UpdateStep.UNTAG)) {
+            if (!invocationDeadline.hasTimeForCall()) {
+                return HandlerUtils.continueInNextInvocation(model, checkpoint, logger);
+            }
+            if (plan.updatesTags()) {
+                try {
+                    tagDelta = tagDeltaFor(firehoseAPIWrapper, model, logger, previousResourceAndStackTags, currentResourceAndStackTags);
+                    removeTags(firehoseAPIWrapper, model, previousModel, logger, tagDelta);
+                } catch (final Exception e) {
+                    logger.log(String
+                        .format("updateTagsOnDeliveryStream failed with exception %s", e.getMessage()));
+                    return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e,HandlerType.UPDATE));
+                }
+            }
+            val tagsRemoved = tagDelta != null && tagDelta.tagKeysToRemoveCount() > 0;
+            checkpoint = completed(checkpoint, UpdateStep.UNTAG, tagsRemoved ? null : currentVersionId);
+            if (tagsRemoved) {
+                return continueAfterStep(model, checkpoint, UpdateStep.UNTAG, logger);
+            }
         }
 
-        try {
-            updateTagsOnDeliveryStream(firehoseAPIWrapper, model, previousModel, logger, previousResourceAndStackTags, currentResourceAndStackTags);
-        } catch (final Exception e) {
-            logger.log(String
-                .format("updateTagsOnDeliveryStream failed with exception %s", e.getMessage()));
-            return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e,HandlerType.UPDATE));
+        if (!isCompleted(checkpoint, UpdateStep.TAG)) {
+            if (!invocationDeadline.hasTimeForCall()) {
+                return HandlerUtils.continueInNextInvocation(model, checkpoint, logger);
+            }
+            if (plan.updatesTags()) {
+                try {
+                    if (tagDelta == null) {
+                        tagDelta = tagDeltaFor(firehoseAPIWrapper, model, logger, previousResourceAndStackTags, currentResourceAndStackTags);
+                    }
+                    addTags(firehoseAPIWrapper, model, previousModel, logger, tagDelta);
+                } catch (final Exception e) {
+                    logger.log(String
+                        .format("updateTagsOnDeliveryStream failed with exception %s", e.getMessage()));
+                    return ProgressEvent.defaultFailureHandler(e, ExceptionMapper.mapToHandlerErrorCode(e,HandlerType.UPDATE));
+                }
+            }
+            val tagsAdded = tagDelta != null && tagDelta.tagsToAddCount() > 0;
+            checkpoint = completed(checkpoint, UpdateStep.TAG, tagsAdded ? null : currentVersionId);
         }
 
-        // If no encryption action was performed, mark this as success as per existing flow, no need to callback.
-        if (encryptionAction == EncryptionAction.DO_NOTHING) {
-            logger.log(String
-                .format("No Encryption action was performed. Marking the update handler as success."));
+        val previousDeliveryStreamVersionId = checkpoint.getPreviousDeliveryStreamVersionId();
+        val encryptionChangeRequested = checkpoint.getDeliveryStreamEncryptionStatus() != null;
+        // Tags take effect right away, so a tag-only update has nothing to wait for.
+        if (previousDeliveryStreamVersionId == null && !encryptionChangeRequested) {
             return ProgressEvent.defaultSuccessHandler(model);
         }
+        if (!invocationDeadline.hasTimeForCall()) {
+            return HandlerUtils.continueInNextInvocation(model, checkpoint, logger);
+        }
         // If the delivery stream encryption was either Started or stopped, it is supposed to have a status.
         val describeResp = firehoseAPIWrapper.describeDeliveryStream(model.getDeliveryStreamName());
-        return ProgressEvent.defaultInProgressHandler(CallbackContext.builder()
-                .deliveryStreamStatus(describeResp.deliveryStreamDescription().deliveryStreamStatusAsString())
-                .deliveryStreamEncryptionStatus(describeResp.deliveryStreamDescription().deliveryStreamEncryptionConfiguration().statusAsString())
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
-                .build(),
-            (int) Duration.ofSeconds(CALLBACK_DELAY_IN_SECONDS).getSeconds(),
-            model);
+        val shortPoller = ShortPoller.of(invocationDeadline);
+        if (!shortPoller.isEnabled() && encryptionChangeRequested) {
+            return waitForStabilization(model, checkpoint.toBuilder()
+                    .deliveryStreamStatus(describeResp.deliveryStreamDescription().deliveryStreamStatusAsString())
+                    .deliveryStreamEncryptionStatus(describeResp.deliveryStreamDescription().deliveryStreamEncryptionConfiguration().statusAsString())
+                    .build());
+        }
+        val polledDescribeResp = shortPoller.pollWhile(describeResp,
+            resp -> isUpdateInProgress(resp, encryptionChangeRequested, previousDeliveryStreamVersionId),
+            () -> firehoseAPIWrapper.redescribeDeliveryStream(model.getDeliveryStreamName()));
+        return progressForUpdate(model, polledDescribeResp, checkpoint.toBuilder(), encryptionChangeRequested, previousDeliveryStreamVersionId, logger);
     }
 
-    private String getErrorMessageFromEncryptionStatus(final String deliveryStreamEncryptionStatus) {
-        if (DeliveryStreamEncryptionStatus.ENABLING_FAILED.toString().equals(deliveryStreamEncryptionStatus)) {
-            return String.format(ERROR_DELIVERY_STREAM_ENCRYPTION_FORMAT, "start");
+    // Contexts written before the steps were recorded are waiting as soon as they carry an encryption status or version.
+    private static boolean isWaitingForUpdate(final CallbackContext callbackContext) {
+        if (callbackContext.getCompletedUpdateSteps() != null) {
+            return isCompleted(callbackContext, UpdateStep.TAG);
         }
-        return String.format(ERROR_DELIVERY_STREAM_ENCRYPTION_FORMAT, "stop");
+        return callbackContext.getDeliveryStreamEncryptionStatus() != null || callbackContext.getPreviousDeliveryStreamVersionId() != null;
+    }
+
+    private static boolean isCompleted(final CallbackContext callbackContext, final UpdateStep step) {
+        return callbackContext.getCompletedUpdateSteps() != null && callbackContext.getCompletedUpdateSteps().containsKey(step.name());
     }
 
-    private EncryptionAction getEncryptionActionToPerform(final ResourceModel model, final DescribeDeliveryStreamResponse describeResponse) {
-        EncryptionAction encryptionAction = EncryptionAction.DO_NOTHING;
-        val modelDSEncryptionConfig = model.getDeliveryStreamEncryptionConfigurationInput();
-        val existingDSEncryptionConfig = describeResponse.deliveryStreamDescription().deliveryStreamEncryptionConfiguration();
-        if (modelDSEncryptionConfig != null) {
-            if (areEncryptionParametersUnchanged(modelDSEncryptionConfig, existingDSEncryptionConfig)) {
-                return encryptionAction;
+    // The stabilization, and so its timeout, starts with the first step done.
+    private static CallbackContext completed(final CallbackContext callbackContext, final UpdateStep step, final String versionId) {
+        val completedSteps = new LinkedHashMap<String, String>();
+        final CallbackContext checkpoint;
+        if (callbackContext.getCompletedUpdateSteps() == null) {
+            checkpoint = STABILIZATION_SCHEDULE.newStabilization().build();
+        } else {
+            completedSteps.putAll(callbackContext.getCompletedUpdateSteps());
+            checkpoint = callbackContext.toBuilder().build();
+        }
+        completedSteps.put(step.name(), versionId);
+        checkpoint.setCompletedUpdateSteps(completedSteps);
+        return checkpoint;
+    }
+
+    // A step that sent a call is recorded without a version, and gets the version of the next describe: the stream as
+    // the step left it. A destination update only counts as shown once the version is newer than the one it replaced.
+    private static CallbackContext withVersionsShown(final CallbackContext callbackContext, final String versionId) {
+        val completedSteps = callbackContext.getCompletedUpdateSteps();
+        if (completedSteps == null || versionId == null || !completedSteps.containsValue(null)) {
+            return callbackContext;
+        }
+        val shownSteps = new LinkedHashMap<String, String>(completedSteps);
+        for (val step : completedSteps.entrySet()) {
+            if (step.getValue() != null) {
+                continue;
+            }
+            if (UpdateStep.UPDATE_DESTINATION.name().equals(step.getKey())
+                && !isNewerVersion(versionId, callbackContext.getPreviousDeliveryStreamVersionId())) {
+                continue;
+            }
+            shownSteps.put(step.getKey(), versionId);
+        }
+        return callbackContext.toBuilder().completedUpdateSteps(shownSteps).build();
+    }
+
+    private static ProgressEvent<ResourceModel, CallbackContext> continueAfterStep(final ResourceModel model,
+                                                                                   final CallbackContext checkpoint,
+                                                                                   final UpdateStep step,
+                                                                                   final Logger logger) {
+        logger.log(String.format("Checkpointed the %s step of the update of the delivery stream name %s. Continuing in the next invocation.",
+            step, model.getDeliveryStreamName()));
+        return ProgressEvent.defaultInProgressHandler(checkpoint, STEP_CALLBACK_DELAY_SECONDS, model);
+    }
+
+    /**
+     * Succeeds once any requested encryption change has settled and the stream is ACTIVE with a newer version than
+     * {@code previousDeliveryStreamVersionId}, so that a following update does not send a stale version.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> progressForUpdate(final ResourceModel model,
+                                                                            final DescribeDeliveryStreamResponse describeDeliveryStreamResp,
+                                                                            final CallbackContext.CallbackContextBuilder stabilization,
+                                                                            final boolean encryptionChangeRequested,
+                                                                            final String previousDeliveryStreamVersionId,
+                                                                            final Logger logger) {
+        val description = describeDeliveryStreamResp.deliveryStreamDescription();
+        String currentDSEncryptionStatus = null;
+        if (encryptionChangeRequested) {
+            currentDSEncryptionStatus = description.deliveryStreamEncryptionConfiguration().statusAsString();
+            if (currentDSEncryptionStatus.equals(DeliveryStreamEncryptionStatus.ENABLING_FAILED.toString())
+                || currentDSEncryptionStatus.equals(DeliveryStreamEncryptionStatus.DISABLING_FAILED.toString())) {
+                STABILIZATION_SCHEDULE.logStabilized(logger, stabilization
+                    .deliveryStreamStatus(description.deliveryStreamStatusAsString())
+                    .deliveryStreamEncryptionStatus(currentDSEncryptionStatus)
+                    .build());
+                val errMsg = getErrorMessageFromEncryptionStatus(currentDSEncryptionStatus);
+                Exception exp = InvalidArgumentException.builder()
+                    .message(errMsg).build();
+                return ProgressEvent.defaultFailureHandler(exp, ExceptionMapper.mapToHandlerErrorCode(exp, HandlerType.UPDATE));
             }
-            encryptionAction = EncryptionAction.START;
         }
-        else if (existingDSEncryptionConfig != null && !DeliveryStreamEncryptionStatus.DISABLED.toString().equals(existingDSEncryptionConfig.statusAsString())) {
-            encryptionAction = EncryptionAction.STOP;
+        if (isUpdateInProgress(describeDeliveryStreamResp, encryptionChangeRequested, previousDeliveryStreamVersionId)) {
+            return waitForStabilization(model, stabilization
+                    .deliveryStreamStatus(description.deliveryStreamStatusAsString())
+                    .deliveryStreamEncryptionStatus(currentDSEncryptionStatus)
+                    .previousDeliveryStreamVersionId(previousDeliveryStreamVersionId)
+                    .build());
         }
-        return encryptionAction;
+        STABILIZATION_SCHEDULE.logStabilized(logger, stabilization
+            .deliveryStreamStatus(description.deliveryStreamStatusAsString())
+            .deliveryStreamEncryptionStatus(currentDSEncryptionStatus)
+            .build());
+        return ProgressEvent.defaultSuccessHandler(model);
     }
 
-    // Basically tries to make sure that we don't try to start encryption in cases of AWS_OWNED_CMK -> AWS_OWNED_CMK or CUSTOMER_MANAGED_CMK(Key1) -> CUSTOMER_MANAGED_CMK(Key1)
-    // as the firehose backend fails in those cases.
-    private boolean areEncryptionParametersUnchanged(final DeliveryStreamEncryptionConfigurationInput modelDSEncryptionConfig,
-                                                     final DeliveryStreamEncryptionConfiguration existingDSEncryptionConfig){
-        return existingDSEncryptionConfig != null
-            && ((KeyType.CUSTOMER_MANAGED_CMK.toString().equals(modelDSEncryptionConfig.getKeyType())
-                && (existingDSEncryptionConfig.keyType() != null && KeyType.CUSTOMER_MANAGED_CMK
-                .toString()
-                .equals(existingDSEncryptionConfig.keyType().toString()))
-                && modelDSEncryptionConfig
-                .getKeyARN().equals(existingDSEncryptionConfig.keyARN()))
-                ||
-                (KeyType.AWS_OWNED_CMK.toString().equals(modelDSEncryptionConfig.getKeyType())
-                    && (existingDSEncryptionConfig.keyType() != null && KeyType.AWS_OWNED_CMK
-                    .toString().equals(existingDSEncryptionConfig.keyType().toString()))));
+    private boolean isUpdateInProgress(final DescribeDeliveryStreamResponse describeResponse,
+                                       final boolean encryptionChangeRequested,
+                                       final String previousDeliveryStreamVersionId) {
+        return (encryptionChangeRequested && !isEncryptionSettled(describeResponse))
+            || !isDestinationUpdated(describeResponse, previousDeliveryStreamVersionId);
+    }
+
+    private boolean isEncryptionSettled(final DescribeDeliveryStreamResponse describeResponse) {
+        val encryptionStatus = describeResponse.deliveryStreamDescription().deliveryStreamEncryptionConfiguration().statusAsString();
+        return DeliveryStreamEncryptionStatus.ENABLED.toString().equals(encryptionStatus)
+            || DeliveryStreamEncryptionStatus.DISABLED.toString().equals(encryptionStatus);
+    }
+
+    // Contexts written before the version was recorded have nothing to compare with, and only wait for encryption.
+    private boolean isDestinationUpdated(final DescribeDeliveryStreamResponse describeResponse,
+                                         final String previousDeliveryStreamVersionId) {
+        val description = describeResponse.deliveryStreamDescription();
+        return previousDeliveryStreamVersionId == null
+            || (DeliveryStreamStatus.ACTIVE.toString().equals(description.deliveryStreamStatusAsString())
+                && isNewerVersion(description.versionId(), previousDeliveryStreamVersionId));
+    }
+
+    // Firehose numbers the versions of a stream 1, 2, 3 and so on; any other change of versionId also counts as newer.
+    static boolean isNewerVersion(final String versionId, final String previousVersionId) {
+        if (versionId == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(versionId) > Long.parseLong(previousVersionId);
+        } catch (NumberFormatException e) {
+            return !versionId.equals(previousVersionId);
+        }
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> waitForStabilization(final ResourceModel model,
+                                                                               final CallbackContext nextContext) {
+        return ProgressEvent.defaultInProgressHandler(nextContext,
+            STABILIZATION_SCHEDULE.nextDelaySeconds(nextContext, model.getDeliveryStreamName()),
+            model);
+    }
+
+    // The encryption status a callback waits to settle after encryptionAction, none when encryption was left alone.
+    private static String encryptionStatusAfter(final EncryptionAction encryptionAction) {
+        switch (encryptionAction) {
+            case START:
+                return DeliveryStreamEncryptionStatus.ENABLING.toString();
+            case STOP:
+                return DeliveryStreamEncryptionStatus.DISABLING.toString();
+            default:
+                return null;
+        }
+    }
+
+    private String getErrorMessageFromEncryptionStatus(final String deliveryStreamEncryptionStatus) {
+        if (DeliveryStreamEncryptionStatus.ENABLING_FAILED.toString().equals(deliveryStreamEncryptionStatus)) {
+            return String.format(ERROR_DELIVERY_STREAM_ENCRYPTION_FORMAT, "start");
+        }
+        return String.format(ERROR_DELIVERY_STREAM_ENCRYPTION_FORMAT, "stop");
     }
 
     public enum EncryptionAction {
@@ -210,6 +397,14 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
         }
     }
 
+    // The steps of an Update, in the order they are made; recorded in the CallbackContext as they are done.
+    enum UpdateStep {
+        UPDATE_DESTINATION,
+        ENCRYPTION,
+        UNTAG,
+        TAG
+    }
+
 
     private void updateEncryptionOnDeliveryStream(final FirehoseAPIWrapper firehoseAPIWrapper,
                                                   final ResourceModel model,
@@ -229,8 +424,40 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
         }
     }
 
-    private void updateDestination(final FirehoseAPIWrapper firehoseAPIWrapper, final ResourceModel model, final DescribeDeliveryStreamResponse describeResponse) {
-        val updateDestinationRequest = UpdateDestinationRequest.builder()
+    // Returns the describe the update went through with, which is newer than describeResponse after a version conflict.
+    private DescribeDeliveryStreamResponse updateDestination(final FirehoseAPIWrapper firehoseAPIWrapper,
+                                                             final InvocationDeadline invocationDeadline,
+                                                             final ResourceModel previousModel,
+                                                             final ResourceModel model,
+                                                             final DescribeDeliveryStreamResponse describeResponse,
+                                                             final Logger logger) {
+        val minimalUpdates = HandlerSettings.getBoolean(MINIMAL_DESTINATION_UPDATES_SETTING, true);
+        return VersionConflictRetry.of(invocationDeadline).run(describeResponse,
+            described -> firehoseAPIWrapper.updateDestination(buildUpdateDestinationRequest(
+                minimalUpdates ? changedDestinations(DestinationChanges.described(described.deliveryStreamDescription(), previousModel), model) : model,
+                described)),
+            () -> {
+                logger.log(String.format("UpdateDestination hit a version conflict on the delivery stream name %s. Describing it again to retry.",
+                    model.getDeliveryStreamName()));
+                return firehoseAPIWrapper.redescribeDeliveryStream(model.getDeliveryStreamName());
+            });
+    }
+
+    // The desired model with only what the live stream does not have yet left in its destination configurations.
+    static ResourceModel changedDestinations(final ResourceModel liveModel, final ResourceModel model) {
+        return ResourceModel.builder()
+            .deliveryStreamName(model.getDeliveryStreamName())
+            .s3DestinationConfiguration(DestinationChanges.of(liveModel.getS3DestinationConfiguration(), model.getS3DestinationConfiguration()))
+            .extendedS3DestinationConfiguration(DestinationChanges.of(liveModel.getExtendedS3DestinationConfiguration(), model.getExtendedS3DestinationConfiguration()))
+            .redshiftDestinationConfiguration(DestinationChanges.of(liveModel.getRedshiftDestinationConfiguration(), model.getRedshiftDestinationConfiguration()))
+            .elasticsearchDestinationConfiguration(DestinationChanges.of(liveModel.getElasticsearchDestinationConfiguration(), model.getElasticsearchDestinationConfiguration()))
+            .splunkDestinationConfiguration(DestinationChanges.of(liveModel.getSplunkDestinationConfiguration(), model.getSplunkDestinationConfiguration()))
+            .httpEndpointDestinationConfiguration(DestinationChanges.of(liveModel.getHttpEndpointDestinationConfiguration(), model.getHttpEndpointDestinationConfiguration()))
+            .build();
+    }
+
+    static UpdateDestinationRequest buildUpdateDestinationRequest(final ResourceModel model, final DescribeDeliveryStreamResponse describeResponse) {
+        return UpdateDestinationRequest.builder()
             .deliveryStreamName(model.getDeliveryStreamName())
             .currentDeliveryStreamVersionId(describeResponse.deliveryStreamDescription().versionId())
             .destinationId(describeResponse.deliveryStreamDescription().destinations().get(0).destinationId())
@@ -241,20 +468,32 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
             .splunkDestinationUpdate(HandlerUtils.translateSplunkDestinationUpdate(model.getSplunkDestinationConfiguration()))
             .httpEndpointDestinationUpdate(HandlerUtils.translateHttpEndpointDestinationUpdate(model.getHttpEndpointDestinationConfiguration()))
             .build();
-        firehoseAPIWrapper.updateDestination(updateDestinationRequest);
     }
 
-    private void updateTagsOnDeliveryStream(final FirehoseAPIWrapper firehoseAPIWrapper,
-                                            final ResourceModel model,
-                                            final ResourceModel previousModel,
-                                            final Logger logger,
-                                            final List<Tag> previousResourceAndStackTags,
-                                            final List<Tag> currentResourceAndStackTags) {
-        val tagKeysToRemove = HandlerUtils.tagsInFirstListButNotInSecond(previousResourceAndStackTags, currentResourceAndStackTags);
-        if (tagKeysToRemove != null && !tagKeysToRemove.isEmpty()) {
+    private TagDelta tagDeltaFor(final FirehoseAPIWrapper firehoseAPIWrapper,
+                                 final ResourceModel model,
+                                 final Logger logger,
+                                 final List<Tag> previousResourceAndStackTags,
+                                 final List<Tag> currentResourceAndStackTags) {
+        val tagDelta = TagDelta.of(listLiveTags(firehoseAPIWrapper, model, logger, previousResourceAndStackTags),
+            previousResourceAndStackTags, currentResourceAndStackTags);
+        if (tagDelta.isEmpty()) {
+            logger.log(String.format("Tags on the delivery stream name %s already match, so they are left as they are.", model.getDeliveryStreamName()));
+        }
+        return tagDelta;
+    }
+
+    private void removeTags(final FirehoseAPIWrapper firehoseAPIWrapper,
+                            final ResourceModel model,
+                            final ResourceModel previousModel,
+                            final Logger logger,
+                            final TagDelta tagDelta) {
+        if (tagDelta.tagKeysToRemoveCount() > 0) {
             boolean wasExceptionThrown = false;
             try {
-                firehoseAPIWrapper.untagDeliveryStream(model.getDeliveryStreamName(), tagKeysToRemove);
+                for (val tagKeys : tagDelta.tagKeysToRemoveInChunks()) {
+                    firehoseAPIWrapper.untagDeliveryStream(model.getDeliveryStreamName(), tagKeys);
+                }
             } catch(Exception e){
                 wasExceptionThrown = true;
                 // If previous model didn't had any resource tags, and we tried to remove tags only because of stack level tags, this might be unexpected from
@@ -270,15 +509,23 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                 }
             }
             if (!wasExceptionThrown) {
-                logger.log(String.format("Removed %d existing tags for the delivery stream name:%s",tagKeysToRemove.size(),
+                logger.log(String.format("Removed %d existing tags for the delivery stream name:%s", tagDelta.tagKeysToRemoveCount(),
                         model.getDeliveryStreamName()));
             }
         }
+    }
 
-        if (currentResourceAndStackTags != null && !currentResourceAndStackTags.isEmpty()) {
+    private void addTags(final FirehoseAPIWrapper firehoseAPIWrapper,
+                         final ResourceModel model,
+                         final ResourceModel previousModel,
+                         final Logger logger,
+                         final TagDelta tagDelta) {
+        if (tagDelta.tagsToAddCount() > 0) {
             boolean wasExceptionThrown = false;
             try {
-                firehoseAPIWrapper.tagDeliveryStream(model.getDeliveryStreamName(), HandlerUtils.translateCFNModelTagsToFirehoseSDKTags(currentResourceAndStackTags));
+                for (val tags : tagDelta.tagsToAddInChunks()) {
+                    firehoseAPIWrapper.tagDeliveryStream(model.getDeliveryStreamName(), HandlerUtils.translateCFNModelTagsToFirehoseSDKTags(tags));
+                }
             } catch(Exception e){
                 wasExceptionThrown = true;
                 // If current model didn't had any resource tags, and we tried to add tags during update only because of stack level tags, this might be unexpected from
@@ -292,12 +539,27 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                 }
             }
             if (!wasExceptionThrown) {
-                logger.log(String.format("Added/Replaced %d tags for the delivery stream name:%s", currentResourceAndStackTags.size(),
+                logger.log(String.format("Added/Replaced %d tags for the delivery stream name:%s", tagDelta.tagsToAddCount(),
                         model.getDeliveryStreamName()));
             }
         }
     }
 
+    // The previous tags stand in for the live ones when they can't be listed, which at worst sends tags the stream
+    // already has; any real permission or service problem surfaces on the tag calls that follow.
+    private List<Tag> listLiveTags(final FirehoseAPIWrapper firehoseAPIWrapper,
+                                   final ResourceModel model,
+                                   final Logger logger,
+                                   final List<Tag> previousResourceAndStackTags) {
+        try {
+            return HandlerUtils.translateFirehoseSDKTagsToCfnModelTags(
+                firehoseAPIWrapper.listAllTagsOnDeliveryStream(model.getDeliveryStreamName(), HandlerUtils.LIST_TAGS_RESULT_LIMIT));
+        } catch (final Exception e) {
+            logger.log(String.format("ListTagsForDeliveryStream failed with exception %s. Comparing with the previous tags instead.", e.getMessage()));
+            return previousResourceAndStackTags;
+        }
+    }
+
     private boolean customerDidNotSpecifiedModelTags(final ResourceModel previousModel, final ResourceModel model) {
         return (previousModel.getTags() == null || previousModel.getTags().isEmpty()) && (model.getTags() == null || model.getTags().isEmpty());
     }
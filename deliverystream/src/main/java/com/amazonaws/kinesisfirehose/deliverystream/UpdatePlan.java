@@ -0,0 +1,100 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import com.amazonaws.kinesisfirehose.deliverystream.UpdateHandler.EncryptionAction;
+import java.util.HashSet;
+import java.util.List;
+import lombok.val;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionConfiguration;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionStatus;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.KeyType;
+
+/**
+ * The changes an Update makes to a delivery stream, worked out before any of them from the previous and desired
+ * resource states and the stream as it is described.
+ *
+ * UpdateDestination is only called when one of the desired destination configurations differs from the destination as
+ * it is described, so a change made to the stream outside the stack is put back even when the template is unchanged.
+ * Encryption is started or stopped when the desired encryption differs from what the stream has, and the tags are only
+ * rewritten when the resource and stack tags differ. A stack update that leaves a delivery stream as it was so makes
+ * no change to it at all.
+ */
+final class UpdatePlan {
+    private final boolean destinationUpdate;
+    private final EncryptionAction encryptionAction;
+    private final boolean tagUpdate;
+
+    private UpdatePlan(final boolean destinationUpdate, final EncryptionAction encryptionAction, final boolean tagUpdate) {
+        this.destinationUpdate = destinationUpdate;
+        this.encryptionAction = encryptionAction;
+        this.tagUpdate = tagUpdate;
+    }
+
+    static UpdatePlan of(final ResourceModel previousModel,
+                         final ResourceModel model,
+                         final DescribeDeliveryStreamResponse describeResponse,
+                         final List<Tag> previousResourceAndStackTags,
+                         final List<Tag> currentResourceAndStackTags) {
+        val liveModel = DestinationChanges.described(describeResponse.deliveryStreamDescription(), previousModel);
+        return new UpdatePlan(isDestinationChanged(liveModel, model),
+            encryptionActionFor(model, describeResponse),
+            !new HashSet<>(previousResourceAndStackTags).equals(new HashSet<>(currentResourceAndStackTags)));
+    }
+
+    boolean updatesDestination() {
+        return destinationUpdate;
+    }
+
+    EncryptionAction encryptionAction() {
+        return encryptionAction;
+    }
+
+    boolean updatesTags() {
+        return tagUpdate;
+    }
+
+    boolean isEmpty() {
+        return !destinationUpdate && encryptionAction == EncryptionAction.DO_NOTHING && !tagUpdate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("updateDestination=%s encryption=%s updateTags=%s", destinationUpdate, encryptionAction, tagUpdate);
+    }
+
+    static boolean isDestinationChanged(final ResourceModel liveModel, final ResourceModel model) {
+        return !UpdateHandler.changedDestinations(liveModel, model).equals(
+            ResourceModel.builder().deliveryStreamName(model.getDeliveryStreamName()).build());
+    }
+
+    private static EncryptionAction encryptionActionFor(final ResourceModel model, final DescribeDeliveryStreamResponse describeResponse) {
+        val modelDSEncryptionConfig = model.getDeliveryStreamEncryptionConfigurationInput();
+        val existingDSEncryptionConfig = describeResponse.deliveryStreamDescription().deliveryStreamEncryptionConfiguration();
+        if (modelDSEncryptionConfig != null) {
+            return areEncryptionParametersUnchanged(modelDSEncryptionConfig, existingDSEncryptionConfig)
+                ? EncryptionAction.DO_NOTHING
+                : EncryptionAction.START;
+        }
+        if (existingDSEncryptionConfig != null && !DeliveryStreamEncryptionStatus.DISABLED.toString().equals(existingDSEncryptionConfig.statusAsString())) {
+            return EncryptionAction.STOP;
+        }
+        return EncryptionAction.DO_NOTHING;
+    }
+
+    // Basically tries to make sure that we don't try to start encryption in cases of AWS_OWNED_CMK -> AWS_OWNED_CMK or CUSTOMER_MANAGED_CMK(Key1) -> CUSTOMER_MANAGED_CMK(Key1)
+    // as the firehose backend fails in those cases.
+    private static boolean areEncryptionParametersUnchanged(final DeliveryStreamEncryptionConfigurationInput modelDSEncryptionConfig,
+                                                            final DeliveryStreamEncryptionConfiguration existingDSEncryptionConfig){
+        return existingDSEncryptionConfig != null
+            && ((KeyType.CUSTOMER_MANAGED_CMK.toString().equals(modelDSEncryptionConfig.getKeyType())
+                && (existingDSEncryptionConfig.keyType() != null && KeyType.CUSTOMER_MANAGED_CMK
+                .toString()
+                .equals(existingDSEncryptionConfig.keyType().toString()))
+                && modelDSEncryptionConfig
+                .getKeyARN().equals(existingDSEncryptionConfig.keyARN()))
+                ||
+                (KeyType.AWS_OWNED_CMK.toString().equals(modelDSEncryptionConfig.getKeyType())
+                    && (existingDSEncryptionConfig.keyType() != null && KeyType.AWS_OWNED_CMK
+                    .toString().equals(existingDSEncryptionConfig.keyType().toString()))));
+    }
+}
@@ -0,0 +1,80 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import software.amazon.awssdk.services.firehose.model.ConcurrentModificationException;
+import software.amazon.awssdk.services.firehose.model.ResourceInUseException;
+
+/**
+ * Retries a change that names the delivery stream version it applies to, such as UpdateDestination, when the version
+ * has moved on or the stream is busy with another change.
+ *
+ * Firehose rejects such a change with ConcurrentModificationException when the stream changed since it was described,
+ * and with ResourceInUseException while an earlier change, such as an encryption step, is still settling. Both clear up
+ * by themselves, so instead of failing the handler, and with it the stack, the change is retried up to
+ * FIREHOSE_UPDATE_CONFLICT_RETRIES times from a fresh describe, after a backoff that starts at
+ * FIREHOSE_UPDATE_CONFLICT_BACKOFF_MILLIS and doubles each time. The last conflict is thrown once the retries are used
+ * up, or when the {@link InvocationDeadline} leaves no time for another attempt.
+ */
+final class VersionConflictRetry {
+    static final String MAX_RETRIES_SETTING = "FIREHOSE_UPDATE_CONFLICT_RETRIES";
+    static final String BACKOFF_MILLIS_SETTING = "FIREHOSE_UPDATE_CONFLICT_BACKOFF_MILLIS";
+
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final int DEFAULT_BACKOFF_MILLIS = 1_000;
+
+    private final InvocationDeadline invocationDeadline;
+    private final ShortPoller.Sleeper sleeper;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+
+    private VersionConflictRetry(final InvocationDeadline invocationDeadline, final ShortPoller.Sleeper sleeper) {
+        this.invocationDeadline = invocationDeadline;
+        this.sleeper = sleeper;
+        this.maxRetries = Math.max(0, HandlerSettings.getInt(MAX_RETRIES_SETTING, DEFAULT_MAX_RETRIES));
+        this.initialBackoffMillis = Math.max(0, HandlerSettings.getInt(BACKOFF_MILLIS_SETTING, DEFAULT_BACKOFF_MILLIS));
+    }
+
+    static VersionConflictRetry of(final InvocationDeadline invocationDeadline) {
+        return of(invocationDeadline, Thread::sleep);
+    }
+
+    static VersionConflictRetry of(final InvocationDeadline invocationDeadline, final ShortPoller.Sleeper sleeper) {
+        return new VersionConflictRetry(invocationDeadline, sleeper);
+    }
+
+    static boolean isVersionConflict(final Exception e) {
+        return e instanceof ConcurrentModificationException || e instanceof ResourceInUseException;
+    }
+
+    /**
+     * Calls {@code change} with {@code described}, and on a version conflict with what {@code describe} returns next.
+     * Returns the description the change went through with.
+     */
+    <T> T run(final T described, final Consumer<T> change, final Supplier<T> describe) {
+        T current = described;
+        long backoffMillis = initialBackoffMillis;
+        for (int retry = 0; ; retry++) {
+            try {
+                change.accept(current);
+                return current;
+            } catch (final RuntimeException e) {
+                if (!isVersionConflict(e) || retry >= maxRetries || invocationDeadline.remainingMillis() <= backoffMillis) {
+                    throw e;
+                }
+                try {
+                    sleeper.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                // Both the describe and the retried change have to fit in what is left.
+                if (!invocationDeadline.hasTimeForCall()) {
+                    throw e;
+                }
+                backoffMillis *= 2;
+                current = describe.get();
+            }
+        }
+    }
+}
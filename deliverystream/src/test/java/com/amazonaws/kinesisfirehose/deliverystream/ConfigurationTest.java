@@ -0,0 +1,42 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import lombok.val;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.jupiter.api.Test;
+
+public class ConfigurationTest {
+
+    @Test
+    public void testSchemaIsParsedOnce() {
+        val schema = new Configuration().resourceSchemaJSONObject();
+
+        assertThat(schema.getString("typeName")).isEqualTo("AWS::KinesisFirehose::DeliveryStream");
+        assertThat(new Configuration().resourceSchemaJSONObject()).isSameAs(schema);
+    }
+
+    @Test
+    public void testSchemaKeepsEverythingButHandlerPermissions() {
+        val fullSchema = new JSONObject(new JSONTokener(
+            getClass().getClassLoader().getResourceAsStream(Configuration.SCHEMA_FILENAME)));
+        val schema = Configuration.loadSchema();
+
+        assertThat(fullSchema.has(Configuration.HANDLERS_KEY)).isTrue();
+        assertThat(schema.has(Configuration.HANDLERS_KEY)).isFalse();
+        fullSchema.remove(Configuration.HANDLERS_KEY);
+        assertThat(schema.similar(fullSchema)).isTrue();
+    }
+
+    @Test
+    public void testResourceDefinedTags() {
+        val model = ResourceModel.builder()
+            .tags(Arrays.asList(Tag.builder().key("k1").value("v1").build(), Tag.builder().key("k2").value("v2").build()))
+            .build();
+
+        assertThat(new Configuration().resourceDefinedTags(model)).containsEntry("k1", "v1").containsEntry("k2", "v2");
+        assertThat(new Configuration().resourceDefinedTags(ResourceModel.builder().build())).isNull();
+    }
+}
@@ -11,7 +11,7 @@ import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
 import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamRequest;
 import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamResponse;
-import software.amazon.awssdk.services.firehose.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.firehose.model.ResourceInUseException;
 import software.amazon.awssdk.services.firehose.model.ServiceUnavailableException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
@@ -19,6 +19,7 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,13 +27,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static com.amazonaws.kinesisfirehose.deliverystream.CreateHandler.CREATE_DELIVERY_STREAM_ERROR_MSG_FORMAT;
-import static com.amazonaws.kinesisfirehose.deliverystream.CreateHandler.NUMBER_OF_STATUS_POLL_RETRIES;
 import static com.amazonaws.kinesisfirehose.deliverystream.CreateHandler.TIMED_OUT_MESSAGE;
 import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 
@@ -49,6 +53,16 @@ public class CreateHandlerTest {
     @BeforeEach
     public void setup() {
         handler = new CreateHandler();
+        // Most tests check the scheduled delays themselves.
+        System.setProperty(StabilizationSchedule.JITTER_PERCENT_SETTING, "0");
+    }
+
+    @AfterEach
+    public void clearSettings() {
+        System.clearProperty(StabilizationSchedule.JITTER_PERCENT_SETTING);
+        System.clearProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING);
+        System.clearProperty(ShortPoller.BUDGET_MILLIS_SETTING);
+        System.clearProperty(ShortPoller.INTERVAL_MILLIS_SETTING);
     }
 
     @Test
@@ -59,17 +73,9 @@ public class CreateHandlerTest {
                 .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
-                        .build())
-                .build();
         final CreateDeliveryStreamResponse createResponse = CreateDeliveryStreamResponse.builder()
                 .deliveryStreamARN(DELIVERY_STREAM_NAME_ARN)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenThrow(ResourceNotFoundException.builder().build())
-                       .thenReturn(describeResponse);
         doReturn(createResponse).when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class),
                 any());
 
@@ -81,7 +87,7 @@ public class CreateHandlerTest {
             = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
         assertThat(response).isNotNull();
@@ -91,13 +97,13 @@ public class CreateHandlerTest {
                 .isEqualToComparingFieldByField(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -108,17 +114,9 @@ public class CreateHandlerTest {
                 .redshiftDestinationConfiguration(REDSHIFT_DESTINATION_CONFIGURATION)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
-                        .build())
-                .build();
         final CreateDeliveryStreamResponse createResponse = CreateDeliveryStreamResponse.builder()
                 .deliveryStreamARN(DELIVERY_STREAM_NAME_ARN)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenThrow(ResourceNotFoundException.builder().build())
-                .thenReturn(describeResponse);
         doReturn(createResponse).when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class),
                 any());
 
@@ -130,7 +128,7 @@ public class CreateHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -141,13 +139,13 @@ public class CreateHandlerTest {
                 .isEqualToComparingFieldByField(REDSHIFT_DESTINATION_CONFIGURATION);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -158,17 +156,9 @@ public class CreateHandlerTest {
                 .elasticsearchDestinationConfiguration(ELASTICSEARCH_DESTINATION_CONFIGURATION_VPC)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
-                        .build())
-                .build();
         final CreateDeliveryStreamResponse createResponse = CreateDeliveryStreamResponse.builder()
                 .deliveryStreamARN(DELIVERY_STREAM_NAME_ARN)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any()))
-                .thenThrow(ResourceNotFoundException.builder().build())
-                .thenReturn(describeResponse);
         doReturn(createResponse).when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class),
                 any());
 
@@ -180,7 +170,7 @@ public class CreateHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -191,13 +181,13 @@ public class CreateHandlerTest {
                 .isEqualToComparingFieldByField(ELASTICSEARCH_DESTINATION_CONFIGURATION_VPC);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -208,17 +198,9 @@ public class CreateHandlerTest {
                 .elasticsearchDestinationConfiguration(ELASTICSEARCH_DESTINATION_CONFIGURATION_FULL)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
-                        .build())
-                .build();
         final CreateDeliveryStreamResponse createResponse = CreateDeliveryStreamResponse.builder()
                 .deliveryStreamARN(DELIVERY_STREAM_NAME_ARN)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenThrow(ResourceNotFoundException.builder().build())
-                .thenReturn(describeResponse);
         doReturn(createResponse).when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class),
                 any());
 
@@ -230,7 +212,7 @@ public class CreateHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -241,13 +223,13 @@ public class CreateHandlerTest {
                 .isEqualToComparingFieldByField(ELASTICSEARCH_DESTINATION_CONFIGURATION_FULL);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -258,17 +240,9 @@ public class CreateHandlerTest {
                 .splunkDestinationConfiguration(SPLUNK_CONFIGURATION_FULL)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
-                        .build())
-                .build();
         final CreateDeliveryStreamResponse createResponse = CreateDeliveryStreamResponse.builder()
                 .deliveryStreamARN(DELIVERY_STREAM_NAME_ARN)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenThrow(ResourceNotFoundException.builder().build())
-                .thenReturn(describeResponse);
         doReturn(createResponse).when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class),
                 any());
 
@@ -280,7 +254,7 @@ public class CreateHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -291,13 +265,13 @@ public class CreateHandlerTest {
                 .isEqualToComparingFieldByField(SPLUNK_CONFIGURATION_FULL);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -308,17 +282,9 @@ public class CreateHandlerTest {
                 .httpEndpointDestinationConfiguration(HTTP_ENDPOINT_DESTINATION_CONFIGURATION)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
-                        .build())
-                .build();
         final CreateDeliveryStreamResponse createResponse = CreateDeliveryStreamResponse.builder()
                 .deliveryStreamARN(DELIVERY_STREAM_NAME_ARN)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenThrow(ResourceNotFoundException.builder().build())
-                .thenReturn(describeResponse);
         doReturn(createResponse).when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class),
                 any());
 
@@ -330,7 +296,7 @@ public class CreateHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -341,13 +307,13 @@ public class CreateHandlerTest {
                 .isEqualToComparingFieldByField(HTTP_ENDPOINT_DESTINATION_CONFIGURATION);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -359,17 +325,9 @@ public class CreateHandlerTest {
                 .kinesisStreamSourceConfiguration(KINESIS_STREAM_SOURCE_CONFIGURATION)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
-                        .build())
-                .build();
         final CreateDeliveryStreamResponse createResponse = CreateDeliveryStreamResponse.builder()
                 .deliveryStreamARN(DELIVERY_STREAM_NAME_ARN)
                 .build();
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenThrow(ResourceNotFoundException.builder().build())
-                .thenReturn(describeResponse);
         doReturn(createResponse).when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class),
                 any());
 
@@ -381,7 +339,7 @@ public class CreateHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -392,13 +350,13 @@ public class CreateHandlerTest {
                 .isEqualToComparingFieldByField(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -423,7 +381,7 @@ public class CreateHandlerTest {
                 .build();
 
         final CallbackContext context = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -431,7 +389,7 @@ public class CreateHandlerTest {
                 = handler.handleRequest(proxy, request, context, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES-1)
+                .stabilizationRetriesRemaining(pollBudget(model) - 1)
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -439,7 +397,7 @@ public class CreateHandlerTest {
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
@@ -470,7 +428,7 @@ public class CreateHandlerTest {
                 .build();
 
         final CallbackContext context = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES-1)
+                .stabilizationRetriesRemaining(pollBudget(model) - 1)
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
                 .build();
 
@@ -496,12 +454,6 @@ public class CreateHandlerTest {
                 DELIVERY_STREAM_ENCRYPTION_CONFIGURATION_INPUT_CUSTOMER_MANAGED_CMK)
             .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
-                .build())
-            .build();
-
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
             .desiredResourceTags(CFN_MODEL_TAGS_IN_MAP)
@@ -509,7 +461,6 @@ public class CreateHandlerTest {
             .build();
 
         TestHelpers.stubCreateDeliveryStreamWithProvidedOrEmptyResponse(proxy, null);
-        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse);
         final ProgressEvent<ResourceModel, CallbackContext> response
             = handler.handleRequest(proxy, request, null, logger);
 
@@ -524,7 +475,7 @@ public class CreateHandlerTest {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -552,7 +503,32 @@ public class CreateHandlerTest {
     }
 
     @Test
-    public void testCreateDeliveryStreamAlreadyExists() {
+    public void testCreateDeliveryStreamTimesOutOnceTheDeadlinePasses() {
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final CallbackContext context = CallbackContext.builder()
+                .stabilizationRetriesRemaining(pollBudget(model))
+                .stabilizationStartedAtMillis(System.currentTimeMillis() - 3_600_000L)
+                .stabilizationDeadlineMillis(System.currentTimeMillis() - 1_000L)
+                .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
+                .build();
+
+        assertThatThrownBy(() -> handler.handleRequest(proxy, request, context, logger))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage(TIMED_OUT_MESSAGE);
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
+    @Test
+    public void testCreateDeliveryStreamKeepsPollingUntilTheDeadline() {
         final ResourceModel model = ResourceModel.builder()
                 .deliveryStreamName(DELIVERY_STREAM_NAME)
                 .deliveryStreamType(DELIVERY_STREAM_TYPE)
@@ -564,7 +540,47 @@ public class CreateHandlerTest {
                         .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
                         .build())
                 .build();
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
+                any())).thenReturn(describeResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        // Longer delays than the schedule's used up the polls, but the stream still has time left.
+        final long startedAtMillis = System.currentTimeMillis() - 1_200_000L;
+        final long deadlineMillis = startedAtMillis + 1_800_000L;
+        final CallbackContext context = CallbackContext.builder()
+                .stabilizationRetriesRemaining(0)
+                .stabilizationStartedAtMillis(startedAtMillis)
+                .stabilizationDeadlineMillis(deadlineMillis)
+                .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getStabilizationStartedAtMillis()).isEqualTo(startedAtMillis);
+        assertThat(response.getCallbackContext().getStabilizationDeadlineMillis()).isEqualTo(deadlineMillis);
+        // Twenty minutes in, the schedule is at its longest delay.
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+    }
+
+    @Test
+    public void testCreateDeliveryStreamCallbackDelayHasJitterForTheStreamName() {
+        System.setProperty(StabilizationSchedule.JITTER_PERCENT_SETTING, "50");
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
 
+        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
+                .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                        .deliveryStreamStatus(DeliveryStreamStatus.CREATING)
+                        .build())
+                .build();
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
                 any())).thenReturn(describeResponse);
 
@@ -572,12 +588,73 @@ public class CreateHandlerTest {
                 .desiredResourceState(model)
                 .build();
 
+        // Five minutes in, where the schedule polls every 30 seconds.
+        final long startedAtMillis = System.currentTimeMillis() - 300_000L;
+        final CallbackContext context = CallbackContext.builder()
+                .stabilizationRetriesRemaining(pollBudget(model))
+                .stabilizationStartedAtMillis(startedAtMillis)
+                .stabilizationDeadlineMillis(startedAtMillis + 1_800_000L)
+                .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> repeatedResponse
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getCallbackDelaySeconds())
+                .isEqualTo(StabilizationSchedule.withJitter(30, DELIVERY_STREAM_NAME, pollBudget(model) - 1, 50))
+                .isBetween(30, 45)
+                .isEqualTo(repeatedResponse.getCallbackDelaySeconds());
+    }
+
+    @Test
+    public void testCreateDeliveryStreamAlreadyExists() {
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+
+        when(proxy.injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class),
+                any())).thenThrow(ResourceInUseException.builder()
+                        .message("Firehose " + DELIVERY_STREAM_NAME + " under account 123456789012 already exists.")
+                        .build());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
         final ProgressEvent<ResourceModel, CallbackContext> response =
             handler.handleRequest(proxy, request, null, logger);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.AlreadyExists);
-        verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        assertThat(response.getMessage()).isEqualTo("Firehose already exists with the name: " + DELIVERY_STREAM_NAME);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
+    @Test
+    public void testCreateDeliveryStreamFirstInvocationOnlyCallsCreate() {
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+        TestHelpers.stubCreateDeliveryStreamWithProvidedOrEmptyResponse(proxy, null);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getDeliveryStreamStatus()).isEqualTo(DeliveryStreamStatus.CREATING.toString());
+        // The name is checked by CreateDeliveryStream itself, and the status is first described by the callback.
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
+        verifyNoMoreInteractions(proxy);
     }
 
     @Test
@@ -622,7 +699,7 @@ public class CreateHandlerTest {
             .build();
 
         final CallbackContext context = CallbackContext.builder()
-            .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+            .stabilizationRetriesRemaining(pollBudget(model))
             .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
             .build();
 
@@ -632,7 +709,7 @@ public class CreateHandlerTest {
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext().getStabilizationRetriesRemaining()).isEqualTo(NUMBER_OF_STATUS_POLL_RETRIES-1);
+        assertThat(response.getCallbackContext().getStabilizationRetriesRemaining()).isEqualTo(pollBudget(model) - 1);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
@@ -664,7 +741,7 @@ public class CreateHandlerTest {
             .build();
 
         final CallbackContext context = CallbackContext.builder()
-            .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES-1)
+            .stabilizationRetriesRemaining(pollBudget(model) - 1)
             .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
             .build();
 
@@ -681,4 +758,111 @@ public class CreateHandlerTest {
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
+    @Test
+    public void testCreateDeliveryStreamContinuesInNextInvocationWhenOutOfTime() {
+        System.setProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING, "0");
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, null, logger);
+
+        final CallbackContext desiredOutputContext = CallbackContext.builder()
+                .stabilizationRetriesRemaining(pollBudget(model))
+                .build();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(HandlerUtils.OUT_OF_TIME_CALLBACK_DELAY_SECONDS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+        verifyZeroInteractions(proxy);
+    }
+
+    @Test
+    public void testCreateDeliveryStreamSucceedsWithinInvocationWhenShortPolling() {
+        System.setProperty(ShortPoller.BUDGET_MILLIS_SETTING, "10000");
+        System.setProperty(ShortPoller.INTERVAL_MILLIS_SETTING, "1");
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
+                any())).thenReturn(describeResponseWithStatus(DeliveryStreamStatus.CREATING))
+                       .thenReturn(describeResponseWithStatus(DeliveryStreamStatus.CREATING))
+                       .thenReturn(describeResponseWithStatus(DeliveryStreamStatus.ACTIVE));
+        doReturn(CreateDeliveryStreamResponse.builder().deliveryStreamARN(DELIVERY_STREAM_NAME_ARN).build())
+            .when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getResourceModel().getArn()).isEqualTo(DELIVERY_STREAM_NAME_ARN);
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
+    @Test
+    public void testCreateDeliveryStreamFallsBackToCallbacksWhenShortPollBudgetRunsOut() {
+        System.setProperty(ShortPoller.BUDGET_MILLIS_SETTING, "50");
+        System.setProperty(ShortPoller.INTERVAL_MILLIS_SETTING, "20");
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
+                any())).thenReturn(describeResponseWithStatus(DeliveryStreamStatus.CREATING));
+        doReturn(CreateDeliveryStreamResponse.builder().deliveryStreamARN(DELIVERY_STREAM_NAME_ARN).build())
+            .when(proxy).injectCredentialsAndInvokeV2(any(CreateDeliveryStreamRequest.class), any());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, null, logger);
+
+        final CallbackContext desiredOutputContext = CallbackContext.builder()
+                .stabilizationRetriesRemaining(pollBudget(model))
+                .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString())
+                .build();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
+    }
+
+    private static DescribeDeliveryStreamResponse describeResponseWithStatus(final DeliveryStreamStatus status) {
+        return DescribeDeliveryStreamResponse.builder()
+                .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                        .deliveryStreamStatus(status)
+                        .build())
+                .build();
+    }
+
+    private static int pollBudget(final ResourceModel model) {
+        return StabilizationProfile.forModel(model).schedule().pollBudget();
+    }
+
+    // A stabilization that starts in this invocation also records when it started, its deadline and its telemetry.
+    private static void assertNewStabilization(final CallbackContext callbackContext, final CallbackContext desiredOutputContext) {
+        assertThat(callbackContext).isEqualToIgnoringGivenFields(desiredOutputContext,
+            "stabilizationStartedAtMillis", "stabilizationDeadlineMillis", "stabilizationTelemetry");
+        assertThat(callbackContext.getStabilizationDeadlineMillis()).isGreaterThan(callbackContext.getStabilizationStartedAtMillis());
+        assertThat(callbackContext.getStabilizationTelemetry().getStartedAtMillis())
+            .isEqualTo(callbackContext.getStabilizationStartedAtMillis());
+        assertThat(callbackContext.getStabilizationTelemetry().getLastDeliveryStreamStatus())
+            .isEqualTo(desiredOutputContext.getDeliveryStreamStatus());
+    }
 }
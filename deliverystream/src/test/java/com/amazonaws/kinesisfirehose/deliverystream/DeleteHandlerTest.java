@@ -1,10 +1,13 @@
 package com.amazonaws.kinesisfirehose.deliverystream;
 
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.firehose.model.DeleteDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.DeleteDeliveryStreamResponse;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
 import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamRequest;
 import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.FirehoseException;
 import software.amazon.awssdk.services.firehose.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
@@ -12,19 +15,23 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import static com.amazonaws.kinesisfirehose.deliverystream.DeleteHandler.NUMBER_OF_STATUS_POLL_RETRIES;
 import static com.amazonaws.kinesisfirehose.deliverystream.DeleteHandler.TIMED_OUT_MESSAGE;
 import static com.amazonaws.kinesisfirehose.deliverystream.DeleteHandler.DELIVERY_STREAM_DELETED;
 import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 
@@ -41,6 +48,15 @@ public class DeleteHandlerTest {
     @BeforeEach
     public void setup() {
         handler = new DeleteHandler();
+        // Most tests check the scheduled delays themselves.
+        System.setProperty(StabilizationSchedule.JITTER_PERCENT_SETTING, "0");
+    }
+
+    @AfterEach
+    public void clearSettings() {
+        System.clearProperty(StabilizationSchedule.JITTER_PERCENT_SETTING);
+        System.clearProperty(ShortPoller.BUDGET_MILLIS_SETTING);
+        System.clearProperty(ShortPoller.INTERVAL_MILLIS_SETTING);
     }
 
     @Test
@@ -51,15 +67,6 @@ public class DeleteHandlerTest {
                 .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.DELETING)
-                        .build())
-                .build();
-
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenReturn(describeResponse);
-
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .build();
@@ -68,20 +75,20 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -92,15 +99,6 @@ public class DeleteHandlerTest {
                 .redshiftDestinationConfiguration(REDSHIFT_DESTINATION_CONFIGURATION)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.DELETING)
-                        .build())
-                .build();
-
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenReturn(describeResponse);
-
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .build();
@@ -109,20 +107,20 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -133,15 +131,6 @@ public class DeleteHandlerTest {
                 .elasticsearchDestinationConfiguration(ELASTICSEARCH_DESTINATION_CONFIGURATION_FULL)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.DELETING)
-                        .build())
-                .build();
-
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenReturn(describeResponse);
-
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .build();
@@ -150,20 +139,20 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -174,15 +163,6 @@ public class DeleteHandlerTest {
                 .splunkDestinationConfiguration(SPLUNK_CONFIGURATION_FULL)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.DELETING)
-                        .build())
-                .build();
-
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenReturn(describeResponse);
-
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .build();
@@ -191,20 +171,20 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -216,15 +196,6 @@ public class DeleteHandlerTest {
                 .kinesisStreamSourceConfiguration(KINESIS_STREAM_SOURCE_CONFIGURATION)
                 .build();
 
-        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
-                .deliveryStreamDescription(DeliveryStreamDescription.builder()
-                        .deliveryStreamStatus(DeliveryStreamStatus.DELETING)
-                        .build())
-                .build();
-
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenReturn(describeResponse);
-
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .build();
@@ -233,20 +204,20 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, null, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertNewStabilization(response.getCallbackContext(), desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
     @Test
@@ -271,7 +242,7 @@ public class DeleteHandlerTest {
                 .build();
 
         final CallbackContext context = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.ACTIVE.toString())
                 .build();
 
@@ -279,7 +250,7 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, context, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES-1)
+                .stabilizationRetriesRemaining(pollBudget(model) - 1)
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
@@ -287,7 +258,7 @@ public class DeleteHandlerTest {
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
@@ -317,7 +288,7 @@ public class DeleteHandlerTest {
                 .build();
 
         final CallbackContext context = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.CREATING_FAILED.toString())
                 .build();
 
@@ -325,7 +296,7 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, context, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES-1)
+                .stabilizationRetriesRemaining(pollBudget(model) - 1)
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
@@ -333,7 +304,7 @@ public class DeleteHandlerTest {
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
@@ -363,7 +334,7 @@ public class DeleteHandlerTest {
                 .build();
 
         final CallbackContext context = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
@@ -371,7 +342,7 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, context, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES-1)
+                .stabilizationRetriesRemaining(pollBudget(model) - 1)
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
@@ -379,7 +350,7 @@ public class DeleteHandlerTest {
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
@@ -409,7 +380,7 @@ public class DeleteHandlerTest {
                 .build();
 
         final CallbackContext context = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+                .stabilizationRetriesRemaining(pollBudget(model))
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING_FAILED.toString())
                 .build();
 
@@ -417,7 +388,7 @@ public class DeleteHandlerTest {
                 = handler.handleRequest(proxy, request, context, logger);
 
         final CallbackContext desiredOutputContext = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES-1)
+                .stabilizationRetriesRemaining(pollBudget(model) - 1)
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
@@ -425,7 +396,7 @@ public class DeleteHandlerTest {
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(30);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
@@ -433,6 +404,57 @@ public class DeleteHandlerTest {
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
     }
 
+    @Test
+    public void testDeleteDeliverySteamThrottledPollIsRetried() {
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+
+        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
+                .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                        .deliveryStreamStatus(DELIVERY_STREAM_DELETED)
+                        .build())
+                .build();
+        final FirehoseException throttled = (FirehoseException) FirehoseException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .statusCode(400)
+                .build();
+
+        doThrow(throttled).doReturn(describeResponse)
+                .when(proxy).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final CallbackContext context = CallbackContext.builder()
+                .stabilizationRetriesRemaining(pollBudget(model))
+                .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        final CallbackContext desiredOutputContext = CallbackContext.builder()
+                .stabilizationRetriesRemaining(pollBudget(model) - 1)
+                .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
+                .build();
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(desiredOutputContext);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(StabilizationSchedule.MIN_DELAY_WITHOUT_STATUS_SECONDS);
+        assertThat(response.getErrorCode()).isNull();
+
+        final ProgressEvent<ResourceModel, CallbackContext> retried
+                = handler.handleRequest(proxy, request, response.getCallbackContext(), logger);
+
+        assertThat(retried.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
     @Test
     public void testDeleteDeliverySteamComplete() {
         final ResourceModel model = ResourceModel.builder()
@@ -455,7 +477,7 @@ public class DeleteHandlerTest {
                 .build();
 
         final CallbackContext context = CallbackContext.builder()
-                .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES-1)
+                .stabilizationRetriesRemaining(pollBudget(model) - 1)
                 .deliveryStreamStatus(DeliveryStreamStatus.DELETING.toString())
                 .build();
 
@@ -504,8 +526,10 @@ public class DeleteHandlerTest {
                 .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
                 .build();
 
-        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenThrow(ResourceNotFoundException.builder().build());
+        when(proxy.injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class),
+                any())).thenThrow(ResourceNotFoundException.builder()
+                        .message("Firehose " + DELIVERY_STREAM_NAME + " under account 123456789012 not found.")
+                        .build());
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
@@ -515,8 +539,80 @@ public class DeleteHandlerTest {
                 handler.handleRequest(proxy, request, null, logger);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
-        verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        assertThat(response.getMessage()).isEqualTo("Firehose doesn't exist with the name: " + DELIVERY_STREAM_NAME);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
+    @Test
+    public void testDeleteDeliveryStreamFirstInvocationOnlyCallsDelete() {
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getDeliveryStreamStatus()).isEqualTo(DeliveryStreamStatus.DELETING.toString());
+        // A missing stream is reported by DeleteDeliveryStream itself, and the status is first described by the callback.
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
+        verifyNoMoreInteractions(proxy);
     }
 
+    @Test
+    public void testDeleteDeliveryStreamSucceedsWithinInvocationWhenShortPolling() {
+        System.setProperty(ShortPoller.BUDGET_MILLIS_SETTING, "10000");
+        System.setProperty(ShortPoller.INTERVAL_MILLIS_SETTING, "1");
+        final ResourceModel model = ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build();
+
+        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
+                .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                        .deliveryStreamStatus(DeliveryStreamStatus.DELETING)
+                        .build())
+                .build();
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
+                any())).thenReturn(describeResponse)
+                       .thenThrow(ResourceNotFoundException.builder().build());
+        doReturn(DeleteDeliveryStreamResponse.builder().build())
+            .when(proxy).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getCallbackContext()).isNull();
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteDeliveryStreamRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
+    private static int pollBudget(final ResourceModel model) {
+        return StabilizationProfile.forModel(model).schedule().pollBudget();
+    }
+
+    // A stabilization that starts in this invocation also records when it started, its deadline and its telemetry.
+    private static void assertNewStabilization(final CallbackContext callbackContext, final CallbackContext desiredOutputContext) {
+        assertThat(callbackContext).isEqualToIgnoringGivenFields(desiredOutputContext,
+            "stabilizationStartedAtMillis", "stabilizationDeadlineMillis", "stabilizationTelemetry");
+        assertThat(callbackContext.getStabilizationDeadlineMillis()).isGreaterThan(callbackContext.getStabilizationStartedAtMillis());
+        assertThat(callbackContext.getStabilizationTelemetry().getStartedAtMillis())
+            .isEqualTo(callbackContext.getStabilizationStartedAtMillis());
+        assertThat(callbackContext.getStabilizationTelemetry().getLastDeliveryStreamStatus())
+            .isEqualTo(desiredOutputContext.getDeliveryStreamStatus());
+    }
 }
@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import lombok.val;
 import software.amazon.awssdk.services.firehose.model.*;
 import software.amazon.awssdk.services.firehose.model.HiveJsonSerDe;
 import software.amazon.awssdk.services.firehose.model.OrcSerDe;
@@ -352,4 +353,59 @@ public class DeliveryStreamTestHelper  {
         Collectors.toMap(Tag::getKey, Tag::getValue));
 
     public final static List<software.amazon.awssdk.services.firehose.model.Tag> EXISTING_FIREHOSE_RESPONSE_TAGS = HandlerUtils.generateNFirehoseTags(5, 6);
+
+    // The description DescribeDeliveryStream gives of a destination created from the given configuration.
+    public static S3DestinationDescription s3DestinationDescription(final S3DestinationConfiguration configuration) {
+        if (configuration == null) {
+            return null;
+        }
+        val sent = HandlerUtils.translateS3DestinationConfiguration(configuration);
+        return S3DestinationDescription.builder()
+            .bucketARN(sent.bucketARN())
+            .bufferingHints(sent.bufferingHints())
+            .cloudWatchLoggingOptions(sent.cloudWatchLoggingOptions())
+            .compressionFormat(sent.compressionFormatAsString())
+            .encryptionConfiguration(sent.encryptionConfiguration())
+            .errorOutputPrefix(sent.errorOutputPrefix())
+            .prefix(sent.prefix())
+            .roleARN(sent.roleARN())
+            .build();
+    }
+
+    public static ExtendedS3DestinationDescription extendedS3DestinationDescription(final ExtendedS3DestinationConfiguration configuration) {
+        val sent = HandlerUtils.translateExtendedS3DestinationConfiguration(configuration);
+        return ExtendedS3DestinationDescription.builder()
+            .bucketARN(sent.bucketARN())
+            .bufferingHints(sent.bufferingHints())
+            .cloudWatchLoggingOptions(sent.cloudWatchLoggingOptions())
+            .compressionFormat(sent.compressionFormatAsString())
+            .dataFormatConversionConfiguration(sent.dataFormatConversionConfiguration())
+            .encryptionConfiguration(sent.encryptionConfiguration())
+            .errorOutputPrefix(sent.errorOutputPrefix())
+            .prefix(sent.prefix())
+            .processingConfiguration(sent.processingConfiguration())
+            .roleARN(sent.roleARN())
+            .s3BackupDescription(s3DestinationDescription(configuration.getS3BackupConfiguration()))
+            .s3BackupMode(sent.s3BackupModeAsString())
+            .build();
+    }
+
+    // Describe leaves out the access key.
+    public static HttpEndpointDestinationDescription httpEndpointDestinationDescription(final HttpEndpointDestinationConfiguration configuration) {
+        val sent = HandlerUtils.translateHttpEndpointDestinationConfiguration(configuration);
+        return HttpEndpointDestinationDescription.builder()
+            .bufferingHints(sent.bufferingHints())
+            .cloudWatchLoggingOptions(sent.cloudWatchLoggingOptions())
+            .endpointConfiguration(HttpEndpointDescription.builder()
+                .name(sent.endpointConfiguration().name())
+                .url(sent.endpointConfiguration().url())
+                .build())
+            .processingConfiguration(sent.processingConfiguration())
+            .requestConfiguration(sent.requestConfiguration())
+            .retryOptions(sent.retryOptions())
+            .roleARN(sent.roleARN())
+            .s3BackupMode(sent.s3BackupModeAsString())
+            .s3DestinationDescription(s3DestinationDescription(configuration.getS3Configuration()))
+            .build();
+    }
 }
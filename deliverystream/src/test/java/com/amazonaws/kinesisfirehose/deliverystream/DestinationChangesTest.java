@@ -0,0 +1,132 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
+import software.amazon.awssdk.services.firehose.model.DestinationDescription;
+
+public class DestinationChangesTest {
+
+    @Test
+    public void testUnchangedDestinationIsLeftOut() {
+        assertThat(DestinationChanges.of(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL, EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)).isNull();
+    }
+
+    @Test
+    public void testDestinationWithoutLiveOneIsSentWhole() {
+        assertThat(DestinationChanges.of(null, EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)).isSameAs(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL);
+        assertThat(DestinationChanges.of(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL, (ExtendedS3DestinationConfiguration) null)).isNull();
+    }
+
+    @Test
+    public void testOnlyChangedPropertiesAreKept() {
+        val live = S3DestinationConfiguration.builder()
+            .bucketARN(BUCKET_ARN)
+            .roleARN(ROLE_ARN)
+            .bufferingHints(BUFFERING_HINTS)
+            .prefix(PREFIX)
+            .build();
+        val desired = S3DestinationConfiguration.builder()
+            .bucketARN(BUCKET_ARN)
+            .roleARN(ROLE_ARN)
+            .bufferingHints(BUFFERING_HINTS_UPDATED)
+            .prefix(PREFIX)
+            .build();
+        assertThat(DestinationChanges.of(live, desired)).isEqualTo(S3DestinationConfiguration.builder()
+            .bufferingHints(BUFFERING_HINTS_UPDATED)
+            .build());
+    }
+
+    @Test
+    public void testNestedS3ConfigurationIsDiffedToo() {
+        val desiredS3 = S3DestinationConfiguration.builder()
+            .bucketARN(BUCKET_ARN)
+            .roleARN(ROLE_ARN)
+            .prefix("changed/")
+            .build();
+        val live = RedshiftDestinationConfiguration.builder()
+            .clusterJDBCURL("jdbc:redshift://cluster:5439/db")
+            .username("user")
+            .password("password")
+            .roleARN(ROLE_ARN)
+            .s3Configuration(S3DestinationConfiguration.builder()
+                .bucketARN(BUCKET_ARN)
+                .roleARN(ROLE_ARN)
+                .prefix(PREFIX)
+                .build())
+            .build();
+        val desired = RedshiftDestinationConfiguration.builder()
+            .clusterJDBCURL("jdbc:redshift://cluster:5439/db")
+            .username("user")
+            .password("password")
+            .roleARN(ROLE_ARN)
+            .s3Configuration(desiredS3)
+            .build();
+        assertThat(DestinationChanges.of(live, desired)).isEqualTo(RedshiftDestinationConfiguration.builder()
+            .s3Configuration(S3DestinationConfiguration.builder().prefix("changed/").build())
+            .build());
+    }
+
+    @Test
+    public void testChangedValueIsKeptWhenClearedValueIsNot() {
+        val live = SplunkDestinationConfiguration.builder()
+            .hECEndpoint("https://splunk:8088")
+            .hECAcknowledgmentTimeoutInSeconds(180)
+            .build();
+        val desired = SplunkDestinationConfiguration.builder()
+            .hECEndpoint("https://splunk:8088")
+            .hECAcknowledgmentTimeoutInSeconds(300)
+            .build();
+        val changes = DestinationChanges.of(live, desired);
+        assertThat(changes.getHECEndpoint()).isNull();
+        assertThat(changes.getHECAcknowledgmentTimeoutInSeconds()).isEqualTo(300);
+    }
+
+    @Test
+    public void testNothingIsLeftWhenOnlyLiveDefaultsDiffer() {
+        val live = S3DestinationConfiguration.builder()
+            .bucketARN(BUCKET_ARN)
+            .roleARN(ROLE_ARN)
+            .compressionFormat(COMPRESSION_FORMAT)
+            .build();
+        val desired = S3DestinationConfiguration.builder()
+            .bucketARN(BUCKET_ARN)
+            .roleARN(ROLE_ARN)
+            .build();
+        assertThat(DestinationChanges.of(live, desired)).isNull();
+    }
+
+    @Test
+    public void testDescribedDestinationMatchesTheConfigurationItWasCreatedFrom() {
+        val live = DestinationChanges.described(describedAs(DestinationDescription.builder()
+            .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
+            .build()), null);
+        assertThat(live.getExtendedS3DestinationConfiguration()).isEqualTo(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL);
+        assertThat(DestinationChanges.of(live.getExtendedS3DestinationConfiguration(), EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)).isNull();
+    }
+
+    @Test
+    public void testSecretsDescribeLeavesOutComeFromThePreviousModel() {
+        val described = describedAs(DestinationDescription.builder()
+            .httpEndpointDestinationDescription(httpEndpointDestinationDescription(HTTP_ENDPOINT_DESTINATION_CONFIGURATION))
+            .build());
+        val previousModel = ResourceModel.builder()
+            .httpEndpointDestinationConfiguration(HTTP_ENDPOINT_DESTINATION_CONFIGURATION)
+            .build();
+        assertThat(DestinationChanges.of(DestinationChanges.described(described, previousModel).getHttpEndpointDestinationConfiguration(),
+            HTTP_ENDPOINT_DESTINATION_CONFIGURATION)).isNull();
+        // Without a previous model the access key can't be compared, so it is sent.
+        assertThat(DestinationChanges.of(DestinationChanges.described(described, null).getHttpEndpointDestinationConfiguration(),
+            HTTP_ENDPOINT_DESTINATION_CONFIGURATION).getEndpointConfiguration()).isEqualTo(HTTP_ENDPOINT_CONFIGURATION);
+    }
+
+    private static DeliveryStreamDescription describedAs(final DestinationDescription destination) {
+        return DeliveryStreamDescription.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .destinations(destination)
+            .build();
+    }
+}
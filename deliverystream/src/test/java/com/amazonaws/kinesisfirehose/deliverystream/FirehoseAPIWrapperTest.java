@@ -0,0 +1,114 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.DELIVERY_STREAM_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.firehose.model.StopDeliveryStreamEncryptionRequest;
+import software.amazon.awssdk.services.firehose.model.StopDeliveryStreamEncryptionResponse;
+import software.amazon.awssdk.services.firehose.model.UntagDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.UntagDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.UpdateDestinationRequest;
+import software.amazon.awssdk.services.firehose.model.UpdateDestinationResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+@ExtendWith(MockitoExtension.class)
+public class FirehoseAPIWrapperTest {
+
+    private static final DescribeDeliveryStreamResponse DESCRIBE_RESPONSE = DescribeDeliveryStreamResponse.builder()
+        .deliveryStreamDescription(DeliveryStreamDescription.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .versionId("1")
+            .build())
+        .build();
+
+    @Mock
+    private AmazonWebServicesClientProxy proxy;
+
+    private FirehoseAPIWrapper firehoseAPIWrapper;
+
+    @BeforeEach
+    public void setup() {
+        firehoseAPIWrapper = FirehoseAPIWrapper.builder().clientProxy(proxy).build();
+    }
+
+    @Test
+    public void testDescribeIsMemoized() {
+        stubDescribe();
+        assertThat(firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME)).isSameAs(DESCRIBE_RESPONSE);
+        assertThat(firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME)).isSameAs(DESCRIBE_RESPONSE);
+        assertThat(firehoseAPIWrapper.describeCalls()).isEqualTo(1);
+        assertThat(firehoseAPIWrapper.describeCacheHits()).isEqualTo(1);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
+    @Test
+    public void testRedescribeAlwaysCallsAndRefreshesTheMemo() {
+        stubDescribe();
+        firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME);
+        firehoseAPIWrapper.redescribeDeliveryStream(DELIVERY_STREAM_NAME);
+        firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME);
+        assertThat(firehoseAPIWrapper.describeCalls()).isEqualTo(2);
+        assertThat(firehoseAPIWrapper.describeCacheHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMutatingCallsInvalidateTheMemo() {
+        stubDescribe();
+        doReturn(UpdateDestinationResponse.builder().build()).when(proxy)
+            .injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        doReturn(StopDeliveryStreamEncryptionResponse.builder().build()).when(proxy)
+            .injectCredentialsAndInvokeV2(any(StopDeliveryStreamEncryptionRequest.class), any());
+        doReturn(UntagDeliveryStreamResponse.builder().build()).when(proxy)
+            .injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
+
+        firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME);
+        firehoseAPIWrapper.updateDestination(UpdateDestinationRequest.builder().deliveryStreamName(DELIVERY_STREAM_NAME).build());
+        firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME);
+        firehoseAPIWrapper.stopDeliveryStreamEncryption(DELIVERY_STREAM_NAME);
+        firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME);
+        firehoseAPIWrapper.untagDeliveryStream(DELIVERY_STREAM_NAME, Collections.singletonList("k1"));
+        firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME);
+        assertThat(firehoseAPIWrapper.describeCalls()).isEqualTo(4);
+        assertThat(firehoseAPIWrapper.describeCacheHits()).isZero();
+    }
+
+    @Test
+    public void testFailedDescribeIsNotMemoized() {
+        val notFound = ResourceNotFoundException.builder().message("not found").build();
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any()))
+            .thenThrow(notFound)
+            .thenReturn(DESCRIBE_RESPONSE);
+        assertThatThrownBy(() -> firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME)).isSameAs(notFound);
+        assertThat(firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME)).isSameAs(DESCRIBE_RESPONSE);
+        assertThat(firehoseAPIWrapper.describeCalls()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMemoIsPerDeliveryStream() {
+        stubDescribe();
+        firehoseAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME);
+        firehoseAPIWrapper.describeDeliveryStream("other-stream");
+        assertThat(firehoseAPIWrapper.describeCalls()).isEqualTo(2);
+    }
+
+    private void stubDescribe() {
+        doReturn(DESCRIBE_RESPONSE).when(proxy).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+}
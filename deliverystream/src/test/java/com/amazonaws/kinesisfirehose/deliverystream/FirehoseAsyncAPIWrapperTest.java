@@ -0,0 +1,96 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.DELIVERY_STREAM_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.firehose.FirehoseAsyncClient;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.ListTagsForDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.ListTagsForDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.firehose.model.Tag;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+@ExtendWith(MockitoExtension.class)
+public class FirehoseAsyncAPIWrapperTest {
+
+    @Mock
+    private AmazonWebServicesClientProxy proxy;
+
+    @Mock
+    private FirehoseAsyncClient firehoseAsyncClient;
+
+    private FirehoseAsyncAPIWrapper firehoseAsyncAPIWrapper;
+
+    @BeforeEach
+    public void setup() {
+        when(proxy.injectCredentialsAndInvokeV2Async(any(), any())).thenAnswer(FirehoseAsyncAPIWrapperTest::invokeRequestFunction);
+        firehoseAsyncAPIWrapper = FirehoseAsyncAPIWrapper.builder()
+            .clientProxy(proxy)
+            .firehoseAsyncClient(firehoseAsyncClient)
+            .build();
+    }
+
+    @Test
+    public void testListAllTagsFollowsPages() {
+        val firstTag = Tag.builder().key("k1").value("v1").build();
+        val secondTag = Tag.builder().key("k2").value("v2").build();
+        when(firehoseAsyncClient.listTagsForDeliveryStream(any(ListTagsForDeliveryStreamRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(ListTagsForDeliveryStreamResponse.builder()
+                .tags(firstTag).hasMoreTags(true).build()))
+            .thenReturn(CompletableFuture.completedFuture(ListTagsForDeliveryStreamResponse.builder()
+                .tags(secondTag).hasMoreTags(false).build()));
+
+        val tags = FirehoseAsyncAPIWrapper.join(firehoseAsyncAPIWrapper.listAllTagsOnDeliveryStream(DELIVERY_STREAM_NAME, 1));
+
+        assertThat(tags).containsExactly(firstTag, secondTag);
+        val requests = ArgumentCaptor.forClass(ListTagsForDeliveryStreamRequest.class);
+        verify(firehoseAsyncClient, times(2)).listTagsForDeliveryStream(requests.capture());
+        assertThat(requests.getAllValues().get(0).exclusiveStartTagKey()).isNull();
+        assertThat(requests.getAllValues().get(1).exclusiveStartTagKey()).isEqualTo("k1");
+    }
+
+    @Test
+    public void testListAllTagsWithNoTags() {
+        when(firehoseAsyncClient.listTagsForDeliveryStream(any(ListTagsForDeliveryStreamRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(ListTagsForDeliveryStreamResponse.builder()
+                .tags(Collections.emptyList()).hasMoreTags(false).build()));
+
+        assertThat(FirehoseAsyncAPIWrapper.join(firehoseAsyncAPIWrapper.listAllTagsOnDeliveryStream(DELIVERY_STREAM_NAME, 50))).isEmpty();
+    }
+
+    @Test
+    public void testJoinRethrowsServiceException() {
+        val failed = new CompletableFuture<DescribeDeliveryStreamResponse>();
+        failed.completeExceptionally(ResourceNotFoundException.builder().message("not found").build());
+        when(firehoseAsyncClient.describeDeliveryStream(any(DescribeDeliveryStreamRequest.class))).thenReturn(failed);
+
+        assertThatThrownBy(() -> FirehoseAsyncAPIWrapper.join(firehoseAsyncAPIWrapper.describeDeliveryStream(DELIVERY_STREAM_NAME)))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("not found");
+    }
+
+    private static CompletableFuture<AwsResponse> invokeRequestFunction(final InvocationOnMock invocation) {
+        final Function<AwsRequest, CompletableFuture<AwsResponse>> requestFunction = invocation.getArgument(1);
+        return requestFunction.apply(invocation.getArgument(0));
+    }
+}
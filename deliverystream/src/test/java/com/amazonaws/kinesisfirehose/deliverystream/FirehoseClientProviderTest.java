@@ -0,0 +1,99 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.amazonaws.kinesisfirehose.deliverystream.FirehoseClientProvider.HttpClientType;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.firehose.FirehoseAsyncClient;
+import software.amazon.awssdk.services.firehose.FirehoseClient;
+
+public class FirehoseClientProviderTest {
+    @AfterEach
+    public void clearSettings() {
+        System.clearProperty(FirehoseClientProvider.MAX_CONNECTIONS_SETTING);
+        System.clearProperty(FirehoseClientProvider.HTTP_CLIENT_SETTING);
+        System.clearProperty(FirehoseClientProvider.ENDPOINT_OVERRIDE_SETTING);
+        System.clearProperty(FirehoseClientProvider.EVENT_LOOP_THREADS_SETTING);
+        System.clearProperty("aws.region");
+    }
+
+    @Test
+    public void testHttpClientTypeDefaultsToApache() {
+        assertThat(HttpClientType.fromSetting(null)).isEqualTo(HttpClientType.APACHE);
+    }
+
+    @Test
+    public void testHttpClientTypeIsCaseInsensitive() {
+        assertThat(HttpClientType.fromSetting("apache")).isEqualTo(HttpClientType.APACHE);
+        assertThat(HttpClientType.fromSetting("Url_Connection")).isEqualTo(HttpClientType.URL_CONNECTION);
+    }
+
+    @Test
+    public void testHttpClientTypeRejectsUnknownValue() {
+        assertThatThrownBy(() -> HttpClientType.fromSetting("crt"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(FirehoseClientProvider.HTTP_CLIENT_SETTING);
+    }
+
+    @Test
+    public void testBuildHttpClient() {
+        try (SdkHttpClient urlConnectionClient = FirehoseClientProvider.buildHttpClient(HttpClientType.URL_CONNECTION);
+             SdkHttpClient apacheClient = FirehoseClientProvider.buildHttpClient(HttpClientType.APACHE)) {
+            assertThat(urlConnectionClient).isInstanceOf(UrlConnectionHttpClient.class);
+            assertThat(apacheClient).isInstanceOf(ApacheHttpClient.class);
+        }
+    }
+
+    @Test
+    public void testBuildClientWithMalformedSettingsUsesDefaults() {
+        System.setProperty(FirehoseClientProvider.MAX_CONNECTIONS_SETTING, "many");
+        System.setProperty(FirehoseClientProvider.HTTP_CLIENT_SETTING, "crt");
+        System.setProperty("aws.region", "us-east-1");
+        assertThat(FirehoseClientProvider.httpClientType()).isEqualTo(HttpClientType.APACHE);
+        try (SdkHttpClient apacheClient = FirehoseClientProvider.buildHttpClient(HttpClientType.APACHE);
+             FirehoseClient client = FirehoseClientProvider.buildClient()) {
+            assertThat(apacheClient).isInstanceOf(ApacheHttpClient.class);
+            assertThat(client).isNotNull();
+        }
+    }
+
+    @Test
+    public void testBuildClientWithEndpointOverride() {
+        System.setProperty(FirehoseClientProvider.HTTP_CLIENT_SETTING, "APACHE");
+        System.setProperty(FirehoseClientProvider.ENDPOINT_OVERRIDE_SETTING, "http://localhost:4573");
+        System.setProperty("aws.region", "us-east-1");
+        try (FirehoseClient client = FirehoseClientProvider.buildClient()) {
+            assertThat(client).isNotNull();
+        }
+    }
+
+    @Test
+    public void testAsyncClientIsAvailableWhenNettyIsOnTheClasspath() {
+        assertThat(FirehoseClientProvider.isAsyncClientAvailable()).isTrue();
+    }
+
+    @Test
+    public void testBuildAsyncHttpClient() {
+        System.setProperty(FirehoseClientProvider.EVENT_LOOP_THREADS_SETTING, "1");
+        try (SdkAsyncHttpClient nettyClient = FirehoseClientProvider.buildAsyncHttpClient()) {
+            assertThat(nettyClient).isInstanceOf(NettyNioAsyncHttpClient.class);
+        }
+    }
+
+    @Test
+    public void testBuildAsyncClientWithEndpointOverride() {
+        System.setProperty(FirehoseClientProvider.ENDPOINT_OVERRIDE_SETTING, "http://localhost:4573");
+        System.setProperty("aws.region", "us-east-1");
+        try (FirehoseAsyncClient client = FirehoseClientProvider.buildAsyncClient()) {
+            assertThat(client).isNotNull();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.amazonaws.kinesisfirehose.deliverystream.HandlerPrimer.PrimingMode;
+import java.util.ArrayList;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.resource.Serializer;
+
+public class HandlerPrimerTest {
+    @BeforeEach
+    public void setUp() {
+        // Priming finishes by building the shared client, which needs a region.
+        System.setProperty("aws.region", "us-east-1");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(HandlerPrimer.PRIMING_SETTING);
+        System.clearProperty("aws.region");
+    }
+
+    @Test
+    public void testPrimingPassCoversEveryDestinationType() throws Exception {
+        val models = HandlerPrimer.runPrimingPass(1);
+
+        assertThat(models).hasSize(HandlerPrimer.loadDescribeResponses().size());
+        val extendedS3 = models.get(0);
+        assertThat(extendedS3.getExtendedS3DestinationConfiguration().getDataFormatConversionConfiguration()).isNotNull();
+        assertThat(extendedS3.getExtendedS3DestinationConfiguration().getProcessingConfiguration().getProcessors()).hasSize(1);
+        assertThat(extendedS3.getKinesisStreamSourceConfiguration()).isNotNull();
+        assertThat(extendedS3.getS3DestinationConfiguration()).isNull();
+        assertThat(extendedS3.getTags()).hasSize(1);
+        assertThat(models.get(1).getS3DestinationConfiguration()).isNotNull();
+        assertThat(models.get(2).getRedshiftDestinationConfiguration().getCopyCommand()).isNotNull();
+        assertThat(models.get(3).getElasticsearchDestinationConfiguration().getVpcConfiguration()).isNotNull();
+        assertThat(models.get(4).getSplunkDestinationConfiguration()).isNotNull();
+        assertThat(models.get(5).getHttpEndpointDestinationConfiguration().getRequestConfiguration()).isNotNull();
+    }
+
+    @Test
+    public void testInvocationEnvelopeKeepsModelAndCallbackContext() throws Exception {
+        val model = ResourceModel.builder()
+            .deliveryStreamName(DeliveryStreamTestHelper.DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(DeliveryStreamTestHelper.EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+        val callbackContext = CallbackContext.builder().stabilizationRetriesRemaining(3).build();
+
+        assertThat(HandlerPrimer.primeInvocationEnvelope(new Serializer(), model, callbackContext)).isEqualTo(model);
+    }
+
+    @Test
+    public void testPrimeRunsOncePerJvm() throws Exception {
+        System.setProperty(HandlerPrimer.PRIMING_SETTING, "INIT");
+        HandlerPrimer.onInit();
+
+        assertThat(HandlerPrimer.prime()).isFalse();
+    }
+
+    @Test
+    public void testCheckpointModeOnlyRegistersHook() {
+        System.setProperty(HandlerPrimer.PRIMING_SETTING, "checkpoint");
+        HandlerPrimer.onInit();
+        HandlerPrimer.onInit();
+    }
+
+    @Test
+    public void testUnrecognisedPrimingSettingLeavesPrimingOff() {
+        System.setProperty(HandlerPrimer.PRIMING_SETTING, "always");
+        val messages = new ArrayList<String>();
+        HandlerPrimer.onInit(messages::add);
+
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0)).contains(HandlerPrimer.PRIMING_SETTING).contains("always");
+    }
+
+    @Test
+    public void testPrimingMode() {
+        assertThat(PrimingMode.fromSetting(null)).isEqualTo(PrimingMode.NONE);
+        assertThat(PrimingMode.fromSetting("init")).isEqualTo(PrimingMode.INIT);
+        assertThatThrownBy(() -> PrimingMode.fromSetting("always"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(HandlerPrimer.PRIMING_SETTING);
+    }
+}
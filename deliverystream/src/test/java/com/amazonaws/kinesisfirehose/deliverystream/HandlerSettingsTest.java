@@ -0,0 +1,43 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class HandlerSettingsTest {
+    private static final String SETTING = "FIREHOSE_HANDLER_SETTINGS_TEST";
+
+    @AfterEach
+    public void clearSetting() {
+        System.clearProperty(SETTING);
+    }
+
+    @Test
+    public void testDefaultsWhenUnset() {
+        assertThat(HandlerSettings.getString(SETTING, "default")).isEqualTo("default");
+        assertThat(HandlerSettings.getInt(SETTING, 7)).isEqualTo(7);
+        assertThat(HandlerSettings.getBoolean(SETTING, true)).isTrue();
+    }
+
+    @Test
+    public void testReadsSystemProperty() {
+        System.setProperty(SETTING, " 42 ");
+        assertThat(HandlerSettings.getString(SETTING, null)).isEqualTo("42");
+        assertThat(HandlerSettings.getInt(SETTING, 7)).isEqualTo(42);
+        System.setProperty(SETTING, "true");
+        assertThat(HandlerSettings.getBoolean(SETTING, false)).isTrue();
+    }
+
+    @Test
+    public void testEmptyValueFallsBackToDefault() {
+        System.setProperty(SETTING, "");
+        assertThat(HandlerSettings.getString(SETTING, "default")).isEqualTo("default");
+    }
+
+    @Test
+    public void testNonIntegerValueFallsBackToDefault() {
+        System.setProperty(SETTING, "ten");
+        assertThat(HandlerSettings.getInt(SETTING, 7)).isEqualTo(7);
+    }
+}
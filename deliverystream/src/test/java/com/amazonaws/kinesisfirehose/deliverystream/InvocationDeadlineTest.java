@@ -0,0 +1,76 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamRequest;
+
+public class InvocationDeadlineTest {
+    private final AtomicLong clock = new AtomicLong(1_000L);
+
+    @BeforeEach
+    public void setup() {
+        System.setProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING, "60000");
+        System.setProperty(InvocationDeadline.RESERVE_MILLIS_SETTING, "3000");
+        System.setProperty(InvocationDeadline.MIN_CALL_BUDGET_MILLIS_SETTING, "2000");
+        System.setProperty(InvocationDeadline.ATTEMPT_TIMEOUT_MILLIS_SETTING, "10000");
+    }
+
+    @AfterEach
+    public void clearSettings() {
+        System.clearProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING);
+        System.clearProperty(InvocationDeadline.RESERVE_MILLIS_SETTING);
+        System.clearProperty(InvocationDeadline.MIN_CALL_BUDGET_MILLIS_SETTING);
+        System.clearProperty(InvocationDeadline.ATTEMPT_TIMEOUT_MILLIS_SETTING);
+    }
+
+    @Test
+    public void testTimeoutsShrinkAsTheInvocationRuns() {
+        val deadline = InvocationDeadline.start(clock::get);
+        assertThat(deadline.hasTimeForCall()).isTrue();
+        assertThat(deadline.apiCallTimeout()).isEqualTo(Duration.ofMillis(57_000));
+        assertThat(deadline.apiCallAttemptTimeout()).isEqualTo(Duration.ofMillis(10_000));
+
+        clock.addAndGet(51_000);
+        assertThat(deadline.remainingMillis()).isEqualTo(9_000);
+        assertThat(deadline.apiCallTimeout()).isEqualTo(Duration.ofMillis(6_000));
+        assertThat(deadline.apiCallAttemptTimeout()).isEqualTo(Duration.ofMillis(6_000));
+    }
+
+    @Test
+    public void testNoTimeForCallInsideTheReserve() {
+        val deadline = InvocationDeadline.start(clock::get);
+        clock.addAndGet(55_500);
+        assertThat(deadline.hasTimeForCall()).isFalse();
+        // A call made anyway still gets the minimum budget.
+        assertThat(deadline.apiCallTimeout()).isEqualTo(Duration.ofMillis(2_000));
+
+        clock.addAndGet(10_000);
+        assertThat(deadline.remainingMillis()).isZero();
+        assertThat(deadline.hasTimeForCall()).isFalse();
+    }
+
+    @Test
+    public void testApplyToKeepsExistingOverrideConfiguration() {
+        val deadline = InvocationDeadline.start(clock::get);
+        val credentialsProvider = AnonymousCredentialsProvider.create();
+        val request = DescribeDeliveryStreamRequest.builder()
+            .deliveryStreamName("stream")
+            .overrideConfiguration(AwsRequestOverrideConfiguration.builder()
+                .credentialsProvider(credentialsProvider)
+                .build())
+            .build();
+
+        val overrideConfiguration = deadline.applyTo(request).overrideConfiguration().get();
+        assertThat(overrideConfiguration.credentialsProvider()).contains(credentialsProvider);
+        assertThat(overrideConfiguration.apiCallTimeout()).contains(Duration.ofMillis(57_000));
+        assertThat(overrideConfiguration.apiCallAttemptTimeout()).contains(Duration.ofMillis(10_000));
+    }
+}
@@ -6,6 +6,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
@@ -25,6 +26,7 @@ import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +38,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -59,6 +62,11 @@ public class ReadHandlerTest {
         readHandler = new ReadHandler();
     }
 
+    @AfterEach
+    public void clearSettings() {
+        System.clearProperty(ReadHandler.CONCURRENT_CALLS_SETTING);
+    }
+
     @Test
     public void testReadDeliveryStreamWithKinesisStreamAsSource() {
         ResourceModel model = ResourceModel.builder().deliveryStreamName(DELIVERY_STREAM_NAME).build();
@@ -696,6 +704,62 @@ public class ReadHandlerTest {
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
     }
 
+    @Test
+    public void testReadWithConcurrentCalls() {
+        System.setProperty(ReadHandler.CONCURRENT_CALLS_SETTING, "true");
+        ResourceModel model = ResourceModel.builder().deliveryStreamName(DELIVERY_STREAM_NAME).build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
+            .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                .deliveryStreamStatus(DeliveryStreamStatus.ACTIVE)
+                .deliveryStreamARN(DELIVERY_STREAM_NAME_ARN)
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamType(DELIVERY_STREAM_TYPE)
+                .destinations(ImmutableList.of(DestinationDescription.builder().s3DestinationDescription(S_3_DESTINATION_DESCRIPTION_RESPONSE).build()))
+                .build())
+            .build();
+        val respTags = EXISTING_FIREHOSE_RESPONSE_TAGS;
+        final ListTagsForDeliveryStreamResponse listTagsResp = ListTagsForDeliveryStreamResponse
+            .builder()
+            .tags(respTags)
+            .hasMoreTags(false)
+            .build();
+
+        doReturn(CompletableFuture.completedFuture(describeResponse)).when(proxy).injectCredentialsAndInvokeV2Async(any(DescribeDeliveryStreamRequest.class), any());
+        doReturn(CompletableFuture.completedFuture(listTagsResp)).when(proxy).injectCredentialsAndInvokeV2Async(any(ListTagsForDeliveryStreamRequest.class), any());
+        val response = readHandler.handleRequest(
+            proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        val resourceModel = response.getResourceModel();
+        assertThat(resourceModel.getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
+        assertThat(resourceModel.getS3DestinationConfiguration().getBucketARN()).isEqualTo(BUCKET_ARN);
+        assertThat(HandlerUtils.validateCfnModelTags(resourceModel.getTags(), HandlerUtils.translateFirehoseSDKTagsToCfnModelTags(respTags))).isTrue();
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(), any());
+    }
+
+    @Test
+    public void testReadWithConcurrentCallsResourceNotFound() {
+        System.setProperty(ReadHandler.CONCURRENT_CALLS_SETTING, "true");
+        ResourceModel model = ResourceModel.builder().deliveryStreamName(DELIVERY_STREAM_NAME).build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final CompletableFuture<DescribeDeliveryStreamResponse> failedDescribe = new CompletableFuture<>();
+        failedDescribe.completeExceptionally(ResourceNotFoundException.builder().message("ResourceNotFound").build());
+        doReturn(failedDescribe).when(proxy).injectCredentialsAndInvokeV2Async(any(DescribeDeliveryStreamRequest.class), any());
+        doReturn(new CompletableFuture<>()).when(proxy).injectCredentialsAndInvokeV2Async(any(ListTagsForDeliveryStreamRequest.class), any());
+        val response = readHandler.handleRequest(
+            proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
     private void validateS3Configuration(com.amazonaws.kinesisfirehose.deliverystream.S3DestinationConfiguration s3DestinationConfiguration) {
         assertThat(s3DestinationConfiguration.getBucketARN()).isEqualTo(BUCKET_ARN);
         assertThat(s3DestinationConfiguration.getBufferingHints().getIntervalInSeconds()).isEqualTo(INTERVAL_IN_SECONDS);
@@ -0,0 +1,95 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ShortPollerTest {
+    private static final String CREATING = "CREATING";
+    private static final String ACTIVE = "ACTIVE";
+
+    private final AtomicLong clock = new AtomicLong(1_000L);
+    private final AtomicInteger describes = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        System.setProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING, "60000");
+        System.setProperty(InvocationDeadline.RESERVE_MILLIS_SETTING, "3000");
+        System.setProperty(InvocationDeadline.MIN_CALL_BUDGET_MILLIS_SETTING, "2000");
+        System.setProperty(ShortPoller.BUDGET_MILLIS_SETTING, "10000");
+        System.setProperty(ShortPoller.INTERVAL_MILLIS_SETTING, "2000");
+    }
+
+    @AfterEach
+    public void clearSettings() {
+        System.clearProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING);
+        System.clearProperty(InvocationDeadline.RESERVE_MILLIS_SETTING);
+        System.clearProperty(InvocationDeadline.MIN_CALL_BUDGET_MILLIS_SETTING);
+        System.clearProperty(ShortPoller.BUDGET_MILLIS_SETTING);
+        System.clearProperty(ShortPoller.INTERVAL_MILLIS_SETTING);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        System.clearProperty(ShortPoller.BUDGET_MILLIS_SETTING);
+        val poller = poller();
+        assertThat(poller.isEnabled()).isFalse();
+        assertThat(poller.pollWhile(CREATING, CREATING::equals, this::describeActive)).isEqualTo(CREATING);
+        assertThat(describes).hasValue(0);
+    }
+
+    @Test
+    public void testStopsOnceStatusSettles() {
+        val result = poller().pollWhile(CREATING, CREATING::equals,
+            () -> describes.incrementAndGet() < 3 ? CREATING : ACTIVE);
+        assertThat(result).isEqualTo(ACTIVE);
+        assertThat(describes).hasValue(3);
+        assertThat(clock.get()).isEqualTo(1_000L + 3 * 2_000L);
+    }
+
+    @Test
+    public void testStopsWhenBudgetRunsOut() {
+        val result = poller().pollWhile(CREATING, CREATING::equals, this::describeCreating);
+        assertThat(result).isEqualTo(CREATING);
+        // Five intervals of 2 seconds fit in the 10 second budget.
+        assertThat(describes).hasValue(5);
+    }
+
+    @Test
+    public void testStopsBeforeTheInvocationDeadline() {
+        System.setProperty(ShortPoller.BUDGET_MILLIS_SETTING, "120000");
+        val result = poller().pollWhile(CREATING, CREATING::equals, this::describeCreating);
+        assertThat(result).isEqualTo(CREATING);
+        // Polls until less than the reserve and the minimum call budget are left of the 60 seconds.
+        assertThat(describes).hasValue(27);
+    }
+
+    @Test
+    public void testFailedDescribeKeepsLastStatus() {
+        val result = poller().pollWhile(CREATING, CREATING::equals, () -> {
+            describes.incrementAndGet();
+            throw new IllegalStateException("throttled");
+        });
+        assertThat(result).isEqualTo(CREATING);
+        assertThat(describes).hasValue(1);
+    }
+
+    private ShortPoller poller() {
+        return ShortPoller.of(InvocationDeadline.start(clock::get), clock::addAndGet);
+    }
+
+    private String describeCreating() {
+        describes.incrementAndGet();
+        return CREATING;
+    }
+
+    private String describeActive() {
+        describes.incrementAndGet();
+        return ACTIVE;
+    }
+}
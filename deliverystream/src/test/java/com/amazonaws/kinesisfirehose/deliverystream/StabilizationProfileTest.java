@@ -0,0 +1,70 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.DELIVERY_STREAM_ENCRYPTION_CONFIGURATION_INPUT_AWS_OWNED_CMK;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.DELIVERY_STREAM_ENCRYPTION_CONFIGURATION_INPUT_CUSTOMER_MANAGED_CMK;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.ELASTICSEARCH_DESTINATION_CONFIGURATION_FULL;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.ELASTICSEARCH_DESTINATION_CONFIGURATION_VPC;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.EXTENDED_S3_DESTINATION_CONFIGURATION_FULL;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.KINESIS_STREAM_SOURCE_CONFIGURATION;
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.SPLUNK_CONFIGURATION_FULL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class StabilizationProfileTest {
+
+    @Test
+    public void testDirectPutStreamsAreFast() {
+        assertThat(StabilizationProfile.forModel(ResourceModel.builder()
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build())).isEqualTo(StabilizationProfile.FAST);
+        assertThat(StabilizationProfile.forModel(ResourceModel.builder()
+            .splunkDestinationConfiguration(SPLUNK_CONFIGURATION_FULL)
+            .deliveryStreamEncryptionConfigurationInput(DELIVERY_STREAM_ENCRYPTION_CONFIGURATION_INPUT_AWS_OWNED_CMK)
+            .build())).isEqualTo(StabilizationProfile.FAST);
+        assertThat(StabilizationProfile.forModel(new ResourceModel())).isEqualTo(StabilizationProfile.FAST);
+    }
+
+    @Test
+    public void testKinesisSourceElasticsearchAndCustomerManagedKeyAreStandard() {
+        assertThat(StabilizationProfile.forModel(ResourceModel.builder()
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .kinesisStreamSourceConfiguration(KINESIS_STREAM_SOURCE_CONFIGURATION)
+            .build())).isEqualTo(StabilizationProfile.STANDARD);
+        assertThat(StabilizationProfile.forModel(ResourceModel.builder()
+            .elasticsearchDestinationConfiguration(ELASTICSEARCH_DESTINATION_CONFIGURATION_FULL)
+            .build())).isEqualTo(StabilizationProfile.STANDARD);
+        assertThat(StabilizationProfile.forModel(ResourceModel.builder()
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .deliveryStreamEncryptionConfigurationInput(DELIVERY_STREAM_ENCRYPTION_CONFIGURATION_INPUT_CUSTOMER_MANAGED_CMK)
+            .build())).isEqualTo(StabilizationProfile.STANDARD);
+    }
+
+    @Test
+    public void testElasticsearchInVpcIsSlow() {
+        assertThat(StabilizationProfile.forModel(ResourceModel.builder()
+            .elasticsearchDestinationConfiguration(ELASTICSEARCH_DESTINATION_CONFIGURATION_VPC)
+            .kinesisStreamSourceConfiguration(KINESIS_STREAM_SOURCE_CONFIGURATION)
+            .build())).isEqualTo(StabilizationProfile.SLOW);
+    }
+
+    @Test
+    public void testSlowerProfilesStartLaterAndWaitLonger() {
+        assertThat(StabilizationProfile.FAST.schedule().delaySeconds(0))
+            .isLessThan(StabilizationProfile.STANDARD.schedule().delaySeconds(0))
+            .isLessThan(StabilizationProfile.SLOW.schedule().delaySeconds(0));
+        assertThat(timeoutSeconds(StabilizationProfile.FAST))
+            .isLessThanOrEqualTo(timeoutSeconds(StabilizationProfile.STANDARD));
+        assertThat(timeoutSeconds(StabilizationProfile.STANDARD))
+            .isLessThan(timeoutSeconds(StabilizationProfile.SLOW));
+        // Create and delete used to wait up to 65 minutes for every stream, and Update up to 10.
+        assertThat(timeoutSeconds(StabilizationProfile.FAST)).isGreaterThanOrEqualTo(Duration.ofMinutes(65).getSeconds());
+        assertThat(timeoutSeconds(StabilizationProfile.STANDARD)).isGreaterThanOrEqualTo(Duration.ofMinutes(65).getSeconds());
+        assertThat(timeoutSeconds(StabilizationProfile.UPDATE)).isGreaterThanOrEqualTo(Duration.ofMinutes(10).getSeconds());
+    }
+
+    private static long timeoutSeconds(final StabilizationProfile profile) {
+        return profile.schedule().elapsedSeconds(profile.schedule().pollBudget());
+    }
+}
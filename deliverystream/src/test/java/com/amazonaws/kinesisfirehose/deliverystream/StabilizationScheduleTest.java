@@ -0,0 +1,272 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionStatus;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamStatus;
+import software.amazon.cloudformation.resource.Serializer;
+
+public class StabilizationScheduleTest {
+    private static final StabilizationSchedule SCHEDULE = new StabilizationSchedule(5,
+        new int[][] {{60, 5}, {180, 10}, {600, 30}}, 60, Duration.ofMinutes(65));
+    private static final int POLL_BUDGET = 82;
+
+    @Test
+    public void testDelayGrowsWithElapsedTime() {
+        assertThat(SCHEDULE.delaySeconds(0)).isEqualTo(5);
+        assertThat(SCHEDULE.delaySeconds(59)).isEqualTo(5);
+        assertThat(SCHEDULE.delaySeconds(60)).isEqualTo(10);
+        assertThat(SCHEDULE.delaySeconds(180)).isEqualTo(30);
+        assertThat(SCHEDULE.delaySeconds(600)).isEqualTo(60);
+        assertThat(SCHEDULE.delaySeconds(3_600)).isEqualTo(60);
+    }
+
+    @Test
+    public void testShortDelaysEndAfterTheShortPolls() {
+        assertThat(SCHEDULE.delaySeconds(30, StabilizationSchedule.SHORT_POLLS - 1)).isEqualTo(5);
+        assertThat(SCHEDULE.delaySeconds(30, StabilizationSchedule.SHORT_POLLS)).isEqualTo(StabilizationSchedule.BACKED_OFF_DELAY_SECONDS);
+        assertThat(SCHEDULE.delaySeconds(90, StabilizationSchedule.SHORT_POLLS)).isEqualTo(StabilizationSchedule.BACKED_OFF_DELAY_SECONDS);
+        assertThat(SCHEDULE.delaySeconds(600, StabilizationSchedule.SHORT_POLLS)).isEqualTo(60);
+    }
+
+    @Test
+    public void testElapsedSecondsAddsUpTheScheduledDelays() {
+        assertThat(SCHEDULE.elapsedSeconds(0)).isZero();
+        assertThat(SCHEDULE.elapsedSeconds(8)).isEqualTo(40);
+        assertThat(SCHEDULE.elapsedSeconds(12)).isEqualTo(160);
+        assertThat(SCHEDULE.elapsedSeconds(27)).isEqualTo(610);
+        assertThat(SCHEDULE.elapsedSeconds(28)).isEqualTo(670);
+    }
+
+    @Test
+    public void testPollBudgetCoversTheTimeout() {
+        assertThat(SCHEDULE.pollBudget()).isEqualTo(POLL_BUDGET);
+        assertThat(SCHEDULE.elapsedSeconds(POLL_BUDGET)).isGreaterThanOrEqualTo(Duration.ofMinutes(65).getSeconds());
+        assertThat(SCHEDULE.elapsedSeconds(POLL_BUDGET - 1)).isLessThan(Duration.ofMinutes(65).getSeconds());
+        assertThat(new StabilizationSchedule(5, new int[][] {{60, 5}, {180, 10}, {600, 30}}, 60, Duration.ofMinutes(10))
+            .pollBudget()).isEqualTo(27);
+    }
+
+    @Test
+    public void testFirstDelayCanDifferFromCadence() {
+        val schedule = new StabilizationSchedule(60, new int[][] {{900, 30}}, 60, Duration.ofMinutes(90));
+        assertThat(schedule.delaySeconds(0)).isEqualTo(60);
+        assertThat(schedule.delaySeconds(60)).isEqualTo(30);
+        assertThat(schedule.delaySeconds(900)).isEqualTo(60);
+        assertThat(schedule.elapsedSeconds(3)).isEqualTo(120);
+    }
+
+    @Test
+    public void testNextDelayFollowsPollsUsed() {
+        assertThat(SCHEDULE.nextDelaySeconds(context(DeliveryStreamStatus.CREATING.toString(), null, POLL_BUDGET))).isEqualTo(5);
+        assertThat(SCHEDULE.nextDelaySeconds(context(DeliveryStreamStatus.CREATING.toString(), null, POLL_BUDGET - 12))).isEqualTo(30);
+        assertThat(SCHEDULE.nextDelaySeconds(context(DeliveryStreamStatus.DELETING.toString(), null, 1))).isEqualTo(60);
+    }
+
+    @Test
+    public void testEncryptionInProgressCountsAsStabilizing() {
+        assertThat(SCHEDULE.nextDelaySeconds(context(DeliveryStreamStatus.ACTIVE.toString(),
+            DeliveryStreamEncryptionStatus.ENABLING.toString(), POLL_BUDGET))).isEqualTo(5);
+        assertThat(SCHEDULE.nextDelaySeconds(context(DeliveryStreamStatus.ACTIVE.toString(),
+            DeliveryStreamEncryptionStatus.DISABLING.toString(), POLL_BUDGET))).isEqualTo(5);
+    }
+
+    @Test
+    public void testWithoutStabilizingStatusWaitsAtLeastTheMinimum() {
+        assertThat(SCHEDULE.nextDelaySeconds(context(null, null, POLL_BUDGET)))
+            .isEqualTo(StabilizationSchedule.MIN_DELAY_WITHOUT_STATUS_SECONDS);
+        assertThat(SCHEDULE.nextDelaySeconds(context(DeliveryStreamStatus.CREATING_FAILED.toString(), null, POLL_BUDGET)))
+            .isEqualTo(StabilizationSchedule.MIN_DELAY_WITHOUT_STATUS_SECONDS);
+        assertThat(SCHEDULE.nextDelayWithoutStatusSeconds(context(DeliveryStreamStatus.CREATING.toString(), null, POLL_BUDGET)))
+            .isEqualTo(StabilizationSchedule.MIN_DELAY_WITHOUT_STATUS_SECONDS);
+        assertThat(SCHEDULE.nextDelayWithoutStatusSeconds(context(null, null, 1)))
+            .isEqualTo(60);
+    }
+
+    @Test
+    public void testNewStabilizationRecordsStartAndDeadline() {
+        val clock = new AtomicLong(1_000_000L);
+        val context = schedule(clock).newStabilization().build();
+        assertThat(context.getStabilizationRetriesRemaining()).isEqualTo(POLL_BUDGET);
+        assertThat(context.getStabilizationStartedAtMillis()).isEqualTo(1_000_000L);
+        assertThat(context.getStabilizationDeadlineMillis()).isEqualTo(1_000_000L + Duration.ofMinutes(65).toMillis());
+    }
+
+    @Test
+    public void testNextPollCarriesStartAndDeadline() {
+        val clock = new AtomicLong(1_000_000L);
+        val schedule = schedule(clock);
+        val first = schedule.newStabilization().build();
+        clock.addAndGet(5_000L);
+        val next = schedule.nextPoll(first).build();
+        assertThat(next.getStabilizationRetriesRemaining()).isEqualTo(POLL_BUDGET - 1);
+        assertThat(next.getStabilizationStartedAtMillis()).isEqualTo(first.getStabilizationStartedAtMillis());
+        assertThat(next.getStabilizationDeadlineMillis()).isEqualTo(first.getStabilizationDeadlineMillis());
+    }
+
+    @Test
+    public void testTimedOutOnceTheDeadlinePasses() {
+        val clock = new AtomicLong(1_000_000L);
+        val schedule = schedule(clock);
+        val context = schedule.newStabilization().build();
+        assertThat(schedule.isTimedOut(context)).isFalse();
+        clock.addAndGet(Duration.ofMinutes(65).toMillis() - 1);
+        assertThat(schedule.isTimedOut(context)).isFalse();
+        clock.incrementAndGet();
+        assertThat(schedule.isTimedOut(context)).isTrue();
+        // The polls left do not matter once there is a deadline.
+        assertThat(schedule.isTimedOut(schedule.newStabilization().stabilizationRetriesRemaining(0).build())).isFalse();
+    }
+
+    @Test
+    public void testContextsWithoutDeadlineTimeOutOnPolls() {
+        assertThat(SCHEDULE.isTimedOut(context(DeliveryStreamStatus.CREATING.toString(), null, 1))).isFalse();
+        assertThat(SCHEDULE.isTimedOut(context(DeliveryStreamStatus.CREATING.toString(), null, 0))).isTrue();
+    }
+
+    @Test
+    public void testNextDelayFollowsTimeSpentWhenStartIsKnown() {
+        val clock = new AtomicLong(1_000_000L);
+        val schedule = schedule(clock);
+        val context = schedule.newStabilization().deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString()).build();
+        assertThat(schedule.nextDelaySeconds(context)).isEqualTo(5);
+        // Only one poll used, but slow callbacks put it 200 seconds in.
+        clock.addAndGet(200_000L);
+        assertThat(schedule.nextDelaySeconds(schedule.nextPoll(context)
+            .deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString()).build())).isEqualTo(30);
+    }
+
+    @Test
+    public void testJitterOnlyLengthensTheDelay() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(StabilizationSchedule.withJitter(30, "stack-DeliveryStream" + i + "-1A2B3C4D5E6F", 0, 20)).isBetween(30, 36);
+            assertThat(StabilizationSchedule.withJitter(5, "stack-DeliveryStream-1A2B3C4D5E6F", i, 20)).isBetween(5, 6);
+        }
+        assertThat(StabilizationSchedule.withJitter(30, "stack-DeliveryStream", 0, 0)).isEqualTo(30);
+        assertThat(StabilizationSchedule.withJitter(30, null, 0, 20)).isEqualTo(30);
+    }
+
+    @Test
+    public void testJitterIsTheSameForTheSameNameAndPoll() {
+        assertThat(StabilizationSchedule.withJitter(60, "stack-DeliveryStream-1A2B3C4D5E6F", 7, 20))
+            .isEqualTo(StabilizationSchedule.withJitter(60, "stack-DeliveryStream-1A2B3C4D5E6F", 7, 20));
+    }
+
+    @Test
+    public void testJitterVariesFromPollToPoll() {
+        val delays = new HashMap<Integer, Integer>();
+        for (int poll = 0; poll < 50; poll++) {
+            delays.merge(StabilizationSchedule.withJitter(5, "stack-DeliveryStream-1A2B3C4D5E6F", poll, 20), 1, Integer::sum);
+        }
+        assertThat(delays).containsOnlyKeys(5, 6);
+    }
+
+    @Test
+    public void testJitterSpreadsNamesThatDifferInOneCharacter() {
+        val delays = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 130; i++) {
+            delays.merge(StabilizationSchedule.withJitter(60, "stack-DeliveryStream" + i + "-1A2B3C4D5E6F", 0, 20), 1, Integer::sum);
+        }
+        // 13 possible delays, 60 to 72 seconds, for 130 streams.
+        assertThat(delays).hasSize(13);
+        assertThat(delays.values()).allSatisfy(count -> assertThat(count).isBetween(2, 25));
+    }
+
+    @Test
+    public void testTelemetryFollowsTheStabilizationAcrossCallbacks() {
+        val clock = new AtomicLong(1_000_000L);
+        val schedule = schedule(clock);
+        val first = schedule.newStabilization().deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString()).build();
+        assertThat(schedule.nextDelaySeconds(first, null)).isEqualTo(5);
+
+        // The callback comes 3 seconds late and its describe fails.
+        clock.addAndGet(8_000L);
+        val second = schedule.nextPoll(first).deliveryStreamStatus("").build();
+        assertThat(schedule.nextDelaySeconds(second, null)).isEqualTo(30);
+
+        // The next one comes 10 seconds late and finds the stream ACTIVE.
+        clock.addAndGet(40_000L);
+        val third = schedule.nextPoll(second).deliveryStreamStatus(DeliveryStreamStatus.ACTIVE.toString()).build();
+        val logged = new ArrayList<String>();
+        schedule.logStabilized(logged::add, third);
+
+        val telemetry = third.getStabilizationTelemetry();
+        assertThat(telemetry.getPolls()).isEqualTo(2);
+        assertThat(telemetry.getDescribeErrors()).isEqualTo(1);
+        assertThat(telemetry.getCallbackOverheadMillis()).isEqualTo(13_000L);
+        // The stream is taken to be CREATING until a describe shows otherwise.
+        assertThat(telemetry.getMillisByDeliveryStreamStatus()).containsOnly(entry("CREATING", 48_000L), entry("ACTIVE", 0L));
+        assertThat(logged).containsExactly("Stabilization summary: outcome=ACTIVE elapsedSeconds=48 polls=2 describeErrors=1 "
+            + "callbackOverheadSeconds=13 secondsByDeliveryStreamStatus={ACTIVE=0, CREATING=48} "
+            + "secondsByDeliveryStreamEncryptionStatus={}");
+        // Each callback works on its own copy.
+        assertThat(first.getStabilizationTelemetry().getMillisByDeliveryStreamStatus()).isEmpty();
+    }
+
+    @Test
+    public void testTelemetryChargesEncryptionStatusesToo() {
+        val clock = new AtomicLong(1_000_000L);
+        val schedule = schedule(clock);
+        val first = schedule.newStabilization()
+            .deliveryStreamStatus(DeliveryStreamStatus.ACTIVE.toString())
+            .deliveryStreamEncryptionStatus(DeliveryStreamEncryptionStatus.ENABLING.toString())
+            .build();
+        schedule.nextDelaySeconds(first, null);
+        // The callback that finds the timeout is itself a poll, 15 seconds late.
+        clock.addAndGet(20_000L);
+        val logged = new ArrayList<String>();
+        schedule.logTimedOut(logged::add, first);
+
+        assertThat(logged).containsExactly("Stabilization summary: outcome=TIMED_OUT elapsedSeconds=20 polls=1 describeErrors=0 "
+            + "callbackOverheadSeconds=15 secondsByDeliveryStreamStatus={ACTIVE=20} "
+            + "secondsByDeliveryStreamEncryptionStatus={ENABLING=20}");
+    }
+
+    @Test
+    public void testTelemetryIsKeptThroughTheCallbackContextJson() throws IOException {
+        val clock = new AtomicLong(1_000_000L);
+        val schedule = schedule(clock);
+        val first = schedule.newStabilization().deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString()).build();
+        schedule.nextDelaySeconds(first, null);
+        clock.addAndGet(9_000L);
+        val second = schedule.nextPoll(first).deliveryStreamStatus(DeliveryStreamStatus.CREATING.toString()).build();
+        schedule.nextDelaySeconds(second, null);
+
+        val serializer = new Serializer();
+        val received = serializer.deserialize(serializer.serialize(second), new TypeReference<CallbackContext>() {});
+        assertThat(received).isEqualTo(second);
+        assertThat(received.getStabilizationTelemetry().getMillisByDeliveryStreamStatus()).containsOnly(entry("CREATING", 9_000L));
+    }
+
+    @Test
+    public void testContextsWithoutTelemetryLogNothing() {
+        val logged = new ArrayList<String>();
+        val context = context(DeliveryStreamStatus.ACTIVE.toString(), null, 1);
+        SCHEDULE.nextDelaySeconds(context, null);
+        SCHEDULE.logStabilized(logged::add, context);
+        SCHEDULE.logTimedOut(logged::add, context);
+        assertThat(SCHEDULE.nextPoll(context).build().getStabilizationTelemetry()).isNull();
+        assertThat(logged).isEmpty();
+    }
+
+    private static StabilizationSchedule schedule(final AtomicLong clock) {
+        return new StabilizationSchedule(5, new int[][] {{60, 5}, {180, 10}, {600, 30}}, 60, Duration.ofMinutes(65), clock::get);
+    }
+
+    private static CallbackContext context(final String status, final String encryptionStatus, final int retriesRemaining) {
+        return CallbackContext.builder()
+            .deliveryStreamStatus(status)
+            .deliveryStreamEncryptionStatus(encryptionStatus)
+            .stabilizationRetriesRemaining(retriesRemaining)
+            .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+public class TagDeltaTest {
+
+    @Test
+    public void testEqualTagsNeedNoCalls() {
+        val tags = Arrays.asList(new Tag("k1", "v1"), new Tag("k2", "v2"));
+        val delta = TagDelta.of(tags, tags, Arrays.asList(new Tag("k2", "v2"), new Tag("k1", "v1")));
+        assertThat(delta.isEmpty()).isTrue();
+        assertThat(delta.tagsToAddInChunks()).isEmpty();
+        assertThat(delta.tagKeysToRemoveInChunks()).isEmpty();
+    }
+
+    @Test
+    public void testChangedValueIsTaggedWithoutUntagging() {
+        val live = Arrays.asList(new Tag("k1", "v1"), new Tag("k2", "v2"));
+        val delta = TagDelta.of(live, live, Arrays.asList(new Tag("k1", "v1"), new Tag("k2", "changed")));
+        assertThat(delta.tagsToAddInChunks()).containsExactly(Collections.singletonList(new Tag("k2", "changed")));
+        assertThat(delta.tagKeysToRemoveCount()).isZero();
+    }
+
+    @Test
+    public void testOnlyPreviousTagsStillOnTheStreamAreRemoved() {
+        val live = Arrays.asList(new Tag("k1", "v1"), new Tag("outside", "v"));
+        val previous = Arrays.asList(new Tag("k1", "v1"), new Tag("k2", "v2"));
+        val delta = TagDelta.of(live, previous, Collections.emptyList());
+        assertThat(delta.tagKeysToRemoveInChunks()).containsExactly(Collections.singletonList("k1"));
+        assertThat(delta.tagsToAddCount()).isZero();
+    }
+
+    @Test
+    public void testTagsAreSentInChunksOfTheCallLimit() {
+        final List<Tag> desired = HandlerUtils.translateFirehoseSDKTagsToCfnModelTags(HandlerUtils.generateNFirehoseTags(120, 1));
+        val delta = TagDelta.of(Collections.emptyList(), Collections.emptyList(), desired);
+        val chunks = delta.tagsToAddInChunks();
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(0)).hasSize(TagDelta.MAX_TAGS_PER_CALL);
+        assertThat(chunks.get(1)).hasSize(TagDelta.MAX_TAGS_PER_CALL);
+        assertThat(chunks.get(2)).hasSize(20);
+        assertThat(delta.tagsToAddCount()).isEqualTo(120);
+    }
+}
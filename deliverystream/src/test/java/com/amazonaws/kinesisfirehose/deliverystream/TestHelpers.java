@@ -42,6 +42,14 @@ public class TestHelpers {
             any());
     }
 
+    public static void stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(AmazonWebServicesClientProxy proxy,
+                                                                            DescribeDeliveryStreamResponse response,
+                                                                            DescribeDeliveryStreamResponse nextResponse) {
+        doReturn(response, nextResponse).when(proxy).injectCredentialsAndInvokeV2(any(
+            DescribeDeliveryStreamRequest.class),
+            any());
+    }
+
     public static void stubUpdateDestinationWithProvidedOrEmptyResponse(AmazonWebServicesClientProxy proxy, UpdateDestinationResponse response) {
         if (response == null) {
             response =  UpdateDestinationResponse
@@ -1,6 +1,8 @@
 package com.amazonaws.kinesisfirehose.deliverystream;
 
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.services.firehose.model.ConcurrentModificationException;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionConfiguration;
 import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionStatus;
@@ -11,11 +13,15 @@ import software.amazon.awssdk.services.firehose.model.DestinationDescription;
 import software.amazon.awssdk.services.firehose.model.FirehoseException;
 import software.amazon.awssdk.services.firehose.model.KeyType;
 import software.amazon.awssdk.services.firehose.model.LimitExceededException;
+import software.amazon.awssdk.services.firehose.model.ListTagsForDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.ListTagsForDeliveryStreamResponse;
 import software.amazon.awssdk.services.firehose.model.ResourceInUseException;
 import software.amazon.awssdk.services.firehose.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.firehose.model.StartDeliveryStreamEncryptionRequest;
+import software.amazon.awssdk.services.firehose.model.StartDeliveryStreamEncryptionResponse;
 import software.amazon.awssdk.services.firehose.model.StopDeliveryStreamEncryptionRequest;
 import software.amazon.awssdk.services.firehose.model.TagDeliveryStreamRequest;
+import software.amazon.awssdk.services.firehose.model.TagDeliveryStreamResponse;
 import software.amazon.awssdk.services.firehose.model.UntagDeliveryStreamRequest;
 import software.amazon.awssdk.services.firehose.model.UpdateDestinationRequest;
 import software.amazon.awssdk.services.firehose.model.UpdateDestinationResponse;
@@ -25,6 +31,9 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,11 +45,14 @@ import static com.amazonaws.kinesisfirehose.deliverystream.UpdateHandler.ERROR_D
 import static com.amazonaws.kinesisfirehose.deliverystream.UpdateHandler.TIMED_OUT_MESSAGE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static com.amazonaws.kinesisfirehose.deliverystream.UpdateHandler.NUMBER_OF_STATUS_POLL_RETRIES;
 
 @ExtendWith(MockitoExtension.class)
@@ -56,6 +68,19 @@ public class UpdateHandlerTest {
     @BeforeEach
     public void setup() {
         handler = new UpdateHandler();
+        // Most tests check the scheduled delays themselves.
+        System.setProperty(StabilizationSchedule.JITTER_PERCENT_SETTING, "0");
+        System.setProperty(VersionConflictRetry.BACKOFF_MILLIS_SETTING, "1");
+    }
+
+    @AfterEach
+    public void clearSettings() {
+        System.clearProperty(StabilizationSchedule.JITTER_PERCENT_SETTING);
+        System.clearProperty(VersionConflictRetry.BACKOFF_MILLIS_SETTING);
+        System.clearProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING);
+        System.clearProperty(ShortPoller.BUDGET_MILLIS_SETTING);
+        System.clearProperty(ShortPoller.INTERVAL_MILLIS_SETTING);
+        System.clearProperty(UpdateHandler.MINIMAL_DESTINATION_UPDATES_SETTING);
     }
 
     @Test
@@ -75,16 +100,16 @@ public class UpdateHandlerTest {
                         .versionId("version-0001")
                         .destinations(DestinationDescription.builder()
                                 .destinationId("destination-0001")
+                                .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
                                 .build())
                         .build())
                 .build();
-        final UpdateDestinationResponse updateResponse = UpdateDestinationResponse.builder()
-                .build();
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
                 any())).thenReturn(describeResponse);
-        doReturn(updateResponse).when(proxy).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class),
-                any());
 
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, ListTagsForDeliveryStreamResponse.builder()
+            .tags(EXISTING_FIREHOSE_RESPONSE_TAGS)
+            .build());
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .previousResourceState(previousModel)
@@ -93,7 +118,7 @@ public class UpdateHandlerTest {
                 .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-                = handler.handleRequest(proxy, request, null, logger);
+                = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getExtendedS3DestinationConfiguration())
@@ -103,8 +128,8 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
     }
@@ -127,20 +152,20 @@ public class UpdateHandlerTest {
                 .versionId("version-0001")
                 .destinations(DestinationDescription.builder()
                     .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
                     .build())
                 .build())
             .build();
-        final UpdateDestinationResponse updateResponse = UpdateDestinationResponse.builder()
-            .build();
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
             any())).thenReturn(describeResponse);
-        doReturn(updateResponse).when(proxy).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class),
-            any());
         doThrow(FirehoseException.builder()
             .awsErrorDetails(AwsErrorDetails.builder().errorCode(HandlerUtils.ACCESS_DENIED_ERROR_CODE).build())
             .build()).when(proxy)
             .injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
 
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, ListTagsForDeliveryStreamResponse.builder()
+            .tags(EXISTING_FIREHOSE_RESPONSE_TAGS)
+            .build());
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
             .previousResourceState(previousModel)
@@ -149,7 +174,7 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getExtendedS3DestinationConfiguration())
@@ -159,8 +184,8 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
     }
@@ -182,18 +207,19 @@ public class UpdateHandlerTest {
                 .versionId("version-0001")
                 .destinations(DestinationDescription.builder()
                     .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
                     .build())
                 .build())
             .build();
-        final UpdateDestinationResponse updateResponse = UpdateDestinationResponse.builder()
-            .build();
         TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse);
-        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, updateResponse);
         TestHelpers.stubUntagDeliveryStreamWithProvidedOrEmptyResponse(proxy, null);
         doThrow(FirehoseException.builder()
             .awsErrorDetails(AwsErrorDetails.builder().errorCode(HandlerUtils.ACCESS_DENIED_ERROR_CODE).build())
             .build()).when(proxy)
             .injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, ListTagsForDeliveryStreamResponse.builder()
+            .tags(EXISTING_FIREHOSE_RESPONSE_TAGS)
+            .build());
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
             .previousResourceState(previousModel)
@@ -202,7 +228,7 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getExtendedS3DestinationConfiguration())
@@ -212,8 +238,8 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
     }
@@ -236,18 +262,19 @@ public class UpdateHandlerTest {
                 .versionId("version-0001")
                 .destinations(DestinationDescription.builder()
                     .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
                     .build())
                 .build())
             .build();
-        final UpdateDestinationResponse updateResponse = UpdateDestinationResponse.builder()
-            .build();
         TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse);
-        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, updateResponse);
         TestHelpers.stubUntagDeliveryStreamWithProvidedOrEmptyResponse(proxy, null);
         doThrow(FirehoseException.builder()
             .awsErrorDetails(AwsErrorDetails.builder().errorCode("InternalFailure").build())
             .build()).when(proxy)
             .injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, ListTagsForDeliveryStreamResponse.builder()
+            .tags(EXISTING_FIREHOSE_RESPONSE_TAGS)
+            .build());
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
             .previousResourceState(previousModel)
@@ -256,13 +283,13 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel()).isNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
     }
@@ -305,7 +332,8 @@ public class UpdateHandlerTest {
             .build();
 
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-            any())).thenReturn(describeResponse).thenReturn(describeResponseSSEEnabling);
+            any())).thenReturn(describeResponse)
+            .thenReturn(afterUpdate(describeResponse)).thenReturn(describeResponseSSEEnabling);
         TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
         TestHelpers.stubStartDeliveryStreamEncryptionWithProvidedOrEmptyResponse(proxy, null);
 
@@ -314,7 +342,7 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getExtendedS3DestinationConfiguration())
@@ -327,7 +355,7 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(
@@ -372,7 +400,8 @@ public class UpdateHandlerTest {
             .build();
 
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-            any())).thenReturn(describeResponse).thenReturn(describeResponseSSEEnabling);
+            any())).thenReturn(describeResponse)
+            .thenReturn(afterUpdate(describeResponse)).thenReturn(describeResponseSSEEnabling);
         TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
         TestHelpers.stubStartDeliveryStreamEncryptionWithProvidedOrEmptyResponse(proxy, null);
 
@@ -381,7 +410,7 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getExtendedS3DestinationConfiguration())
@@ -394,7 +423,7 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(
@@ -433,8 +462,9 @@ public class UpdateHandlerTest {
             = handler.handleRequest(proxy, request, null, logger);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ResourceConflict);
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        // The stream stays in use through the default three retries, each from a fresh describe.
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(
             StopDeliveryStreamEncryptionRequest.class), any());
@@ -472,10 +502,10 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceLimitExceeded);
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(
@@ -630,7 +660,7 @@ public class UpdateHandlerTest {
             .build();
 
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-            any())).thenReturn(describeResponseSSEEnabled);
+            any())).thenReturn(describeResponseSSEEnabled, afterUpdate(describeResponseSSEEnabled));
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
@@ -639,7 +669,7 @@ public class UpdateHandlerTest {
         TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getExtendedS3DestinationConfiguration())
@@ -652,7 +682,7 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(
@@ -684,7 +714,7 @@ public class UpdateHandlerTest {
                 .build())
             .build();
 
-        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponseSSEEnabled);
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponseSSEEnabled, afterUpdate(describeResponseSSEEnabled));
         TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
@@ -692,7 +722,7 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getExtendedS3DestinationConfiguration())
@@ -705,7 +735,7 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(
@@ -824,6 +854,7 @@ public class UpdateHandlerTest {
                         .build())
                 .destinations(DestinationDescription.builder()
                     .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
                     .build())
                 .build())
             .build();
@@ -839,12 +870,12 @@ public class UpdateHandlerTest {
                         .build())
                 .destinations(DestinationDescription.builder()
                     .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
                     .build())
                 .build())
             .build();
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
             any())).thenReturn(describeResponseSSEEnabled).thenReturn(describeResponseSSEDisabling);
-        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
         TestHelpers.stubStopDeliveryStreamEncryptionWithProvidedOrEmptyResponse(proxy, null);
 
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
@@ -853,7 +884,7 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getExtendedS3DestinationConfiguration())
@@ -864,7 +895,7 @@ public class UpdateHandlerTest {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
         verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(
             StopDeliveryStreamEncryptionRequest.class), any());
@@ -906,8 +937,9 @@ public class UpdateHandlerTest {
             = handler.handleRequest(proxy, request, null, logger);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ResourceConflict);
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        // The stream stays in use through the default three retries, each from a fresh describe.
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(
             StopDeliveryStreamEncryptionRequest.class), any());
@@ -950,10 +982,10 @@ public class UpdateHandlerTest {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-            = handler.handleRequest(proxy, request, null, logger);
+            = handleThroughCheckpoints(request);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceLimitExceeded);
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(
@@ -1144,17 +1176,18 @@ public class UpdateHandlerTest {
         final UpdateDestinationResponse updateResponse = UpdateDestinationResponse.builder()
                 .build();
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenReturn(describeResponse);
+                any())).thenReturn(describeResponse, afterUpdate(describeResponse));
         doReturn(updateResponse).when(proxy).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class),
                 any());
 
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, null);
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .desiredResourceTags(CFN_MODEL_TAGS_IN_MAP)
                 .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-                = handler.handleRequest(proxy, request, null, logger);
+                = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getRedshiftDestinationConfiguration())
@@ -1164,7 +1197,7 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
@@ -1189,7 +1222,7 @@ public class UpdateHandlerTest {
         final UpdateDestinationResponse updateResponse = UpdateDestinationResponse.builder()
                 .build();
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenReturn(describeResponse);
+                any())).thenReturn(describeResponse, afterUpdate(describeResponse));
         doReturn(updateResponse).when(proxy).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class),
                 any());
 
@@ -1198,7 +1231,7 @@ public class UpdateHandlerTest {
                 .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-                = handler.handleRequest(proxy, request, null, logger);
+                = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getElasticsearchDestinationConfiguration())
@@ -1208,7 +1241,7 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
     }
 
@@ -1231,7 +1264,7 @@ public class UpdateHandlerTest {
         final UpdateDestinationResponse updateResponse = UpdateDestinationResponse.builder()
                 .build();
         when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
-                any())).thenReturn(describeResponse);
+                any())).thenReturn(describeResponse, afterUpdate(describeResponse));
         doReturn(updateResponse).when(proxy).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class),
                 any());
 
@@ -1240,7 +1273,7 @@ public class UpdateHandlerTest {
                 .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-                = handler.handleRequest(proxy, request, null, logger);
+                = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getSplunkDestinationConfiguration())
@@ -1250,7 +1283,8 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        // The final describe after the checkpoint is answered from the one the invocation started with.
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
     }
 
@@ -1271,12 +1305,15 @@ public class UpdateHandlerTest {
                         .versionId("version-0001")
                         .destinations(DestinationDescription.builder()
                                 .destinationId("destination-0001")
+                                .httpEndpointDestinationDescription(httpEndpointDestinationDescription(HTTP_ENDPOINT_DESTINATION_CONFIGURATION))
                                 .build())
                         .build())
                 .build();
         TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse);
-        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
 
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, ListTagsForDeliveryStreamResponse.builder()
+            .tags(EXISTING_FIREHOSE_RESPONSE_TAGS)
+            .build());
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(model)
                 .previousResourceState(previousModel)
@@ -1284,7 +1321,7 @@ public class UpdateHandlerTest {
                 .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response
-                = handler.handleRequest(proxy, request, null, logger);
+                = handleThroughCheckpoints(request);
         assertThat(response).isNotNull();
         assertThat(response.getResourceModel().getDeliveryStreamName()).isEqualTo(DELIVERY_STREAM_NAME);
         assertThat(response.getResourceModel().getHttpEndpointDestinationConfiguration())
@@ -1294,8 +1331,8 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
     }
@@ -1317,17 +1354,18 @@ public class UpdateHandlerTest {
                 .versionId("version-0001")
                 .destinations(DestinationDescription.builder()
                     .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
                     .build())
                 .build())
             .build();
-        final UpdateDestinationResponse updateResponse = UpdateDestinationResponse.builder()
-            .build();
         TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse);
-        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, updateResponse);
         doThrow(FirehoseException.builder()
             .awsErrorDetails(AwsErrorDetails.builder().errorCode("ServerSideErrorOccurred").build())
             .build()).when(proxy)
             .injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, ListTagsForDeliveryStreamResponse.builder()
+            .tags(EXISTING_FIREHOSE_RESPONSE_TAGS)
+            .build());
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
             .previousResourceState(previousModel)
@@ -1342,8 +1380,571 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
-        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
         verify(proxy, times(0)).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
     }
+
+    @Test
+    public void testUpdateDeliveryStreamContinuesInNextInvocationWhenOutOfTime() {
+        System.setProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING, "0");
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
+            .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .versionId("version-0001")
+                .destinations(DestinationDescription.builder()
+                    .destinationId("destination-0001")
+                    .build())
+                .build())
+            .build();
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class),
+            any())).thenReturn(describeResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .s3DestinationConfiguration(S3_DESTINATION_CONFIG_FULL)
+                .build())
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getStabilizationRetriesRemaining()).isEqualTo(UpdateHandler.NUMBER_OF_STATUS_POLL_RETRIES);
+        assertThat(response.getCallbackContext().getDeliveryStreamEncryptionStatus()).isNull();
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(HandlerUtils.OUT_OF_TIME_CALLBACK_DELAY_SECONDS);
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamWithoutChangesOnlyDescribes() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
+            .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .versionId("version-0001")
+                .deliveryStreamEncryptionConfiguration(
+                    DeliveryStreamEncryptionConfiguration.builder().status(DeliveryStreamEncryptionStatus.DISABLED).build())
+                .destinations(DestinationDescription.builder()
+                    .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
+                    .build())
+                .build())
+            .build();
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                .build())
+            .previousResourceTags(CFN_MODEL_TAGS_IN_MAP)
+            .desiredResourceTags(CFN_MODEL_TAGS_IN_MAP)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+        assertThat(response.getCallbackContext()).isNull();
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verifyNoMoreInteractions(proxy);
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamSkipsTagCallsWhenLiveTagsAlreadyMatch() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+        final DescribeDeliveryStreamResponse describeResponse = DescribeDeliveryStreamResponse.builder()
+            .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .versionId("version-0001")
+                .destinations(DestinationDescription.builder()
+                    .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL))
+                    .build())
+                .build())
+            .build();
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse);
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, ListTagsForDeliveryStreamResponse.builder()
+            .tags(HandlerUtils.translateCFNModelTagsToFirehoseSDKTags(CFN_MODEL_TAGS))
+            .build());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(model)
+            .previousResourceTags(PREVIOUS_CFN_MODEL_TAGS_IN_MAP)
+            .desiredResourceTags(CFN_MODEL_TAGS_IN_MAP)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(ListTagsForDeliveryStreamRequest.class), any());
+        verifyNoMoreInteractions(proxy);
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamEncryptionSucceedsWithinInvocationWhenShortPolling() {
+        System.setProperty(ShortPoller.BUDGET_MILLIS_SETTING, "10000");
+        System.setProperty(ShortPoller.INTERVAL_MILLIS_SETTING, "1");
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .deliveryStreamEncryptionConfigurationInput(
+                DELIVERY_STREAM_ENCRYPTION_CONFIGURATION_INPUT_CUSTOMER_MANAGED_CMK)
+            .build();
+
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any()))
+            .thenReturn(describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED))
+            .thenReturn(afterUpdate(describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED)))
+            .thenReturn(afterUpdate(describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.ENABLING)))
+            .thenReturn(afterUpdate(describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.ENABLED)));
+        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
+        TestHelpers.stubStartDeliveryStreamEncryptionWithProvidedOrEmptyResponse(proxy, null);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handleThroughCheckpoints(request);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+        assertThat(response.getCallbackContext()).isNull();
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamWaitsUntilTheNewVersionShows() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy,
+            describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED));
+        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> checkpointed
+            = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(checkpointed.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(checkpointed.getCallbackContext().getCompletedUpdateSteps()).containsOnlyKeys("UPDATE_DESTINATION");
+        assertThat(checkpointed.getCallbackDelaySeconds()).isEqualTo(UpdateHandler.STEP_CALLBACK_DELAY_SECONDS);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, checkpointed.getCallbackContext(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getPreviousDeliveryStreamVersionId()).isEqualTo("version-0001");
+        assertThat(response.getCallbackContext().getDeliveryStreamStatus()).isEqualTo(DeliveryStreamStatus.ACTIVE.toString());
+        assertThat(response.getCallbackContext().getDeliveryStreamEncryptionStatus()).isNull();
+        assertThat(response.getCallbackContext().getStabilizationDeadlineMillis()).isNotNull();
+        assertThat(response.getCallbackContext().getCompletedUpdateSteps().keySet())
+            .containsExactly("UPDATE_DESTINATION", "ENCRYPTION", "UNTAG", "TAG");
+        // The new version has not shown yet, so the destination update has no version recorded.
+        assertThat(response.getCallbackContext().getCompletedUpdateSteps().get("UPDATE_DESTINATION")).isNull();
+        assertThat(response.getCallbackContext().getCompletedUpdateSteps().get("TAG")).isEqualTo("version-0001");
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamCallbackSucceedsOnceTheNewVersionShows() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any()))
+            .thenReturn(describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED))
+            .thenReturn(afterUpdate(describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED)));
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        final CallbackContext context = CallbackContext.builder()
+            .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+            .deliveryStreamStatus(DeliveryStreamStatus.ACTIVE.toString())
+            .previousDeliveryStreamVersionId("version-0001")
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> waiting
+            = handler.handleRequest(proxy, request, context, logger);
+        assertThat(waiting.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(waiting.getCallbackContext().getPreviousDeliveryStreamVersionId()).isEqualTo("version-0001");
+        assertThat(waiting.getCallbackContext().getStabilizationRetriesRemaining()).isEqualTo(NUMBER_OF_STATUS_POLL_RETRIES - 1);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, waiting.getCallbackContext(), logger);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamRetriesUpdateDestinationWithTheNewVersion() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+
+        final DescribeDeliveryStreamResponse describeResponse = describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED);
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any()))
+            .thenReturn(describeResponse)
+            .thenReturn(afterUpdate(describeResponse))
+            .thenReturn(withVersion(afterUpdate(describeResponse), "version-0003"));
+        when(proxy.injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any()))
+            .thenThrow(ConcurrentModificationException.builder().message("version-0001 is stale").build())
+            .thenReturn(UpdateDestinationResponse.builder().build());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handleThroughCheckpoints(request);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy).injectCredentialsAndInvokeV2(
+            eq(UpdateHandler.buildUpdateDestinationRequest(model, describeResponse)), any());
+        verify(proxy).injectCredentialsAndInvokeV2(
+            eq(UpdateHandler.buildUpdateDestinationRequest(model, afterUpdate(describeResponse))), any());
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
+    @Test
+    public void testUpdateDestinationOnlySendsWhatChanged() {
+        final ResourceModel previousModel = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(extendedS3WithBufferingHints(BUFFERING_HINTS_UPDATED))
+            .build();
+        final DescribeDeliveryStreamResponse describeResponse = withLiveExtendedS3(
+            describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED), EXTENDED_S3_DESTINATION_CONFIGURATION_FULL);
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse, afterUpdate(describeResponse));
+        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handleThroughCheckpoints(
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .previousResourceState(previousModel)
+                .build());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final ResourceModel changes = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(ExtendedS3DestinationConfiguration.builder()
+                .bufferingHints(BUFFERING_HINTS_UPDATED)
+                .build())
+            .build();
+        verify(proxy).injectCredentialsAndInvokeV2(
+            eq(UpdateHandler.buildUpdateDestinationRequest(changes, describeResponse)), any());
+    }
+
+    @Test
+    public void testUpdateDestinationPutsBackWhatChangedOutsideTheStack() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+        final ExtendedS3DestinationConfiguration drifted = new ExtendedS3DestinationConfiguration(BUCKET_ARN, BUFFERING_HINTS,
+            CLOUD_WATCH_LOGGING_OPTIONS, COMPRESSION_FORMAT, DATA_FORMAT_CONVERSION_CONFIGURATION, ENCRYPTION_CONFIGURATION,
+            ERROR_OUTPUT_PREFIX, PREFIX_UPDATED, PROCESSING_CONFIGURATION, ROLE_ARN, S3_DESTINATION_CONFIG_FULL, BACKUP_MODE);
+        final DescribeDeliveryStreamResponse describeResponse = withLiveExtendedS3(
+            describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED), drifted);
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse, afterUpdate(describeResponse));
+        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
+
+        // The template is unchanged, but the prefix was changed on the stream itself.
+        final ProgressEvent<ResourceModel, CallbackContext> response = handleThroughCheckpoints(
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .previousResourceState(model)
+                .build());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final ResourceModel changes = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(ExtendedS3DestinationConfiguration.builder()
+                .prefix(PREFIX)
+                .build())
+            .build();
+        verify(proxy).injectCredentialsAndInvokeV2(
+            eq(UpdateHandler.buildUpdateDestinationRequest(changes, describeResponse)), any());
+    }
+
+    @Test
+    public void testUpdateDestinationSendsTheWholeDestinationWhenMinimalUpdatesAreOff() {
+        System.setProperty(UpdateHandler.MINIMAL_DESTINATION_UPDATES_SETTING, "false");
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(extendedS3WithBufferingHints(BUFFERING_HINTS_UPDATED))
+            .build();
+        final DescribeDeliveryStreamResponse describeResponse = describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED);
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy, describeResponse, afterUpdate(describeResponse));
+        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
+
+        handler.handleRequest(proxy,
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .previousResourceState(ResourceModel.builder()
+                    .deliveryStreamName(DELIVERY_STREAM_NAME)
+                    .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+                    .build())
+                .build(),
+            null, logger);
+
+        verify(proxy).injectCredentialsAndInvokeV2(
+            eq(UpdateHandler.buildUpdateDestinationRequest(model, describeResponse)), any());
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamResumesAfterTheLastCompletedStep() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .build();
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy,
+            afterUpdate(describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED)));
+        TestHelpers.stubListTagsForDeliveryStreamWithProvidedOrEmptyResponse(proxy, ListTagsForDeliveryStreamResponse.builder()
+            .tags(EXISTING_FIREHOSE_RESPONSE_TAGS)
+            .build());
+        TestHelpers.stubUntagDeliveryStreamWithProvidedOrEmptyResponse(proxy, null);
+        doReturn(TagDeliveryStreamResponse.builder().build()).when(proxy)
+            .injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .s3DestinationConfiguration(S3_DESTINATION_CONFIG_FULL)
+                .build())
+            .previousResourceTags(PREVIOUS_CFN_MODEL_TAGS_IN_MAP)
+            .desiredResourceTags(CFN_MODEL_TAGS_IN_MAP)
+            .build();
+        final long nowMillis = System.currentTimeMillis();
+        final CallbackContext checkpoint = CallbackContext.builder()
+            .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+            .stabilizationStartedAtMillis(nowMillis)
+            .stabilizationDeadlineMillis(nowMillis + 600_000L)
+            .previousDeliveryStreamVersionId("version-0001")
+            .completedUpdateSteps(completedSteps("UPDATE_DESTINATION", "ENCRYPTION"))
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handleThroughCheckpoints(request, checkpoint);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(StopDeliveryStreamEncryptionRequest.class), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UntagDeliveryStreamRequest.class), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(TagDeliveryStreamRequest.class), any());
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamCutOffInTheEncryptionStepDoesNotUpdateTheDestinationAgain() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .deliveryStreamEncryptionConfigurationInput(
+                DELIVERY_STREAM_ENCRYPTION_CONFIGURATION_INPUT_CUSTOMER_MANAGED_CMK)
+            .build();
+        final DescribeDeliveryStreamResponse describeResponse = describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.DISABLED);
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any()))
+            .thenReturn(describeResponse)
+            .thenReturn(afterUpdate(describeResponse));
+        TestHelpers.stubUpdateDestinationWithProvidedOrEmptyResponse(proxy, null);
+        doThrow(ApiCallTimeoutException.builder().message("The invocation ran out of time").build())
+            .doReturn(StartDeliveryStreamEncryptionResponse.builder().build())
+            .when(proxy).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> checkpointed
+            = handler.handleRequest(proxy, request, null, logger);
+        assertThat(checkpointed.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(checkpointed.getCallbackContext().getCompletedUpdateSteps()).containsOnlyKeys("UPDATE_DESTINATION");
+
+        // The invocation after the checkpoint is cut off in the encryption step, so CloudFormation retries from the
+        // last context the handler returned.
+        handler.handleRequest(proxy, request, checkpointed.getCallbackContext(), logger);
+        final ProgressEvent<ResourceModel, CallbackContext> retried
+            = handler.handleRequest(proxy, request, checkpointed.getCallbackContext(), logger);
+
+        assertThat(retried.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(retried.getCallbackContext().getCompletedUpdateSteps()).containsOnlyKeys("UPDATE_DESTINATION", "ENCRYPTION");
+        // The retry's describe shows the version the destination update made.
+        assertThat(retried.getCallbackContext().getCompletedUpdateSteps().get("UPDATE_DESTINATION")).isEqualTo("version-0002");
+        // The version encryption leaves the stream at is only known from the next describe.
+        assertThat(retried.getCallbackContext().getCompletedUpdateSteps().get("ENCRYPTION")).isNull();
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(UpdateDestinationRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(StartDeliveryStreamEncryptionRequest.class), any());
+    }
+
+    @Test
+    public void testUpdateDeliveryStreamWithEveryStepCompletedOnlyWaits() {
+        final ResourceModel model = ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)
+            .deliveryStreamEncryptionConfigurationInput(
+                DELIVERY_STREAM_ENCRYPTION_CONFIGURATION_INPUT_CUSTOMER_MANAGED_CMK)
+            .build();
+        TestHelpers.stubDescribeDeliveryStreamWithProvidedOrEmptyResponse(proxy,
+            describeResponseWithEncryptionStatus(DeliveryStreamEncryptionStatus.ENABLING));
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(ResourceModel.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .s3DestinationConfiguration(S3_DESTINATION_CONFIG_FULL)
+                .build())
+            .previousResourceTags(PREVIOUS_CFN_MODEL_TAGS_IN_MAP)
+            .desiredResourceTags(CFN_MODEL_TAGS_IN_MAP)
+            .build();
+        final long nowMillis = System.currentTimeMillis();
+        final Map<String, String> completedSteps = completedSteps("UPDATE_DESTINATION", "ENCRYPTION", "UNTAG", "TAG");
+        completedSteps.put("ENCRYPTION", null);
+        final CallbackContext checkpoint = CallbackContext.builder()
+            .stabilizationRetriesRemaining(NUMBER_OF_STATUS_POLL_RETRIES)
+            .stabilizationStartedAtMillis(nowMillis)
+            .stabilizationDeadlineMillis(nowMillis + 600_000L)
+            .deliveryStreamEncryptionStatus(DeliveryStreamEncryptionStatus.ENABLING.toString())
+            .completedUpdateSteps(completedSteps)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, checkpoint, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        // The encryption step gets the version this invocation's describe shows.
+        final Map<String, String> shownSteps = completedSteps("UPDATE_DESTINATION", "ENCRYPTION", "UNTAG", "TAG");
+        shownSteps.put("ENCRYPTION", "version-0001");
+        assertThat(response.getCallbackContext().getCompletedUpdateSteps()).isEqualTo(shownSteps);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeDeliveryStreamRequest.class), any());
+        verifyNoMoreInteractions(proxy);
+    }
+
+    @Test
+    public void testNewerVersionComparesNumbersAsNumbers() {
+        assertThat(UpdateHandler.isNewerVersion("10", "9")).isTrue();
+        assertThat(UpdateHandler.isNewerVersion("2", "2")).isFalse();
+        assertThat(UpdateHandler.isNewerVersion("1", "2")).isFalse();
+        assertThat(UpdateHandler.isNewerVersion("version-0002", "version-0001")).isTrue();
+        assertThat(UpdateHandler.isNewerVersion(null, "1")).isFalse();
+    }
+
+    private static ExtendedS3DestinationConfiguration extendedS3WithBufferingHints(final BufferingHints bufferingHints) {
+        return new ExtendedS3DestinationConfiguration(BUCKET_ARN, bufferingHints, CLOUD_WATCH_LOGGING_OPTIONS, COMPRESSION_FORMAT,
+            DATA_FORMAT_CONVERSION_CONFIGURATION, ENCRYPTION_CONFIGURATION, ERROR_OUTPUT_PREFIX, PREFIX, PROCESSING_CONFIGURATION,
+            ROLE_ARN, S3_DESTINATION_CONFIG_FULL, BACKUP_MODE);
+    }
+
+    private static DescribeDeliveryStreamResponse describeResponseWithEncryptionStatus(final DeliveryStreamEncryptionStatus status) {
+        return DescribeDeliveryStreamResponse.builder()
+            .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .deliveryStreamStatus(DeliveryStreamStatus.ACTIVE)
+                .versionId("version-0001")
+                .deliveryStreamEncryptionConfiguration(DeliveryStreamEncryptionConfiguration.builder()
+                    .status(status)
+                    .build())
+                .destinations(DestinationDescription.builder()
+                    .destinationId("destination-0001")
+                    .build())
+                .build())
+            .build();
+    }
+
+    // Calls the handler back with the context of each step checkpoint it returns, as CloudFormation does.
+    private ProgressEvent<ResourceModel, CallbackContext> handleThroughCheckpoints(final ResourceHandlerRequest<ResourceModel> request) {
+        return handleThroughCheckpoints(request, null);
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handleThroughCheckpoints(final ResourceHandlerRequest<ResourceModel> request,
+                                                                                   final CallbackContext callbackContext) {
+        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, callbackContext, logger);
+        while (isStepCheckpoint(response)) {
+            response = handler.handleRequest(proxy, request, response.getCallbackContext(), logger);
+        }
+        return response;
+    }
+
+    private static boolean isStepCheckpoint(final ProgressEvent<ResourceModel, CallbackContext> response) {
+        return response.getStatus() == OperationStatus.IN_PROGRESS
+            && response.getCallbackDelaySeconds() == UpdateHandler.STEP_CALLBACK_DELAY_SECONDS
+            && response.getCallbackContext().getCompletedUpdateSteps() != null
+            && !response.getCallbackContext().getCompletedUpdateSteps().containsKey("TAG");
+    }
+
+    private static Map<String, String> completedSteps(final String... steps) {
+        final Map<String, String> completedSteps = new LinkedHashMap<>();
+        for (final String step : steps) {
+            completedSteps.put(step, "version-0002");
+        }
+        return completedSteps;
+    }
+
+    private static DescribeDeliveryStreamResponse withLiveExtendedS3(final DescribeDeliveryStreamResponse describeResponse,
+                                                                     final ExtendedS3DestinationConfiguration live) {
+        return describeResponse.toBuilder()
+            .deliveryStreamDescription(describeResponse.deliveryStreamDescription().toBuilder()
+                .destinations(describeResponse.deliveryStreamDescription().destinations().get(0).toBuilder()
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(live))
+                    .build())
+                .build())
+            .build();
+    }
+
+    // The stream as DescribeDeliveryStream shows it once UpdateDestination has gone through.
+    private static DescribeDeliveryStreamResponse afterUpdate(final DescribeDeliveryStreamResponse describeResponse) {
+        return describeResponse.toBuilder()
+            .deliveryStreamDescription(describeResponse.deliveryStreamDescription().toBuilder()
+                .deliveryStreamStatus(DeliveryStreamStatus.ACTIVE)
+                .versionId("version-0002")
+                .build())
+            .build();
+    }
+
+    private static DescribeDeliveryStreamResponse withVersion(final DescribeDeliveryStreamResponse describeResponse,
+                                                              final String versionId) {
+        return describeResponse.toBuilder()
+            .deliveryStreamDescription(describeResponse.deliveryStreamDescription().toBuilder()
+                .versionId(versionId)
+                .build())
+            .build();
+    }
 }
@@ -0,0 +1,96 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static com.amazonaws.kinesisfirehose.deliverystream.DeliveryStreamTestHelper.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.amazonaws.kinesisfirehose.deliverystream.UpdateHandler.EncryptionAction;
+import java.util.Arrays;
+import java.util.Collections;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamDescription;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionConfiguration;
+import software.amazon.awssdk.services.firehose.model.DeliveryStreamEncryptionStatus;
+import software.amazon.awssdk.services.firehose.model.DescribeDeliveryStreamResponse;
+import software.amazon.awssdk.services.firehose.model.DestinationDescription;
+
+public class UpdatePlanTest {
+
+    @Test
+    public void testUnchangedStreamPlansNothing() {
+        val plan = UpdatePlan.of(extendedS3Model(), extendedS3Model(), describeResponse(DeliveryStreamEncryptionStatus.DISABLED),
+            Arrays.asList(new Tag("k1", "v1"), new Tag("k2", "v2")),
+            Arrays.asList(new Tag("k2", "v2"), new Tag("k1", "v1")));
+        assertThat(plan.isEmpty()).isTrue();
+        assertThat(plan.updatesDestination()).isFalse();
+        assertThat(plan.updatesTags()).isFalse();
+        assertThat(plan.encryptionAction()).isEqualTo(EncryptionAction.DO_NOTHING);
+    }
+
+    @Test
+    public void testChangedDestinationIsUpdated() {
+        val model = extendedS3Model();
+        model.getExtendedS3DestinationConfiguration().setBufferingHints(BUFFERING_HINTS_UPDATED);
+        val plan = UpdatePlan.of(extendedS3Model(), model, describeResponse(null),
+            Collections.emptyList(), Collections.emptyList());
+        assertThat(plan.updatesDestination()).isTrue();
+        assertThat(plan.updatesTags()).isFalse();
+        assertThat(plan.isEmpty()).isFalse();
+    }
+
+    @Test
+    public void testDestinationChangedOutsideTheStackIsUpdated() {
+        val drifted = extendedS3Model();
+        drifted.getExtendedS3DestinationConfiguration().setPrefix(PREFIX_UPDATED);
+        val plan = UpdatePlan.of(extendedS3Model(), extendedS3Model(), describeResponse(DeliveryStreamEncryptionStatus.DISABLED, drifted),
+            Collections.emptyList(), Collections.emptyList());
+        assertThat(plan.updatesDestination()).isTrue();
+        assertThat(plan.isEmpty()).isFalse();
+    }
+
+    @Test
+    public void testChangedTagsAreUpdated() {
+        val plan = UpdatePlan.of(extendedS3Model(), extendedS3Model(), describeResponse(null),
+            Collections.singletonList(new Tag("k1", "v1")),
+            Collections.singletonList(new Tag("k1", "v2")));
+        assertThat(plan.updatesDestination()).isFalse();
+        assertThat(plan.updatesTags()).isTrue();
+    }
+
+    @Test
+    public void testEncryptionIsStoppedWhenNoLongerDesired() {
+        val plan = UpdatePlan.of(extendedS3Model(), extendedS3Model(), describeResponse(DeliveryStreamEncryptionStatus.ENABLED),
+            Collections.emptyList(), Collections.emptyList());
+        assertThat(plan.encryptionAction()).isEqualTo(EncryptionAction.STOP);
+        assertThat(plan.isEmpty()).isFalse();
+    }
+
+    // A copy, since a test may change it.
+    private static ResourceModel extendedS3Model() {
+        return ResourceModel.builder()
+            .deliveryStreamName(DELIVERY_STREAM_NAME)
+            .extendedS3DestinationConfiguration(HandlerUtils.translateExtendedS3DestinationConfigurationToCfnModel(
+                extendedS3DestinationDescription(EXTENDED_S3_DESTINATION_CONFIGURATION_FULL)))
+            .build();
+    }
+
+    private static DescribeDeliveryStreamResponse describeResponse(final DeliveryStreamEncryptionStatus encryptionStatus) {
+        return describeResponse(encryptionStatus, extendedS3Model());
+    }
+
+    private static DescribeDeliveryStreamResponse describeResponse(final DeliveryStreamEncryptionStatus encryptionStatus,
+                                                                   final ResourceModel live) {
+        return DescribeDeliveryStreamResponse.builder()
+            .deliveryStreamDescription(DeliveryStreamDescription.builder()
+                .deliveryStreamName(DELIVERY_STREAM_NAME)
+                .versionId("1")
+                .deliveryStreamEncryptionConfiguration(encryptionStatus == null ? null
+                    : DeliveryStreamEncryptionConfiguration.builder().status(encryptionStatus).build())
+                .destinations(DestinationDescription.builder()
+                    .destinationId("destination-0001")
+                    .extendedS3DestinationDescription(extendedS3DestinationDescription(live.getExtendedS3DestinationConfiguration()))
+                    .build())
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.amazonaws.kinesisfirehose.deliverystream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.firehose.model.ConcurrentModificationException;
+import software.amazon.awssdk.services.firehose.model.InvalidArgumentException;
+import software.amazon.awssdk.services.firehose.model.ResourceInUseException;
+
+public class VersionConflictRetryTest {
+    private final AtomicLong clock = new AtomicLong(1_000L);
+    private final AtomicInteger describes = new AtomicInteger();
+    private final List<String> attempts = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        System.setProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING, "60000");
+        System.setProperty(InvocationDeadline.RESERVE_MILLIS_SETTING, "3000");
+        System.setProperty(InvocationDeadline.MIN_CALL_BUDGET_MILLIS_SETTING, "2000");
+        System.setProperty(VersionConflictRetry.MAX_RETRIES_SETTING, "3");
+        System.setProperty(VersionConflictRetry.BACKOFF_MILLIS_SETTING, "1000");
+    }
+
+    @AfterEach
+    public void clearSettings() {
+        System.clearProperty(InvocationDeadline.INVOCATION_BUDGET_MILLIS_SETTING);
+        System.clearProperty(InvocationDeadline.RESERVE_MILLIS_SETTING);
+        System.clearProperty(InvocationDeadline.MIN_CALL_BUDGET_MILLIS_SETTING);
+        System.clearProperty(VersionConflictRetry.MAX_RETRIES_SETTING);
+        System.clearProperty(VersionConflictRetry.BACKOFF_MILLIS_SETTING);
+    }
+
+    @Test
+    public void testRetriesWithFreshDescribeAfterConflicts() {
+        val result = retry().run("1", version -> {
+            attempts.add(version);
+            if (attempts.size() < 3) {
+                throw ConcurrentModificationException.builder().message("version moved on").build();
+            }
+        }, this::describe);
+        assertThat(result).isEqualTo("3");
+        assertThat(attempts).containsExactly("1", "2", "3");
+        // Backs off 1 and then 2 seconds.
+        assertThat(clock.get()).isEqualTo(1_000L + 3_000L);
+    }
+
+    @Test
+    public void testRetriesWhileStreamIsBusy() {
+        val result = retry().run("1", version -> {
+            attempts.add(version);
+            if (attempts.size() < 2) {
+                throw ResourceInUseException.builder().message("encryption is being enabled").build();
+            }
+        }, this::describe);
+        assertThat(result).isEqualTo("2");
+    }
+
+    @Test
+    public void testThrowsLastConflictOnceRetriesRunOut() {
+        assertThatThrownBy(() -> retry().run("1", this::alwaysConflict, this::describe))
+            .isInstanceOf(ConcurrentModificationException.class);
+        assertThat(attempts).containsExactly("1", "2", "3", "4");
+        assertThat(clock.get()).isEqualTo(1_000L + 7_000L);
+    }
+
+    @Test
+    public void testOtherFailuresAreNotRetried() {
+        assertThatThrownBy(() -> retry().run("1", version -> {
+            attempts.add(version);
+            throw InvalidArgumentException.builder().message("bad request").build();
+        }, this::describe)).isInstanceOf(InvalidArgumentException.class);
+        assertThat(attempts).containsExactly("1");
+        assertThat(describes).hasValue(0);
+    }
+
+    @Test
+    public void testStopsBeforeTheInvocationDeadline() {
+        System.setProperty(VersionConflictRetry.MAX_RETRIES_SETTING, "10");
+        System.setProperty(VersionConflictRetry.BACKOFF_MILLIS_SETTING, "20000");
+        assertThatThrownBy(() -> retry().run("1", this::alwaysConflict, this::describe))
+            .isInstanceOf(ConcurrentModificationException.class);
+        // After the first 20 second backoff, the next one of 40 seconds would run past the deadline.
+        assertThat(attempts).containsExactly("1", "2");
+    }
+
+    private VersionConflictRetry retry() {
+        return VersionConflictRetry.of(InvocationDeadline.start(clock::get), clock::addAndGet);
+    }
+
+    private void alwaysConflict(final String version) {
+        attempts.add(version);
+        throw ConcurrentModificationException.builder().message("version moved on").build();
+    }
+
+    private String describe() {
+        return String.valueOf(describes.incrementAndGet() + 1);
+    }
+}